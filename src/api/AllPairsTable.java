@@ -0,0 +1,201 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class represents the all pairs shortest paths of a graph:
+ * the distance, the next hop and the predecessor of the shortest path between every two nodes, kept in n*n tables.
+ * The tables are computed once by a Dijkstra from every node, the sources are split between the threads
+ * of a {@link ForkJoinPool}, and then every query is a table lookup.
+ * It takes O(V^2) memory, so it is meant for small graphs like the game graphs.
+ * The object is immutable, it describes the graph as it was when it was built.
+ */
+public class AllPairsTable {
+
+    /**
+     * the number of sources a task runs without splitting.
+     */
+    private static final int THRESHOLD = 16;
+
+    private final WDGraph_CSR _graph;
+    private final int _n;
+    private final double[] _dist;
+    private final int[] _next;
+    private final int[] _pred;
+
+    /**
+     * Computes the table of g on the common pool.
+     *
+     * @param g directed_weighted_graph
+     */
+    public AllPairsTable(directed_weighted_graph g) {
+        this(WDGraph_CSR.of(g), ForkJoinPool.commonPool());
+    }
+
+    AllPairsTable(WDGraph_CSR s, ForkJoinPool pool) {
+        _graph = s;
+        _n = s.nodeSize();
+        if ((long) _n * _n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("the graph is too big for an all pairs table: " + _n + " nodes");
+        }
+        _dist = new double[_n * _n];
+        _next = new int[_n * _n];
+        _pred = new int[_n * _n];
+        if (_n > 0) {
+            pool.invoke(new Rows(0, _n));
+        }
+    }
+
+    /**
+     * Computes the rows [from, to) of the tables, splits the range while it is bigger than THRESHOLD.
+     */
+    private class Rows extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int _from, _to;
+
+        Rows(int from, int to) {
+            _from = from;
+            _to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (_to - _from > THRESHOLD) {
+                int mid = (_from + _to) >>> 1;
+                invokeAll(new Rows(_from, mid), new Rows(mid, _to));
+                return;
+            }
+            QueryContext c = new QueryContext(_n);
+            int[] stack = new int[_n];
+            for (int src = _from; src < _to; src++) {
+                c.reset();
+                Dijkstra.run(_graph, c, src, -1);
+                fillRow(c, src, stack);
+            }
+        }
+    }
+
+    /**
+     * Copies the distances of the search from src and turns its predecessors into next hops:
+     * the next hop to v is v itself if its predecessor is src, else the next hop to its predecessor.
+     */
+    private void fillRow(QueryContext c, int src, int[] stack) {
+        int row = src * _n;
+        for (int v = 0; v < _n; v++) {
+            _dist[row + v] = c.dist(v);
+            _pred[row + v] = c.hasDist(v) ? c.pred(v) : -1;
+            _next[row + v] = c.hasDist(v) ? -2 : -1;
+        }
+        _next[row + src] = -1;
+        for (int v = 0; v < _n; v++) {
+            if (_next[row + v] != -2) {
+                continue;
+            }
+            int sp = 0;
+            int u = v;
+            //climb the predecessors until a node that is known or follows src
+            while (_next[row + u] == -2 && c.pred(u) != src) {
+                stack[sp++] = u;
+                u = c.pred(u);
+            }
+            int hop = _next[row + u] == -2 ? u : _next[row + u];
+            _next[row + u] = hop;
+            while (sp > 0) {
+                _next[row + stack[--sp]] = hop;
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the shortest path from src to dest, this method runs in O(1) time.
+     *
+     * @param src  start node
+     * @param dest end node
+     * @return distance, -1 if there is no such node or no path.
+     */
+    public double getDist(int src, int dest) {
+        int a = _graph.indexOf(src), b = _graph.indexOf(dest);
+        if (a == -1 || b == -1) {
+            return -1;
+        }
+        return _dist[a * _n + b];
+    }
+
+    /**
+     * Returns the node after src on the shortest path from src to dest, this method runs in O(1) time.
+     *
+     * @param src  start node
+     * @param dest end node
+     * @return key of the next node, -1 if src == dest or there is no path.
+     */
+    public int nextHop(int src, int dest) {
+        int a = _graph.indexOf(src), b = _graph.indexOf(dest);
+        if (a == -1 || b == -1) {
+            return -1;
+        }
+        int h = _next[a * _n + b];
+        return h == -1 ? -1 : _graph.keyOf(h);
+    }
+
+    /**
+     * Returns the shortest path from src to dest as an array of node keys, src first.
+     * this method runs in O(path length) time.
+     *
+     * @param src  start node
+     * @param dest end node
+     * @return the keys of the path, null if there is no such node or no path.
+     */
+    public int[] getPathKeys(int src, int dest) {
+        int a = _graph.indexOf(src), b = _graph.indexOf(dest);
+        if (a == -1 || b == -1 || _dist[a * _n + b] == -1) {
+            return null;
+        }
+        //the predecessors of the row of src, so the path is the one of a single search
+        int row = a * _n;
+        int len = 0;
+        for (int u = b; u != -1; u = _pred[row + u]) {
+            len++;
+        }
+        int[] ans = new int[len];
+        for (int u = b; u != -1; u = _pred[row + u]) {
+            ans[--len] = _graph.keyOf(u);
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the shortest path from src to dest as a list of the nodes, src first.
+     *
+     * @param src  start node
+     * @param dest end node
+     * @return the path, null if there is no such node or no path.
+     */
+    public List<node_data> getPath(int src, int dest) {
+        int[] keys = getPathKeys(src, dest);
+        if (keys == null) {
+            return null;
+        }
+        List<node_data> ans = new ArrayList<>(keys.length);
+        for (int k : keys) {
+            ans.add(_graph.getNode(k));
+        }
+        return ans;
+    }
+
+    boolean isOf(WDGraph_CSR s) {
+        return _graph == s;
+    }
+
+    /**
+     * Returns the Mode Count of the graph when the table was computed.
+     *
+     * @return mode_count
+     */
+    public int getMC() {
+        return _graph.getMC();
+    }
+}
@@ -0,0 +1,287 @@
+package api;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * This class holds the fixed length int and double arrays that a {@link WDGraph_CSR} is made of.
+ * A column is a plain heap array, or a list of buffer chunks of 2^CHUNK_SHIFT values each:
+ * direct buffers for a snapshot that is kept outside the Java heap,
+ * or the mapped pages of a file written by {@link GraphBinary}.
+ * The columns do not check bounds beyond the array and buffer checks.
+ */
+final class Columns {
+
+    static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private Columns() {
+    }
+
+    /**
+     * A fixed length array of ints.
+     */
+    abstract static class Ints {
+
+        abstract int get(int i);
+
+        abstract void set(int i, int v);
+
+        /**
+         * Returns true iff the values are stored outside the Java heap.
+         *
+         * @return true for buffers
+         */
+        abstract boolean offHeap();
+    }
+
+    /**
+     * A fixed length array of doubles.
+     */
+    abstract static class Doubles {
+
+        abstract double get(int i);
+
+        abstract void set(int i, double v);
+
+        abstract boolean offHeap();
+    }
+
+    /**
+     * Wraps the array, it is not copied.
+     *
+     * @param a the values
+     * @return Ints
+     */
+    static Ints ints(int[] a) {
+        return new HeapInts(a);
+    }
+
+    /**
+     * Wraps the array, it is not copied.
+     *
+     * @param a the values
+     * @return Doubles
+     */
+    static Doubles doubles(double[] a) {
+        return new HeapDoubles(a);
+    }
+
+    /**
+     * Wraps buffer chunks, every chunk but the last one holds exactly 2^CHUNK_SHIFT values.
+     *
+     * @param chunks the values
+     * @return Ints
+     */
+    static Ints ints(IntBuffer[] chunks) {
+        return new BufferInts(chunks);
+    }
+
+    /**
+     * Wraps buffer chunks, every chunk but the last one holds exactly 2^CHUNK_SHIFT values.
+     *
+     * @param chunks the values
+     * @return Doubles
+     */
+    static Doubles doubles(DoubleBuffer[] chunks) {
+        return new BufferDoubles(chunks);
+    }
+
+    /**
+     * Returns a new zero filled column.
+     *
+     * @param length  number of values
+     * @param offHeap true for direct buffers, false for a heap array
+     * @return Ints
+     */
+    static Ints ints(int length, boolean offHeap) {
+        if (!offHeap) {
+            return new HeapInts(new int[length]);
+        }
+        IntBuffer[] chunks = new IntBuffer[chunks(length)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = direct(chunkLength(length, c) * 4).asIntBuffer();
+        }
+        return new BufferInts(chunks);
+    }
+
+    /**
+     * Returns a new zero filled column.
+     *
+     * @param length  number of values
+     * @param offHeap true for direct buffers, false for a heap array
+     * @return Doubles
+     */
+    static Doubles doubles(int length, boolean offHeap) {
+        if (!offHeap) {
+            return new HeapDoubles(new double[length]);
+        }
+        DoubleBuffer[] chunks = new DoubleBuffer[chunks(length)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = direct(chunkLength(length, c) * 8).asDoubleBuffer();
+        }
+        return new BufferDoubles(chunks);
+    }
+
+    /**
+     * Returns a new column of the given length, with the first values of c, stored in the same way as c.
+     *
+     * @param c      the column
+     * @param used   number of values of c to copy
+     * @param length the new length
+     * @return Ints
+     */
+    static Ints copyOf(Ints c, int used, int length) {
+        if (c instanceof HeapInts) {
+            return new HeapInts(Arrays.copyOf(((HeapInts) c)._a, length));
+        }
+        Ints ans = ints(length, true);
+        for (int i = 0; i < used; i++) {
+            ans.set(i, c.get(i));
+        }
+        return ans;
+    }
+
+    /**
+     * Returns a new column of the given length, with the first values of c, stored in the same way as c.
+     *
+     * @param c      the column
+     * @param used   number of values of c to copy
+     * @param length the new length
+     * @return Doubles
+     */
+    static Doubles copyOf(Doubles c, int used, int length) {
+        if (c instanceof HeapDoubles) {
+            return new HeapDoubles(Arrays.copyOf(((HeapDoubles) c)._a, length));
+        }
+        Doubles ans = doubles(length, true);
+        for (int i = 0; i < used; i++) {
+            ans.set(i, c.get(i));
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the number of chunks of a column of the given length.
+     *
+     * @param length number of values
+     * @return number of chunks
+     */
+    static int chunks(long length) {
+        return (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * Returns the number of values in chunk c of a column of the given length.
+     *
+     * @param length number of values
+     * @param c      chunk index
+     * @return values in the chunk
+     */
+    static int chunkLength(long length, int c) {
+        return (int) Math.min(length - ((long) c << CHUNK_SHIFT), 1 << CHUNK_SHIFT);
+    }
+
+    private static ByteBuffer direct(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static final class HeapInts extends Ints {
+
+        private final int[] _a;
+
+        HeapInts(int[] a) {
+            _a = a;
+        }
+
+        @Override
+        int get(int i) {
+            return _a[i];
+        }
+
+        @Override
+        void set(int i, int v) {
+            _a[i] = v;
+        }
+
+        @Override
+        boolean offHeap() {
+            return false;
+        }
+    }
+
+    private static final class HeapDoubles extends Doubles {
+
+        private final double[] _a;
+
+        HeapDoubles(double[] a) {
+            _a = a;
+        }
+
+        @Override
+        double get(int i) {
+            return _a[i];
+        }
+
+        @Override
+        void set(int i, double v) {
+            _a[i] = v;
+        }
+
+        @Override
+        boolean offHeap() {
+            return false;
+        }
+    }
+
+    private static final class BufferInts extends Ints {
+
+        private final IntBuffer[] _chunks;
+
+        BufferInts(IntBuffer[] chunks) {
+            _chunks = chunks;
+        }
+
+        @Override
+        int get(int i) {
+            return _chunks[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+        }
+
+        @Override
+        void set(int i, int v) {
+            _chunks[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, v);
+        }
+
+        @Override
+        boolean offHeap() {
+            return true;
+        }
+    }
+
+    private static final class BufferDoubles extends Doubles {
+
+        private final DoubleBuffer[] _chunks;
+
+        BufferDoubles(DoubleBuffer[] chunks) {
+            _chunks = chunks;
+        }
+
+        @Override
+        double get(int i) {
+            return _chunks[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+        }
+
+        @Override
+        void set(int i, double v) {
+            _chunks[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, v);
+        }
+
+        @Override
+        boolean offHeap() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,685 @@
+package api;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * This class represents a contraction hierarchy of a directed weighted graph,
+ * for very fast point to point shortest path queries on a graph that rarely changes.
+ * <p>
+ * Preprocessing ({@link #build}) contracts the nodes one by one, by an order of importance:
+ * a node is removed, and a shortcut edge u->w is added for every path u->v->w that was the only shortest path
+ * between u and w (there is no witness path around v). Every shortcut remembers the two edges it replaces.
+ * A query is a bidirectional Dijkstra that only goes up the order: forward from src over the edges to more
+ * important nodes, and backward from dest over the edges from more important nodes.
+ * Both searches meet at the most important node of the shortest path, after settling a few hundred nodes
+ * even on big graphs, and the path is unpacked by replacing every shortcut with its two edges.
+ * <p>
+ * The hierarchy keeps only the keys of the nodes and its own edges, so it can be saved to a compact binary file
+ * ({@link #save}, {@link #load}) and queried without the graph. It describes the graph as it was when it was built,
+ * and keeps the number of edges and a fingerprint of all of them (source, destination and weight),
+ * so a hierarchy of a graph that was changed since is not taken for the hierarchy of the graph ({@link #isOf}).
+ * Queries keep their state per thread, so many threads can query the same hierarchy at once.
+ */
+public class ContractionHierarchy {
+
+    private static final int MAGIC = 0x43483032; // "CH02"
+
+    /**
+     * max number of nodes a witness search settles before it gives up (and a shortcut is added).
+     */
+    private static final int WITNESS_LIMIT = 500;
+
+    private final int _mode_count;
+    private final int _edge_size;
+    private final long _fingerprint;
+    private final int[] _keys;
+    private final IntObjectMap<Integer> _index;
+
+    // the edges, an edge with _mid1 == -1 is an edge of the graph, else a shortcut of the edges _mid1 and _mid2
+    private final int[] _src, _dest, _mid1, _mid2;
+    private final double[] _w;
+
+    // the upward graphs: the edges of every node to more important nodes, and from more important nodes
+    private final int[] _upOffsets, _upEdges;
+    private final int[] _downOffsets, _downEdges;
+
+    private final ThreadLocal<QueryContext> _contexts = new ThreadLocal<>();
+
+    private ContractionHierarchy(int mc, int edgeSize, long fingerprint, int[] keys, int[] src, int[] dest, double[] w, int[] mid1, int[] mid2,
+                                 int[] upOffsets, int[] upEdges, int[] downOffsets, int[] downEdges) {
+        _mode_count = mc;
+        _edge_size = edgeSize;
+        _fingerprint = fingerprint;
+        _keys = keys;
+        _index = new IntObjectMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            _index.put(keys[i], Integer.valueOf(i));
+        }
+        _src = src;
+        _dest = dest;
+        _w = w;
+        _mid1 = mid1;
+        _mid2 = mid2;
+        _upOffsets = upOffsets;
+        _upEdges = upEdges;
+        _downOffsets = downOffsets;
+        _downEdges = downEdges;
+    }
+
+    /**
+     * Builds the contraction hierarchy of g.
+     *
+     * @param g directed_weighted_graph
+     * @return ContractionHierarchy
+     */
+    public static ContractionHierarchy build(directed_weighted_graph g) {
+        return new Builder(WDGraph_CSR.of(g)).build();
+    }
+
+    static ContractionHierarchy build(WDGraph_CSR s) {
+        return new Builder(s).build();
+    }
+
+    /**
+     * Returns the number of nodes of the hierarchy.
+     *
+     * @return node count
+     */
+    public int nodeSize() {
+        return _keys.length;
+    }
+
+    /**
+     * Returns the number of shortcuts the preprocessing added.
+     *
+     * @return shortcut count
+     */
+    public int shortcutSize() {
+        int ans = 0;
+        for (int m : _mid1) {
+            if (m != -1) {
+                ans++;
+            }
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the Mode Count of the graph when the hierarchy was built.
+     *
+     * @return mode_count
+     */
+    public int getMC() {
+        return _mode_count;
+    }
+
+    /**
+     * Returns true iff the hierarchy was built from a graph with the same nodes and edges (and weights) as g.
+     * the Mode Count is not compared, it depends on how the graph was made (a loaded graph, a copy...).
+     * this method runs in O(V+E) time.
+     *
+     * @param g directed_weighted_graph
+     * @return true iff the hierarchy describes g
+     */
+    public boolean isOf(directed_weighted_graph g) {
+        return matches(WDGraph_CSR.of(g));
+    }
+
+    boolean matches(WDGraph_CSR s) {
+        if (s.nodeSize() != _keys.length || s.edgeSize() != _edge_size) {
+            return false;
+        }
+        for (int i = 0; i < s.nodeSize(); i++) {
+            if (indexOf(s.keyOf(i)) == -1) {
+                return false;
+            }
+        }
+        return s.fingerprint() == _fingerprint;
+    }
+
+    private int indexOf(int key) {
+        Integer i = _index.get(key);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * returns the length of the shortest path between src to dest
+     * Note: if no such path --> returns -1
+     *
+     * @param src  - start node
+     * @param dest - end (target) node
+     * @return distance
+     */
+    public double shortestPathDist(int src, int dest) {
+        int a = indexOf(src), b = indexOf(dest);
+        if (a == -1 || b == -1) {
+            return -1;
+        }
+        QueryContext c = context();
+        int m = query(c, a, b);
+        return m == -1 ? -1 : c.dist(m) + c.backward().dist(m);
+    }
+
+    /**
+     * returns the the shortest path between src to dest as an array of node keys: src, n1, n2, ..., dest.
+     * the shortcuts on the path are unpacked to the edges of the graph.
+     *
+     * @param src  - start node
+     * @param dest - end (target) node
+     * @return the keys of the path, null if there is no such path.
+     */
+    public int[] shortestPathKeys(int src, int dest) {
+        int[] path = shortestPathIndexes(src, dest);
+        if (path != null) {
+            for (int i = 0; i < path.length; i++) {
+                path[i] = _keys[path[i]];
+            }
+        }
+        return path;
+    }
+
+    private int[] shortestPathIndexes(int src, int dest) {
+        int a = indexOf(src), b = indexOf(dest);
+        if (a == -1 || b == -1) {
+            return null;
+        }
+        QueryContext c = context();
+        int m = query(c, a, b);
+        if (m == -1) {
+            return null;
+        }
+        QueryContext bc = c.backward();
+        //the edges of the path: the forward edges up to m, then the backward edges down from m
+        IntStack edges = new IntStack();
+        for (int v = m; c.pred(v) != -1; v = _src[c.pred(v)]) {
+            edges.push(c.pred(v));
+        }
+        edges.reverse();
+        for (int v = m; bc.pred(v) != -1; v = _dest[bc.pred(v)]) {
+            edges.push(bc.pred(v));
+        }
+
+        IntStack path = new IntStack();
+        path.push(a);
+        IntStack todo = new IntStack();
+        for (int i = 0; i < edges.size(); i++) {
+            todo.push(edges.get(i));
+            while (todo.size() > 0) {
+                int e = todo.pop();
+                if (_mid1[e] == -1) {
+                    path.push(_dest[e]);
+                } else {
+                    todo.push(_mid2[e]);
+                    todo.push(_mid1[e]);
+                }
+            }
+        }
+        return path.toArray();
+    }
+
+    private QueryContext context() {
+        QueryContext c = _contexts.get();
+        if (c == null) {
+            c = new QueryContext(_keys.length);
+            _contexts.set(c);
+        }
+        c.reset();
+        return c;
+    }
+
+    /**
+     * The upward bidirectional search, the predecessors are edge ids.
+     *
+     * @return index of the node where the shortest path is met, -1 if there is no path.
+     */
+    private int query(QueryContext c, int a, int b) {
+        QueryContext bc = c.backward();
+        IndexedDHeap fh = c.heap(), bh = bc.heap();
+        c.setDist(a, 0);
+        c.setPred(a, -1);
+        fh.insertOrDecrease(a, 0);
+        bc.setDist(b, 0);
+        bc.setPred(b, -1);
+        bh.insertOrDecrease(b, 0);
+
+        double mu = a == b ? 0 : Double.POSITIVE_INFINITY;
+        int meet = a == b ? a : -1;
+        while (true) {
+            double ft = fh.isEmpty() ? Double.POSITIVE_INFINITY : fh.peekKey();
+            double bt = bh.isEmpty() ? Double.POSITIVE_INFINITY : bh.peekKey();
+            if (Math.min(ft, bt) >= mu) {
+                break;
+            }
+            boolean forward = ft <= bt;
+            QueryContext x = forward ? c : bc, y = forward ? bc : c;
+            IndexedDHeap h = forward ? fh : bh;
+            int[] offsets = forward ? _upOffsets : _downOffsets;
+            int[] edges = forward ? _upEdges : _downEdges;
+            int[] other = forward ? _dest : _src;
+
+            int u = h.poll();
+            x.settle(u);
+            double du = x.dist(u);
+            if (y.hasDist(u) && du + y.dist(u) < mu) {
+                mu = du + y.dist(u);
+                meet = u;
+            }
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int e = edges[j];
+                int v = other[e];
+                if (x.isSettled(v)) {
+                    continue;
+                }
+                double d = du + _w[e];
+                if (!x.hasDist(v) || d < x.dist(v)) {
+                    x.setDist(v, d);
+                    x.setPred(v, e);
+                    h.insertOrDecrease(v, d);
+                    if (y.hasDist(v) && d + y.dist(v) < mu) {
+                        mu = d + y.dist(v);
+                        meet = v;
+                    }
+                }
+            }
+        }
+        return meet;
+    }
+
+    /**
+     * Saves the hierarchy to the given file name, in a compact binary format.
+     *
+     * @param file the file name (may include a relative path).
+     * @return true iff the file was successfully saved
+     */
+    public boolean save(String file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(_mode_count);
+            out.writeInt(_edge_size);
+            out.writeLong(_fingerprint);
+            writeInts(out, _keys);
+            writeInts(out, _src);
+            writeInts(out, _dest);
+            out.writeInt(_w.length);
+            for (double w : _w) {
+                out.writeDouble(w);
+            }
+            writeInts(out, _mid1);
+            writeInts(out, _mid2);
+            writeInts(out, _upOffsets);
+            writeInts(out, _upEdges);
+            writeInts(out, _downOffsets);
+            writeInts(out, _downEdges);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Loads a hierarchy that was saved by {@link #save}.
+     *
+     * @param file file name
+     * @return the hierarchy, null if the file could not be read or is not a hierarchy.
+     */
+    public static ContractionHierarchy load(String file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int mc = in.readInt();
+            int edgeSize = in.readInt();
+            long fingerprint = in.readLong();
+            int[] keys = readInts(in);
+            int[] src = readInts(in);
+            int[] dest = readInts(in);
+            double[] w = new double[in.readInt()];
+            for (int i = 0; i < w.length; i++) {
+                w[i] = in.readDouble();
+            }
+            int[] mid1 = readInts(in);
+            int[] mid2 = readInts(in);
+            int[] upOffsets = readInts(in);
+            int[] upEdges = readInts(in);
+            int[] downOffsets = readInts(in);
+            int[] downEdges = readInts(in);
+            return new ContractionHierarchy(mc, edgeSize, fingerprint, keys, src, dest, w, mid1, mid2, upOffsets, upEdges, downOffsets, downEdges);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Loads a hierarchy that was saved by {@link #save}, only if it was built from a graph like g (see {@link #isOf}).
+     *
+     * @param file file name
+     * @param g    the graph the hierarchy should describe
+     * @return the hierarchy, null if the file could not be read or was built from another graph.
+     */
+    public static ContractionHierarchy load(String file, directed_weighted_graph g) {
+        ContractionHierarchy ans = load(file);
+        return ans != null && ans.isOf(g) ? ans : null;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] a) throws IOException {
+        out.writeInt(a.length);
+        for (int v : a) {
+            out.writeInt(v);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] a = new int[in.readInt()];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = in.readInt();
+        }
+        return a;
+    }
+
+    /**
+     * The preprocessing: contracts the nodes on a dynamic copy of the graph and collects the upward edges.
+     */
+    private static final class Builder {
+        private final WDGraph_CSR _s;
+        private final int _n;
+
+        // all the edges ever added, some are replaced later by shorter ones
+        private int[] _src = new int[16], _dest = new int[16], _mid1 = new int[16], _mid2 = new int[16];
+        private double[] _w = new double[16];
+        private int _m;
+
+        // the edges of every node that are not contracted yet
+        private final IntStack[] _out, _in;
+        private final boolean[] _contracted;
+        private final int[] _deleted;
+        private final IntStack[] _up, _down;
+
+        private final QueryContext _witness;
+
+        Builder(WDGraph_CSR s) {
+            _s = s;
+            _n = s.nodeSize();
+            _out = new IntStack[_n];
+            _in = new IntStack[_n];
+            _up = new IntStack[_n];
+            _down = new IntStack[_n];
+            for (int i = 0; i < _n; i++) {
+                _out[i] = new IntStack();
+                _in[i] = new IntStack();
+            }
+            _contracted = new boolean[_n];
+            _deleted = new int[_n];
+            _witness = new QueryContext(_n);
+            for (int u = 0; u < _n; u++) {
+                for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                    int v = s.target(e);
+                    if (v != u) {
+                        addEdge(u, v, s.weight(e), -1, -1);
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            IndexedDHeap order = new IndexedDHeap(_n);
+            for (int v = 0; v < _n; v++) {
+                order.insertOrDecrease(v, priority(v));
+            }
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                //lazy update: the priority may have grown since it was computed
+                double p = priority(v);
+                if (!order.isEmpty() && p > order.peekKey()) {
+                    order.insertOrDecrease(v, p);
+                    continue;
+                }
+                contract(v, false);
+            }
+            return compact();
+        }
+
+        private double priority(int v) {
+            int degree = _out[v].size() + _in[v].size();
+            return contract(v, true) - degree + _deleted[v];
+        }
+
+        /**
+         * Contracts v, or only counts the shortcuts it needs if dry.
+         *
+         * @return the number of shortcuts
+         */
+        private int contract(int v, boolean dry) {
+            IntStack in = _in[v], out = _out[v];
+            int shortcuts = 0;
+            double maxOut = 0;
+            for (int j = 0; j < out.size(); j++) {
+                maxOut = Math.max(maxOut, _w[out.get(j)]);
+            }
+            for (int i = 0; i < in.size(); i++) {
+                int a = in.get(i);
+                int u = _src[a];
+                witnessSearch(u, v, _w[a] + maxOut);
+                for (int j = 0; j < out.size(); j++) {
+                    int b = out.get(j);
+                    int x = _dest[b];
+                    if (x == u) {
+                        continue;
+                    }
+                    double d = _w[a] + _w[b];
+                    if (_witness.hasDist(x) && _witness.dist(x) <= d) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (!dry) {
+                        addEdge(u, x, d, a, b);
+                    }
+                }
+            }
+            if (!dry) {
+                _contracted[v] = true;
+                _up[v] = out;
+                _down[v] = in;
+                for (int j = 0; j < out.size(); j++) {
+                    int x = _dest[out.get(j)];
+                    _in[x].remove(out.get(j));
+                    _deleted[x]++;
+                }
+                for (int i = 0; i < in.size(); i++) {
+                    int u = _src[in.get(i)];
+                    _out[u].remove(in.get(i));
+                    _deleted[u]++;
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * A Dijkstra from u over the nodes that are not contracted, without v, up to the distance limit.
+         */
+        private void witnessSearch(int u, int v, double limit) {
+            QueryContext c = _witness;
+            c.reset();
+            IndexedDHeap heap = c.heap();
+            c.setDist(u, 0);
+            heap.insertOrDecrease(u, 0);
+            int settled = 0;
+            while (!heap.isEmpty() && settled < WITNESS_LIMIT) {
+                int x = heap.poll();
+                c.settle(x);
+                settled++;
+                double dx = c.dist(x);
+                if (dx > limit) {
+                    break;
+                }
+                IntStack out = _out[x];
+                for (int j = 0; j < out.size(); j++) {
+                    int e = out.get(j);
+                    int y = _dest[e];
+                    if (y == v || c.isSettled(y)) {
+                        continue;
+                    }
+                    double d = dx + _w[e];
+                    if (!c.hasDist(y) || d < c.dist(y)) {
+                        c.setDist(y, d);
+                        heap.insertOrDecrease(y, d);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the edge u->v, or replaces the edge u->v if it is longer.
+         */
+        private void addEdge(int u, int v, double w, int mid1, int mid2) {
+            IntStack out = _out[u];
+            int old = -1;
+            for (int j = 0; j < out.size(); j++) {
+                if (_dest[out.get(j)] == v) {
+                    old = out.get(j);
+                    break;
+                }
+            }
+            if (old != -1 && _w[old] <= w) {
+                return;
+            }
+            if (_m == _src.length) {
+                int len = _m * 2;
+                _src = Arrays.copyOf(_src, len);
+                _dest = Arrays.copyOf(_dest, len);
+                _w = Arrays.copyOf(_w, len);
+                _mid1 = Arrays.copyOf(_mid1, len);
+                _mid2 = Arrays.copyOf(_mid2, len);
+            }
+            int e = _m++;
+            _src[e] = u;
+            _dest[e] = v;
+            _w[e] = w;
+            _mid1[e] = mid1;
+            _mid2[e] = mid2;
+            if (old != -1) {
+                out.remove(old);
+                _in[v].remove(old);
+            }
+            out.push(e);
+            _in[v].push(e);
+        }
+
+        /**
+         * Keeps only the edges that are used by the upward graphs (and the edges their shortcuts unpack to),
+         * and builds the final arrays.
+         */
+        private ContractionHierarchy compact() {
+            boolean[] used = new boolean[_m];
+            IntStack todo = new IntStack();
+            for (int v = 0; v < _n; v++) {
+                for (IntStack list : new IntStack[]{_up[v], _down[v]}) {
+                    for (int j = 0; j < list.size(); j++) {
+                        todo.push(list.get(j));
+                    }
+                }
+            }
+            while (todo.size() > 0) {
+                int e = todo.pop();
+                if (used[e]) {
+                    continue;
+                }
+                used[e] = true;
+                if (_mid1[e] != -1) {
+                    todo.push(_mid1[e]);
+                    todo.push(_mid2[e]);
+                }
+            }
+            int[] id = new int[_m];
+            int m = 0;
+            for (int e = 0; e < _m; e++) {
+                id[e] = used[e] ? m++ : -1;
+            }
+            int[] src = new int[m], dest = new int[m], mid1 = new int[m], mid2 = new int[m];
+            double[] w = new double[m];
+            for (int e = 0; e < _m; e++) {
+                int i = id[e];
+                if (i != -1) {
+                    src[i] = _src[e];
+                    dest[i] = _dest[e];
+                    w[i] = _w[e];
+                    mid1[i] = _mid1[e] == -1 ? -1 : id[_mid1[e]];
+                    mid2[i] = _mid2[e] == -1 ? -1 : id[_mid2[e]];
+                }
+            }
+            int[] upOffsets = new int[_n + 1], downOffsets = new int[_n + 1];
+            for (int v = 0; v < _n; v++) {
+                upOffsets[v + 1] = upOffsets[v] + _up[v].size();
+                downOffsets[v + 1] = downOffsets[v] + _down[v].size();
+            }
+            int[] upEdges = new int[upOffsets[_n]], downEdges = new int[downOffsets[_n]];
+            for (int v = 0; v < _n; v++) {
+                for (int j = 0; j < _up[v].size(); j++) {
+                    upEdges[upOffsets[v] + j] = id[_up[v].get(j)];
+                }
+                for (int j = 0; j < _down[v].size(); j++) {
+                    downEdges[downOffsets[v] + j] = id[_down[v].get(j)];
+                }
+            }
+            int[] keys = new int[_n];
+            for (int i = 0; i < _n; i++) {
+                keys[i] = _s.keyOf(i);
+            }
+            return new ContractionHierarchy(_s.getMC(), _s.edgeSize(), _s.fingerprint(), keys, src, dest, w, mid1, mid2,
+                    upOffsets, upEdges, downOffsets, downEdges);
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntStack {
+        private int[] _a = new int[4];
+        private int _size;
+
+        void push(int v) {
+            if (_size == _a.length) {
+                _a = Arrays.copyOf(_a, _size * 2);
+            }
+            _a[_size++] = v;
+        }
+
+        int pop() {
+            return _a[--_size];
+        }
+
+        int get(int i) {
+            return _a[i];
+        }
+
+        int size() {
+            return _size;
+        }
+
+        /**
+         * Removes the first occurrence of v, the last element takes its place.
+         */
+        void remove(int v) {
+            for (int i = 0; i < _size; i++) {
+                if (_a[i] == v) {
+                    _a[i] = _a[--_size];
+                    return;
+                }
+            }
+        }
+
+        void reverse() {
+            for (int i = 0, j = _size - 1; i < j; i++, j--) {
+                int t = _a[i];
+                _a[i] = _a[j];
+                _a[j] = t;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(_a, _size);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package api;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class is a parallel single source shortest path engine (delta-stepping, Meyer and Sanders)
+ * for {@link WDGraph_Algo#shortestPathTree(int, DeltaStepping)}.
+ * <p>
+ * The nodes are kept in buckets of width delta by their tentative distance. The smallest non empty bucket
+ * is emptied again and again by relaxing the light edges (weight at most delta) of all its nodes in parallel,
+ * and then the heavy edges of all the nodes that were removed from it are relaxed in parallel once.
+ * A small delta behaves like Dijkstra, a large one like Bellman-Ford, and the work of every phase is split
+ * between the threads of a {@link ForkJoinPool}. The distances are the same as the ones of the sequential Dijkstra.
+ * <p>
+ * The distance and the predecessor of a node are one immutable label that is replaced by a compare and set,
+ * so a thread never sees a distance with the predecessor of another one.
+ * An engine can be used by many threads at once, call {@link #close()} to stop its threads.
+ */
+public class DeltaStepping implements AutoCloseable {
+
+    /**
+     * the number of nodes a task relaxes without splitting.
+     */
+    private static final int THRESHOLD = 256;
+
+    private final double _delta;
+    private final ForkJoinPool _pool;
+    private final boolean _ownPool;
+
+    private static final class Label {
+        final double _dist;
+        final int _pred;
+
+        Label(double dist, int pred) {
+            _dist = dist;
+            _pred = pred;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param delta   the width of a bucket, 0 to use the average edge weight of every graph
+     * @param threads the number of threads, 0 to use the common pool
+     */
+    public DeltaStepping(double delta, int threads) {
+        if (!(delta >= 0) || threads < 0) {
+            throw new IllegalArgumentException("delta and threads must be non negative");
+        }
+        _delta = delta;
+        _ownPool = threads > 0;
+        _pool = _ownPool ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Returns the width of a bucket, 0 for the average edge weight.
+     *
+     * @return delta
+     */
+    public double getDelta() {
+        return _delta;
+    }
+
+    /**
+     * Returns the number of threads of the engine.
+     *
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return _pool.getParallelism();
+    }
+
+    /**
+     * Stops the threads of the engine, if it has its own pool.
+     */
+    @Override
+    public void close() {
+        if (_ownPool) {
+            _pool.shutdown();
+        }
+    }
+
+    /**
+     * Computes the shortest path tree of the node with index src on s.
+     *
+     * @param s   the snapshot
+     * @param src index of the source node
+     * @return ShortestPathTree
+     */
+    ShortestPathTree run(WDGraph_CSR s, int src) {
+        int n = s.nodeSize();
+        double delta = _delta > 0 ? _delta : averageWeight(s);
+        AtomicReferenceArray<Label> labels = new AtomicReferenceArray<>(n);
+        labels.set(src, new Label(0, -1));
+
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        buckets.put(0L, IntList.of(src));
+        //the round a node was last taken from a bucket, to take it once per round
+        int[] taken = new int[n];
+        int round = 0;
+
+        while (!buckets.isEmpty()) {
+            long b = buckets.firstKey();
+            IntList removed = new IntList();
+            while (buckets.containsKey(b)) {
+                IntList candidates = buckets.remove(b);
+                round++;
+                IntList frontier = new IntList();
+                for (int i = 0; i < candidates.size(); i++) {
+                    int u = candidates.get(i);
+                    //skip stale entries, the node moved to a smaller bucket
+                    if (taken[u] != round && bucket(labels.get(u)._dist, delta) == b) {
+                        taken[u] = round;
+                        frontier.add(u);
+                    }
+                }
+                removed.addAll(frontier);
+                IntList improved = _pool.invoke(new Relax(s, labels, frontier, 0, frontier.size(), delta, true));
+                addToBuckets(buckets, labels, improved, delta);
+            }
+            IntList improved = _pool.invoke(new Relax(s, labels, removed, 0, removed.size(), delta, false));
+            addToBuckets(buckets, labels, improved, delta);
+        }
+
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        for (int i = 0; i < n; i++) {
+            Label l = labels.get(i);
+            dist[i] = l == null ? -1 : l._dist;
+            pred[i] = l == null ? -1 : l._pred;
+        }
+        return new ShortestPathTree(s, s.keyOf(src), dist, pred);
+    }
+
+    private static long bucket(double dist, double delta) {
+        return (long) (dist / delta);
+    }
+
+    private static double averageWeight(WDGraph_CSR s) {
+        int m = s.outStart(s.nodeSize());
+        if (m == 0) {
+            return 1;
+        }
+        double sum = 0;
+        for (int e = 0; e < m; e++) {
+            sum += s.weight(e);
+        }
+        return sum > 0 ? sum / m : 1;
+    }
+
+    private static void addToBuckets(TreeMap<Long, IntList> buckets, AtomicReferenceArray<Label> labels, IntList nodes, double delta) {
+        for (int i = 0; i < nodes.size(); i++) {
+            int v = nodes.get(i);
+            buckets.computeIfAbsent(bucket(labels.get(v)._dist, delta), k -> new IntList()).add(v);
+        }
+    }
+
+    /**
+     * Relaxes the light (or heavy) edges of the nodes [from, to) of a list,
+     * and returns the nodes whose distance was decreased.
+     */
+    private static class Relax extends RecursiveTask<IntList> {
+
+        private static final long serialVersionUID = 1L;
+        private final WDGraph_CSR _s;
+        private final AtomicReferenceArray<Label> _labels;
+        private final IntList _nodes;
+        private final int _from, _to;
+        private final double _delta;
+        private final boolean _light;
+
+        Relax(WDGraph_CSR s, AtomicReferenceArray<Label> labels, IntList nodes, int from, int to, double delta, boolean light) {
+            _s = s;
+            _labels = labels;
+            _nodes = nodes;
+            _from = from;
+            _to = to;
+            _delta = delta;
+            _light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (_to - _from > THRESHOLD) {
+                int mid = (_from + _to) >>> 1;
+                Relax right = new Relax(_s, _labels, _nodes, mid, _to, _delta, _light);
+                right.fork();
+                IntList ans = new Relax(_s, _labels, _nodes, _from, mid, _delta, _light).compute();
+                ans.addAll(right.join());
+                return ans;
+            }
+            IntList ans = new IntList();
+            for (int i = _from; i < _to; i++) {
+                int u = _nodes.get(i);
+                double du = _labels.get(u)._dist;
+                for (int e = _s.outStart(u); e < _s.outEnd(u); e++) {
+                    double w = _s.weight(e);
+                    if ((w <= _delta) != _light) {
+                        continue;
+                    }
+                    int v = _s.target(e);
+                    double d = du + w;
+                    while (true) {
+                        Label l = _labels.get(v);
+                        if (l != null && l._dist <= d) {
+                            break;
+                        }
+                        if (_labels.compareAndSet(v, l, new Label(d, u))) {
+                            ans.add(v);
+                            break;
+                        }
+                    }
+                }
+            }
+            return ans;
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static final class IntList {
+        private int[] _a = new int[8];
+        private int _size;
+
+        static IntList of(int v) {
+            IntList ans = new IntList();
+            ans.add(v);
+            return ans;
+        }
+
+        void add(int v) {
+            if (_size == _a.length) {
+                _a = Arrays.copyOf(_a, _size * 2);
+            }
+            _a[_size++] = v;
+        }
+
+        void addAll(IntList o) {
+            if (_size + o._size > _a.length) {
+                _a = Arrays.copyOf(_a, Math.max(_a.length * 2, _size + o._size));
+            }
+            System.arraycopy(o._a, 0, _a, _size, o._size);
+            _size += o._size;
+        }
+
+        int get(int i) {
+            return _a[i];
+        }
+
+        int size() {
+            return _size;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package api;
+
+import java.util.Arrays;
+
+/**
+ * This class is the Dijkstra engine of {@link WDGraph_Algo}.
+ * It runs on a {@link WDGraph_CSR} snapshot and keeps all its state in a {@link QueryContext}:
+ * the tentative distances, the predecessor of every reached node, the settled marks and an {@link IndexedDHeap} with decrease-key,
+ * so every node is in the heap at most once and there are no stale entries to skip.
+ * A point to point search stops as soon as the target is settled,
+ * and the path to it is read back through the predecessors.
+ */
+final class Dijkstra {
+
+    private Dijkstra() {
+    }
+
+    /**
+     * Runs Dijkstra from the node with index src.
+     * when it returns, c holds the distance and the predecessor of every settled node.
+     *
+     * @param s      the snapshot
+     * @param c      a context that was reset for this query
+     * @param src    index of the source node
+     * @param target index of the target node, the search stops when it is settled. -1 to settle all the nodes.
+     * @return true iff the target was settled (always true for -1).
+     */
+    static boolean run(WDGraph_CSR s, QueryContext c, int src, int target) {
+        IndexedDHeap heap = c.heap();
+        c.setDist(src, 0);
+        c.setPred(src, -1);
+        heap.insertOrDecrease(src, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            c.settle(u);
+            if (u == target) {
+                return true;
+            }
+            double du = c.dist(u);
+            for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                int v = s.target(e);
+                if (c.isSettled(v)) {
+                    continue;
+                }
+                double d = du + s.weight(e);
+                if (!c.hasDist(v) || d < c.dist(v)) {
+                    c.setDist(v, d);
+                    c.setPred(v, u);
+                    heap.insertOrDecrease(v, d);
+                }
+            }
+        }
+        return target == -1;
+    }
+
+    /**
+     * Runs A* from src to target: Dijkstra where the heap is ordered by the distance plus the estimate of h
+     * to the target, so the nodes in the direction of the target are settled first.
+     * h must be consistent, then every node is settled once with its final distance,
+     * and the predecessors in c give the path like in {@link #run}.
+     *
+     * @param s      the snapshot
+     * @param c      a context that was reset for this query
+     * @param src    index of the source node
+     * @param target index of the target node
+     * @param h      the heuristic
+     * @return true iff the target was settled.
+     */
+    static boolean runAStar(WDGraph_CSR s, QueryContext c, int src, int target, Heuristic h) {
+        IndexedDHeap heap = c.heap();
+        node_data t = s.nodeAt(target);
+        c.setDist(src, 0);
+        c.setPred(src, -1);
+        c.setH(src, h.estimate(s.nodeAt(src), t));
+        heap.insertOrDecrease(src, c.h(src));
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            c.settle(u);
+            if (u == target) {
+                return true;
+            }
+            double du = c.dist(u);
+            for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                int v = s.target(e);
+                if (c.isSettled(v)) {
+                    continue;
+                }
+                double d = du + s.weight(e);
+                if (!c.hasDist(v)) {
+                    c.setH(v, h.estimate(s.nodeAt(v), t));
+                } else if (d >= c.dist(v)) {
+                    continue;
+                }
+                c.setDist(v, d);
+                c.setPred(v, u);
+                heap.insertOrDecrease(v, d + c.h(v));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the indexes of the nodes on the path to target, from the source to target,
+     * by following the predecessors of the last search.
+     * target must be settled.
+     *
+     * @param c      the context of the search
+     * @param target index of the last node of the path
+     * @return the path as node indexes
+     */
+    static int[] path(QueryContext c, int target) {
+        int len = 0;
+        for (int i = target; i != -1; i = c.pred(i)) {
+            len++;
+        }
+        int[] ans = new int[len];
+        for (int i = target; i != -1; i = c.pred(i)) {
+            ans[--len] = i;
+        }
+        return ans;
+    }
+
+    /**
+     * Runs Dijkstra from src until all the targets are settled (or all the reachable nodes are).
+     * when it returns, c holds the distance and the predecessor of every settled node.
+     *
+     * @param s       the snapshot
+     * @param c       a context that was reset for this query
+     * @param src     index of the source node
+     * @param targets indexes of the target nodes, -1 entries are ignored
+     */
+    static void runToAll(WDGraph_CSR s, QueryContext c, int src, int[] targets) {
+        int left = 0;
+        for (int t : targets) {
+            if (t != -1 && !c.isTarget(t)) {
+                c.setTarget(t);
+                left++;
+            }
+        }
+        if (left == 0) {
+            return;
+        }
+        IndexedDHeap heap = c.heap();
+        c.setDist(src, 0);
+        c.setPred(src, -1);
+        heap.insertOrDecrease(src, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            c.settle(u);
+            if (c.isTarget(u) && --left == 0) {
+                return;
+            }
+            double du = c.dist(u);
+            for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                int v = s.target(e);
+                if (c.isSettled(v)) {
+                    continue;
+                }
+                double d = du + s.weight(e);
+                if (!c.hasDist(v) || d < c.dist(v)) {
+                    c.setDist(v, d);
+                    c.setPred(v, u);
+                    heap.insertOrDecrease(v, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs Dijkstra from all the sources at once: every source starts with distance 0,
+     * so every node is settled with its distance from the nearest source,
+     * and c.origin(i) is the source it was reached from.
+     *
+     * @param s       the snapshot
+     * @param c       a context that was reset for this query
+     * @param sources indexes of the source nodes, -1 entries are ignored
+     */
+    static void runMultiSource(WDGraph_CSR s, QueryContext c, int[] sources) {
+        IndexedDHeap heap = c.heap();
+        for (int src : sources) {
+            if (src != -1 && !c.hasDist(src)) {
+                c.setDist(src, 0);
+                c.setPred(src, -1);
+                c.setOrigin(src, src);
+                heap.insertOrDecrease(src, 0);
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            c.settle(u);
+            double du = c.dist(u);
+            for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                int v = s.target(e);
+                if (c.isSettled(v)) {
+                    continue;
+                }
+                double d = du + s.weight(e);
+                if (!c.hasDist(v) || d < c.dist(v)) {
+                    c.setDist(v, d);
+                    c.setPred(v, u);
+                    c.setOrigin(v, c.origin(u));
+                    heap.insertOrDecrease(v, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs Dijkstra backward from target over the in edges, until all the nodes that reach target are settled.
+     * when it returns, c.dist(i) is the length of the shortest path from i to target.
+     *
+     * @param s      the snapshot
+     * @param c      a context that was reset for this query
+     * @param target index of the target node
+     */
+    static void runBackward(WDGraph_CSR s, QueryContext c, int target) {
+        IndexedDHeap heap = c.heap();
+        c.setDist(target, 0);
+        c.setPred(target, -1);
+        heap.insertOrDecrease(target, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            c.settle(u);
+            double du = c.dist(u);
+            for (int p = s.inStart(u); p < s.inEnd(u); p++) {
+                int v = s.source(p);
+                if (c.isSettled(v)) {
+                    continue;
+                }
+                double d = du + s.weight(s.inEdge(p));
+                if (!c.hasDist(v) || d < c.dist(v)) {
+                    c.setDist(v, d);
+                    c.setPred(v, u);
+                    heap.insertOrDecrease(v, d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a bidirectional Dijkstra between src and target:
+     * a forward search from src over the out edges, in c, and a backward search from target over the
+     * in edges of the snapshot, in c.backward(). Every step expands the side with the smaller heap.
+     * mu is the length of the best path seen so far through a node reached by both sides,
+     * and the search stops when the tops of the two heaps sum to at least mu.
+     *
+     * @param s      the snapshot
+     * @param c      a context that was reset for this query
+     * @param src    index of the source node
+     * @param target index of the target node
+     * @return index of the node where the shortest path is met, -1 if target is not reachable.
+     */
+    static int runBidirectional(WDGraph_CSR s, QueryContext c, int src, int target) {
+        QueryContext b = c.backward();
+        IndexedDHeap fh = c.heap(), bh = b.heap();
+        c.setDist(src, 0);
+        c.setPred(src, -1);
+        fh.insertOrDecrease(src, 0);
+        b.setDist(target, 0);
+        b.setPred(target, -1);
+        bh.insertOrDecrease(target, 0);
+        if (src == target) {
+            return src;
+        }
+
+        double mu = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        while (!fh.isEmpty() && !bh.isEmpty()) {
+            if (fh.peekKey() + bh.peekKey() >= mu) {
+                break;
+            }
+            if (fh.size() <= bh.size()) {
+                int u = fh.poll();
+                c.settle(u);
+                double du = c.dist(u);
+                for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                    int v = s.target(e);
+                    if (c.isSettled(v)) {
+                        continue;
+                    }
+                    double d = du + s.weight(e);
+                    if (!c.hasDist(v) || d < c.dist(v)) {
+                        c.setDist(v, d);
+                        c.setPred(v, u);
+                        fh.insertOrDecrease(v, d);
+                        if (b.hasDist(v) && d + b.dist(v) < mu) {
+                            mu = d + b.dist(v);
+                            meet = v;
+                        }
+                    }
+                }
+            } else {
+                int u = bh.poll();
+                b.settle(u);
+                double du = b.dist(u);
+                for (int p = s.inStart(u); p < s.inEnd(u); p++) {
+                    int v = s.source(p);
+                    if (b.isSettled(v)) {
+                        continue;
+                    }
+                    double d = du + s.weight(s.inEdge(p));
+                    if (!b.hasDist(v) || d < b.dist(v)) {
+                        b.setDist(v, d);
+                        b.setPred(v, u);
+                        bh.insertOrDecrease(v, d);
+                        if (c.hasDist(v) && d + c.dist(v) < mu) {
+                            mu = d + c.dist(v);
+                            meet = v;
+                        }
+                    }
+                }
+            }
+        }
+        return meet;
+    }
+
+    /**
+     * Returns the indexes of the nodes on the path found by {@link #runBidirectional},
+     * the forward predecessors from the source to meet and then the backward ones from meet to the target.
+     *
+     * @param c    the context of the search
+     * @param meet the index returned by runBidirectional
+     * @return the path as node indexes
+     */
+    static int[] bidirectionalPath(QueryContext c, int meet) {
+        QueryContext b = c.backward();
+        int[] head = path(c, meet);
+        int len = head.length;
+        for (int i = b.pred(meet); i != -1; i = b.pred(i)) {
+            len++;
+        }
+        int[] ans = Arrays.copyOf(head, len);
+        int j = head.length;
+        for (int i = b.pred(meet); i != -1; i = b.pred(i)) {
+            ans[j++] = i;
+        }
+        return ans;
+    }
+}
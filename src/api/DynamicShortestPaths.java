@@ -0,0 +1,250 @@
+package api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class keeps the shortest paths from one source node of a {@link WDGraph_DS} up to date while the graph changes.
+ * It listens to the graph ({@link GraphListener}) and repairs only the part of the shortest path tree that
+ * a change affects, in the style of Ramalingam and Reps:
+ * <ul>
+ * <li>a new or cheaper edge u->v: if it makes v closer, Dijkstra continues from v over the nodes that get closer.</li>
+ * <li>a removed or more expensive edge u->v of the tree: the subtree of v is cut, every node in it takes the best
+ * distance through its in edges from outside the subtree, and Dijkstra runs inside the subtree only.
+ * an edge that is not in the tree does not change anything.</li>
+ * </ul>
+ * The object is not thread safe, like {@link WDGraph_DS}. Call {@link #close()} to stop listening.
+ */
+public class DynamicShortestPaths implements GraphListener, AutoCloseable {
+
+    private final WDGraph_DS _g;
+    private final int _src;
+    private final IntObjectMap<Label> _labels = new IntObjectMap<>();
+    private final PriorityQueue<Item> _pq = new PriorityQueue<>();
+
+    /**
+     * The distance of a reached node and the node before it on the path, -1 for the source.
+     */
+    private static final class Label {
+        double _dist;
+        int _pred;
+
+        Label(double dist, int pred) {
+            _dist = dist;
+            _pred = pred;
+        }
+    }
+
+    private static final class Item implements Comparable<Item> {
+        final int _key;
+        final double _dist;
+
+        Item(int key, double dist) {
+            _key = key;
+            _dist = dist;
+        }
+
+        @Override
+        public int compareTo(Item o) {
+            return Double.compare(_dist, o._dist);
+        }
+    }
+
+    /**
+     * Constructor, computes the shortest paths from src and starts listening to g.
+     *
+     * @param g   the graph
+     * @param src key of the source node
+     */
+    public DynamicShortestPaths(WDGraph_DS g, int src) {
+        _g = g;
+        _src = src;
+        if (g.getNode(src) != null) {
+            _labels.put(src, new Label(0, -1));
+            _pq.add(new Item(src, 0));
+            propagate();
+        }
+        g.addListener(this);
+    }
+
+    /**
+     * Stops listening to the graph, the distances are not updated anymore.
+     */
+    @Override
+    public void close() {
+        _g.removeListener(this);
+    }
+
+    /**
+     * Returns the key of the source node.
+     *
+     * @return src key
+     */
+    public int getSrc() {
+        return _src;
+    }
+
+    /**
+     * Returns the length of the shortest path from the source to the given node, this method runs in O(1) time.
+     *
+     * @param key node id
+     * @return distance, -1 if there is no such node or no path to it.
+     */
+    public double getDist(int key) {
+        Label l = _labels.get(key);
+        return l == null ? -1 : l._dist;
+    }
+
+    /**
+     * Returns the shortest path from the source to the given node as an array of node keys, src first.
+     *
+     * @param key node id
+     * @return the keys of the path, null if there is no such node or no path to it.
+     */
+    public int[] getPathKeys(int key) {
+        if (_labels.get(key) == null) {
+            return null;
+        }
+        int len = 0;
+        for (int k = key; k != -1; k = _labels.get(k)._pred) {
+            len++;
+        }
+        int[] ans = new int[len];
+        for (int k = key; k != -1; k = _labels.get(k)._pred) {
+            ans[--len] = k;
+        }
+        return ans;
+    }
+
+    @Override
+    public void edgeChanged(int src, int dest, double oldWeight, double newWeight) {
+        if (newWeight != -1 && (oldWeight == -1 || newWeight < oldWeight)) {
+            decrease(src, dest, newWeight);
+        } else if (newWeight == -1 || newWeight > oldWeight) {
+            increase(src, dest);
+        }
+    }
+
+    @Override
+    public void nodeAdded(int key) {
+        // a new node has no edges, so it is not reached
+    }
+
+    @Override
+    public void nodeRemoved(int key) {
+        if (key == _src) {
+            _labels.clear();
+        } else {
+            // its in edges were removed before, so it is not reached anymore
+            _labels.remove(key);
+        }
+    }
+
+    /**
+     * The edge u->v was added or its weight was decreased to w.
+     */
+    private void decrease(int u, int v, double w) {
+        Label lu = _labels.get(u);
+        if (lu == null) {
+            return;
+        }
+        double d = lu._dist + w;
+        Label lv = _labels.get(v);
+        if (lv == null) {
+            _labels.put(v, new Label(d, u));
+        } else if (d < lv._dist) {
+            lv._dist = d;
+            lv._pred = u;
+        } else {
+            return;
+        }
+        _pq.add(new Item(v, d));
+        propagate();
+    }
+
+    /**
+     * The edge u->v was removed or its weight was increased.
+     */
+    private void increase(int u, int v) {
+        Label lv = _labels.get(v);
+        if (lv == null || lv._pred != u) {
+            return;
+        }
+        // the subtree of v, all the nodes whose path goes through u->v
+        List<Integer> affected = new ArrayList<>();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(v);
+        affected.add(v);
+        while (!queue.isEmpty()) {
+            int x = queue.poll();
+            node_data nx = _g.getNode(x);
+            if (nx == null) {
+                continue;
+            }
+            for (edge_data e : _g.getE(x)) {
+                Label ly = _labels.get(e.getDest());
+                if (ly != null && ly._pred == x && e.getDest() != _src) {
+                    ly._pred = -2; // mark it, so it is taken once
+                    queue.add(e.getDest());
+                    affected.add(e.getDest());
+                }
+            }
+        }
+        for (int x : affected) {
+            _labels.remove(x);
+        }
+        // the best distance of every affected node through an edge from outside the subtree
+        for (int x : affected) {
+            NodeData nx = (NodeData) _g.getNode(x);
+            if (nx == null) {
+                continue;
+            }
+            Label best = null;
+            for (node_data p : nx.connectedNode().values()) {
+                Label lp = _labels.get(p.getKey());
+                edge_data e = _g.getEdge(p.getKey(), x);
+                if (lp == null || e == null) {
+                    continue;
+                }
+                double d = lp._dist + e.getWeight();
+                if (best == null || d < best._dist) {
+                    best = new Label(d, p.getKey());
+                }
+            }
+            if (best != null) {
+                _labels.put(x, best);
+                _pq.add(new Item(x, best._dist));
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Dijkstra from the nodes in the queue, relaxes only edges that make a node closer.
+     */
+    private void propagate() {
+        while (!_pq.isEmpty()) {
+            Item it = _pq.poll();
+            Label lu = _labels.get(it._key);
+            if (lu == null || it._dist > lu._dist) {
+                continue; // a stale item
+            }
+            for (edge_data e : _g.getE(it._key)) {
+                int y = e.getDest();
+                double d = lu._dist + e.getWeight();
+                Label ly = _labels.get(y);
+                if (ly == null) {
+                    _labels.put(y, new Label(d, it._key));
+                } else if (d < ly._dist) {
+                    ly._dist = d;
+                    ly._pred = it._key;
+                } else {
+                    continue;
+                }
+                _pq.add(new Item(y, d));
+            }
+        }
+    }
+}
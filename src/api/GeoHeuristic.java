@@ -0,0 +1,79 @@
+package api;
+
+/**
+ * This class is the default {@link Heuristic} of {@link WDGraph_Algo}:
+ * the distance between the geo locations of the nodes, multiplied by a scale.
+ * The scale that fits a graph is the minimal weight/distance ratio of its edges (see {@link #fit}),
+ * so the heuristic is consistent for any units of the locations and the weights.
+ */
+public class GeoHeuristic implements Heuristic {
+
+    private final double _scale;
+
+    /**
+     * Constructor.
+     *
+     * @param scale the factor of the geo distance, non negative
+     */
+    public GeoHeuristic(double scale) {
+        if (!(scale >= 0)) {
+            throw new IllegalArgumentException("scale must be non negative");
+        }
+        _scale = scale;
+    }
+
+    /**
+     * Returns the largest scale that keeps the heuristic consistent on g,
+     * this method runs in O(V+E) time.
+     * if a node has no location the scale is 0 (A* becomes Dijkstra).
+     *
+     * @param g directed_weighted_graph
+     * @return GeoHeuristic
+     */
+    public static GeoHeuristic fit(directed_weighted_graph g) {
+        double scale = Double.POSITIVE_INFINITY;
+        for (node_data n : g.getV()) {
+            geo_location a = n.getLocation();
+            if (a == null) {
+                return new GeoHeuristic(0);
+            }
+            for (edge_data e : g.getE(n.getKey())) {
+                node_data d = g.getNode(e.getDest());
+                if (d == null) {
+                    continue;
+                }
+                geo_location b = d.getLocation();
+                if (b == null) {
+                    return new GeoHeuristic(0);
+                }
+                double dis = a.distance(b);
+                if (dis > 0) {
+                    scale = Math.min(scale, e.getWeight() / dis);
+                }
+            }
+        }
+        if (scale == Double.POSITIVE_INFINITY) {
+            scale = 0;
+        }
+        //a little below the ratio, so rounding never makes an estimate larger than the weight
+        return new GeoHeuristic(scale * (1 - 1e-9));
+    }
+
+    /**
+     * Returns the scale of the geo distance.
+     *
+     * @return scale
+     */
+    public double getScale() {
+        return _scale;
+    }
+
+    @Override
+    public double estimate(node_data n, node_data target) {
+        geo_location a = n.getLocation(), b = target.getLocation();
+        if (a == null || b == null || _scale == 0) {
+            return 0;
+        }
+        return _scale * a.distance(b);
+    }
+}
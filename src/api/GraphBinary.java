@@ -0,0 +1,234 @@
+package api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads and writes a compact binary file of a graph, in the layout of {@link WDGraph_CSR}.
+ * all the numbers are little endian, and the double arrays come first so they are 8 byte aligned:
+ * <pre>
+ * header   int magic "WDGB", int version, int n (nodes), int m (edges), int mc, int 0
+ * double[m]      the weight of every edge, row by row
+ * double[3n]     x, y, z of every node, x is NaN for a node without a location
+ * int[n]         the node keys, sorted
+ * int[n + 1]     the row offsets of the nodes
+ * int[m]         the target index of every edge, every row sorted
+ * </pre>
+ * The file is read with {@link FileChannel#map}, and the mapped pages are the columns of the loaded
+ * {@link WDGraph_CSR}: nothing is parsed or copied onto the heap, the nodes are views made when asked,
+ * and the processes that load the same file share its pages in the page cache.
+ * only the incoming edges are built (off the heap) on the first backward walk.
+ * the mapping lives as long as the loaded graph, so the file must not be changed in place while it is used,
+ * write replaces the file by a rename, so saving over a loaded file is safe.
+ */
+final class GraphBinary {
+
+    static final int MAGIC = 0x57444742; // "WDGB"
+    static final int VERSION = 1;
+    private static final int HEADER = 24;
+
+    private GraphBinary() {
+    }
+
+    /**
+     * Returns true iff the stream starts with the magic of this format, the stream is not closed.
+     *
+     * @param in the stream
+     * @return true for a binary graph
+     * @throws IOException if the stream fails
+     */
+    static boolean isBinary(InputStream in) throws IOException {
+        byte[] b = new byte[4];
+        int k = 0;
+        while (k < 4) {
+            int r = in.read(b, k, 4 - k);
+            if (r < 0) {
+                return false;
+            }
+            k += r;
+        }
+        return ByteBuffer.wrap(b).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+    }
+
+    /**
+     * Writes the snapshot to the file.
+     * the graph is written to file + ".tmp" that replaces the file when it is complete,
+     * so a graph that maps the old file (and s itself) still reads the old pages.
+     *
+     * @param s    the snapshot
+     * @param file file name
+     * @throws IOException if the file can not be written
+     */
+    static void write(WDGraph_CSR s, String file) throws IOException {
+        Path path = Paths.get(file).toAbsolutePath();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            write(s, tmp);
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void write(WDGraph_CSR s, Path file) throws IOException {
+        int n = s.nodeSize(), m = s.edgeSize();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(s.getMC()).putInt(0);
+            for (int e = 0; e < m; e++) {
+                buf = room(ch, buf, 8).putDouble(s.weight(e));
+            }
+            for (int i = 0; i < n; i++) {
+                geo_location p = s.nodeAt(i).getLocation();
+                buf = room(ch, buf, 24);
+                if (p == null) {
+                    buf.putDouble(Double.NaN).putDouble(0).putDouble(0);
+                } else {
+                    buf.putDouble(p.x()).putDouble(p.y()).putDouble(p.z());
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                buf = room(ch, buf, 4).putInt(s.keyOf(i));
+            }
+            for (int i = 0; i <= n; i++) {
+                buf = room(ch, buf, 4).putInt(i == n ? m : s.outStart(i));
+            }
+            for (int e = 0; e < m; e++) {
+                buf = room(ch, buf, 4).putInt(s.target(e));
+            }
+            flush(ch, buf);
+        }
+    }
+
+    private static ByteBuffer room(FileChannel ch, ByteBuffer buf, int bytes) throws IOException {
+        if (buf.remaining() < bytes) {
+            flush(ch, buf);
+        }
+        return buf;
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Reads a graph that was written by {@link #write}.
+     *
+     * @param file file name
+     * @return new immutable {@link WDGraph_CSR}
+     * @throws IOException if the file can not be read or is not a valid binary graph
+     */
+    static WDGraph_CSR read(String file) throws IOException {
+        Path path = Paths.get(file);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER) {
+                throw new IOException("not a binary graph: " + file);
+            }
+            ByteBuffer h = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (h.getInt() != MAGIC || h.getInt() != VERSION) {
+                throw new IOException("not a binary graph of version " + VERSION + ": " + file);
+            }
+            int n = h.getInt(), m = h.getInt(), mc = h.getInt();
+            if (n < 0 || m < 0 || size != HEADER + 8L * m + 24L * n + 4L * n + 4L * (n + 1) + 4L * m) {
+                throw new IOException("corrupt binary graph: " + file);
+            }
+            if (3L * n > Integer.MAX_VALUE) {
+                throw new IOException("too many nodes for a binary graph: " + file);
+            }
+            long pos = HEADER;
+            Columns.Doubles weights = Columns.doubles(mapDoubles(ch, pos, m));
+            pos += 8L * m;
+            Columns.Doubles xyz = Columns.doubles(mapDoubles(ch, pos, 3L * n));
+            pos += 24L * n;
+            Columns.Ints keys = Columns.ints(mapInts(ch, pos, n));
+            pos += 4L * n;
+            Columns.Ints offsets = Columns.ints(mapInts(ch, pos, n + 1L));
+            pos += 4L * (n + 1);
+            Columns.Ints targets = Columns.ints(mapInts(ch, pos, m));
+
+            if (!valid(n, m, keys, offsets, targets)) {
+                throw new IOException("corrupt binary graph: " + file);
+            }
+            return new WDGraph_CSR(n, m, keys, xyz, offsets, targets, weights, mc);
+        }
+    }
+
+    /**
+     * Checks the order of the keys, the offsets and the targets of every row, in O(n + m) time.
+     */
+    private static boolean valid(int n, int m, Columns.Ints keys, Columns.Ints offsets, Columns.Ints targets) {
+        for (int i = 1; i < n; i++) {
+            if (keys.get(i - 1) >= keys.get(i)) {
+                return false;
+            }
+        }
+        if (offsets.get(0) != 0 || offsets.get(n) != m) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            int from = offsets.get(i), to = offsets.get(i + 1);
+            if (from > to) {
+                return false;
+            }
+            for (int e = from; e < to; e++) {
+                int t = targets.get(e);
+                if (t < 0 || t >= n || (e > from && targets.get(e - 1) >= t)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Maps length doubles from pos, in the chunks of {@link Columns}.
+     */
+    private static DoubleBuffer[] mapDoubles(FileChannel ch, long pos, long length) throws IOException {
+        DoubleBuffer[] chunks = new DoubleBuffer[Columns.chunks(length)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = map(ch, pos + (8L << Columns.CHUNK_SHIFT) * c, 8L * Columns.chunkLength(length, c))
+                    .asDoubleBuffer();
+        }
+        return chunks;
+    }
+
+    /**
+     * Maps length ints from pos, in the chunks of {@link Columns}.
+     */
+    private static IntBuffer[] mapInts(FileChannel ch, long pos, long length) throws IOException {
+        IntBuffer[] chunks = new IntBuffer[Columns.chunks(length)];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = map(ch, pos + (4L << Columns.CHUNK_SHIFT) * c, 4L * Columns.chunkLength(length, c))
+                    .asIntBuffer();
+        }
+        return chunks;
+    }
+
+    private static MappedByteBuffer map(FileChannel ch, long pos, long bytes) throws IOException {
+        MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, pos, bytes);
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        return b;
+    }
+}
@@ -0,0 +1,116 @@
+package api;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * This class keeps the last changes of a {@link WDGraph_DS} in a ring buffer, so a cache or an index that is built
+ * on the graph can read the changes in batches (see {@link #drainTo}) instead of rescanning the whole graph
+ * every time the mode count changes.
+ * the buffer has a fixed capacity, when the consumer falls behind the oldest events are overwritten
+ * and the next drain tells it so, then it has to rebuild from the graph itself.
+ * The object is not thread safe, like {@link WDGraph_DS}. Call {@link #close()} to stop listening.
+ */
+public class GraphChangeLog implements GraphListener, AutoCloseable {
+
+    private final WDGraph_DS _g;
+    private final GraphEvent[] _buffer;
+    private long _head, _tail; // the sequence numbers of the next event to read and to write
+    private boolean _overflow;
+
+    /**
+     * Constructor, starts listening to g.
+     *
+     * @param g        the graph
+     * @param capacity the maximal number of events that are kept between two drains
+     */
+    public GraphChangeLog(WDGraph_DS g, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        _g = g;
+        _buffer = new GraphEvent[capacity];
+        g.addListener(this);
+    }
+
+    @Override
+    public void graphChanged(GraphEvent e) {
+        if (_tail - _head == _buffer.length) {
+            _buffer[(int) (_head % _buffer.length)] = null;
+            _head++;
+            _overflow = true;
+        }
+        _buffer[(int) (_tail % _buffer.length)] = e;
+        _tail++;
+    }
+
+    /**
+     * Moves all the events that were not read yet into out, oldest first.
+     * if some events were overwritten since the last drain, nothing is moved, the buffer is cleared
+     * and -1 is returned, the consumer should rebuild its state from the graph.
+     *
+     * @param out the collection to add the events to
+     * @return the number of events moved, -1 if events were lost.
+     */
+    public int drainTo(Collection<? super GraphEvent> out) {
+        if (_overflow) {
+            clear();
+            return -1;
+        }
+        int n = size();
+        for (; _head < _tail; _head++) {
+            int i = (int) (_head % _buffer.length);
+            out.add(_buffer[i]);
+            _buffer[i] = null;
+        }
+        return n;
+    }
+
+    /**
+     * Drops all the events that were not read and the overflow mark.
+     */
+    public void clear() {
+        Arrays.fill(_buffer, null);
+        _head = _tail;
+        _overflow = false;
+    }
+
+    /**
+     * Returns the number of events that wait to be read.
+     *
+     * @return size
+     */
+    public int size() {
+        return (int) (_tail - _head);
+    }
+
+    public int capacity() {
+        return _buffer.length;
+    }
+
+    /**
+     * Returns true iff events were overwritten since the last drain.
+     *
+     * @return true if the consumer fell behind
+     */
+    public boolean hasOverflowed() {
+        return _overflow;
+    }
+
+    /**
+     * Returns the total number of events that were logged since this log was created.
+     *
+     * @return count of events
+     */
+    public long getTotalEvents() {
+        return _tail;
+    }
+
+    /**
+     * Stops listening to the graph.
+     */
+    @Override
+    public void close() {
+        _g.removeListener(this);
+    }
+}
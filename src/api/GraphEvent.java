@@ -0,0 +1,123 @@
+package api;
+
+/**
+ * This class represents one change of a {@link WDGraph_DS}, as it is given to a {@link GraphListener}
+ * and kept by a {@link GraphChangeLog}. An event is immutable.
+ * every event has the mode count of the graph right after the change, see {@link WDGraph_DS#getMC()}.
+ */
+public final class GraphEvent {
+
+    /**
+     * The kind of the change.
+     */
+    public enum Type {
+        NODE_ADDED, NODE_REMOVED, EDGE_CONNECTED, EDGE_REWEIGHTED, EDGE_REMOVED
+    }
+
+    private final Type _type;
+    private final int _src, _dest;
+    private final double _oldWeight, _newWeight;
+    private final int _mc;
+
+    /**
+     * Constructor.
+     *
+     * @param type      the kind of the change
+     * @param src       the node of a node event, the source of an edge event
+     * @param dest      the destination of an edge event, -1 for a node event
+     * @param oldWeight the weight before the change, -1 if there was no edge
+     * @param newWeight the weight after the change, -1 if there is no edge
+     * @param mc        the mode count of the graph after the change
+     */
+    public GraphEvent(Type type, int src, int dest, double oldWeight, double newWeight, int mc) {
+        _type = type;
+        _src = src;
+        _dest = dest;
+        _oldWeight = oldWeight;
+        _newWeight = newWeight;
+        _mc = mc;
+    }
+
+    /**
+     * Returns an event of an added or removed node.
+     *
+     * @param type NODE_ADDED or NODE_REMOVED
+     * @param key  node id
+     * @param mc   mode count after the change
+     * @return new GraphEvent
+     */
+    static GraphEvent node(Type type, int key, int mc) {
+        return new GraphEvent(type, key, -1, -1, -1, mc);
+    }
+
+    /**
+     * Returns an event of a changed edge, the type is taken from the weights.
+     *
+     * @param src       source of the edge
+     * @param dest      destination of the edge
+     * @param oldWeight the weight before the change, -1 if the edge was added
+     * @param newWeight the weight after the change, -1 if the edge was removed
+     * @param mc        mode count after the change
+     * @return new GraphEvent
+     */
+    static GraphEvent edge(int src, int dest, double oldWeight, double newWeight, int mc) {
+        Type type = oldWeight == -1 ? Type.EDGE_CONNECTED : newWeight == -1 ? Type.EDGE_REMOVED : Type.EDGE_REWEIGHTED;
+        return new GraphEvent(type, src, dest, oldWeight, newWeight, mc);
+    }
+
+    public Type getType() {
+        return _type;
+    }
+
+    /**
+     * Returns true iff this is an event of an edge (connected, reweighted or removed).
+     *
+     * @return true for an edge event
+     */
+    public boolean isEdgeEvent() {
+        return _type != Type.NODE_ADDED && _type != Type.NODE_REMOVED;
+    }
+
+    /**
+     * Returns the node of a node event, or the source of an edge event.
+     *
+     * @return node id
+     */
+    public int getSrc() {
+        return _src;
+    }
+
+    /**
+     * Returns the destination of an edge event, -1 for a node event.
+     *
+     * @return node id
+     */
+    public int getDest() {
+        return _dest;
+    }
+
+    public double getOldWeight() {
+        return _oldWeight;
+    }
+
+    public double getNewWeight() {
+        return _newWeight;
+    }
+
+    /**
+     * Returns the mode count of the graph right after this change.
+     *
+     * @return mc
+     */
+    public int getMC() {
+        return _mc;
+    }
+
+    @Override
+    public String toString() {
+        if (!isEdgeEvent()) {
+            return _type + "{" + _src + ", mc=" + _mc + "}";
+        }
+        return _type + "{" + _src + "->" + _dest + ", " + _oldWeight + "->" + _newWeight + ", mc=" + _mc + "}";
+    }
+}
@@ -0,0 +1,248 @@
+package api;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * This class reads and writes the JSON graph format of {@link WDGraph_Algo#save}:
+ * {"Edges":[{"src":0,"w":1.4,"dest":1},...],"Nodes":[{"pos":"x,y,z","id":0},...]}
+ * It uses Gson's streaming {@link JsonReader} and {@link JsonWriter}, so the nodes and edges are built while
+ * the tokens are read, or written straight from getV and getE, and no tree of the whole file is kept in memory.
+ * The two arrays may come in any order: edges that come before the nodes are kept in primitive arrays
+ * until the nodes are read, and then connected. A pos of ",," is a node without a location.
+ */
+final class GraphJson {
+
+    private GraphJson() {
+    }
+
+    /**
+     * Reads a graph from the JSON text.
+     *
+     * @param reader the JSON text, it is not closed
+     * @return new {@link WDGraph_DS}
+     * @throws IOException        if the reader fails or the text is not valid JSON
+     * @throws JsonParseException if the JSON is not a graph
+     */
+    static directed_weighted_graph read(Reader reader) throws IOException {
+        JsonReader in = new JsonReader(reader);
+        directed_weighted_graph g = new WDGraph_DS();
+        EdgeBuffer pending = null;
+        boolean nodes = false;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals("Nodes")) {
+                readNodes(in, g);
+                nodes = true;
+                if (pending != null) {
+                    pending.connectAll(g);
+                    pending = null;
+                }
+            } else if (name.equals("Edges")) {
+                if (nodes) {
+                    readEdges(in, g, null);
+                } else {
+                    pending = new EdgeBuffer();
+                    readEdges(in, null, pending);
+                }
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        if (!nodes) {
+            throw new JsonParseException("the graph has no Nodes");
+        }
+        return g;
+    }
+
+    /**
+     * Writes the graph as JSON, the text is the same as Gson writes for the tree of the old save.
+     * the nodes are written by increasing key and the edges of every node by increasing destination,
+     * so the order does not depend on the hash order of the graph and equal graphs give equal files.
+     * the extra memory is an int array of the keys and one of the largest out degree.
+     *
+     * @param g      the graph
+     * @param writer the destination, it is flushed but not closed
+     * @throws IOException if the writer fails
+     */
+    static void write(directed_weighted_graph g, Writer writer) throws IOException {
+        int[] keys = sortedKeys(g);
+        JsonWriter out = new JsonWriter(writer);
+        out.setHtmlSafe(true); // as Gson.toJson
+        out.beginObject();
+        out.name("Edges").beginArray();
+        int[] dests = new int[16];
+        for (int key : keys) {
+            Collection<edge_data> row = g.getE(key);
+            if (dests.length < row.size()) {
+                dests = new int[Math.max(row.size(), 2 * dests.length)];
+            }
+            int d = 0;
+            for (edge_data j : row) {
+                dests[d++] = j.getDest();
+            }
+            Arrays.sort(dests, 0, d);
+            for (int k = 0; k < d; k++) {
+                out.beginObject();
+                out.name("src").value(key);
+                out.name("w").value(g.getEdge(key, dests[k]).getWeight());
+                out.name("dest").value(dests[k]);
+                out.endObject();
+            }
+        }
+        out.endArray();
+        out.name("Nodes").beginArray();
+        for (int key : keys) {
+            out.beginObject();
+            geo_location p = g.getNode(key).getLocation();
+            out.name("pos").value(p == null ? ",," : p.x() + "," + p.y() + "," + p.z());
+            out.name("id").value(key);
+            out.endObject();
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    /**
+     * Returns the keys of the nodes of g, sorted.
+     */
+    private static int[] sortedKeys(directed_weighted_graph g) {
+        int[] keys = new int[g.nodeSize()];
+        int n = 0;
+        for (node_data i : g.getV()) {
+            if (n == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(16, 2 * n));
+            }
+            keys[n++] = i.getKey();
+        }
+        keys = Arrays.copyOf(keys, n);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    static void readNodes(JsonReader in, directed_weighted_graph g) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            in.beginObject();
+            int id = 0;
+            boolean hasId = false;
+            geo_location pos = null;
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (name.equals("id")) {
+                    id = in.nextInt();
+                    hasId = true;
+                } else if (name.equals("pos")) {
+                    pos = parsePos(in.nextString());
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (!hasId) {
+                throw new JsonParseException("a node without id at " + in.getPath());
+            }
+            node_data n = new NodeData(id);
+            n.setLocation(pos);
+            g.addNode(n);
+        }
+        in.endArray();
+    }
+
+    /**
+     * Reads the edges into g, or into the buffer if g is null.
+     */
+    private static void readEdges(JsonReader in, directed_weighted_graph g, EdgeBuffer buffer) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            in.beginObject();
+            int src = 0, dest = 0;
+            double w = 0;
+            int fields = 0;
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (name.equals("src")) {
+                    src = in.nextInt();
+                    fields |= 1;
+                } else if (name.equals("dest")) {
+                    dest = in.nextInt();
+                    fields |= 2;
+                } else if (name.equals("w")) {
+                    w = in.nextDouble();
+                    fields |= 4;
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (fields != 7) {
+                throw new JsonParseException("an edge without src, dest or w at " + in.getPath());
+            }
+            if (g != null) {
+                g.connect(src, dest, w);
+            } else {
+                buffer.add(src, dest, w);
+            }
+        }
+        in.endArray();
+    }
+
+    /**
+     * Parses "x,y,z" by the positions of the two commas, ",," is no location.
+     *
+     * @param s the pos string
+     * @return geo_location, null for ",,"
+     */
+    static geo_location parsePos(String s) {
+        int a = s.indexOf(',');
+        int b = a < 0 ? -1 : s.indexOf(',', a + 1);
+        if (b < 0) {
+            throw new JsonParseException("bad pos: " + s);
+        }
+        if (s.length() == 2) {
+            return null;
+        }
+        return new Geo_locationImpl(Double.parseDouble(s.substring(0, a)),
+                Double.parseDouble(s.substring(a + 1, b)),
+                Double.parseDouble(s.substring(b + 1)));
+    }
+
+    /**
+     * Edges in three growing primitive arrays, used for the edges that were read before the nodes
+     * and by {@link ParallelGraphLoader} for the edges of one chunk.
+     */
+    static final class EdgeBuffer {
+        int[] _src = new int[1024], _dest = new int[1024];
+        double[] _w = new double[1024];
+        int _size;
+
+        void add(int src, int dest, double w) {
+            if (_size == _src.length) {
+                int cap = _size * 2;
+                _src = Arrays.copyOf(_src, cap);
+                _dest = Arrays.copyOf(_dest, cap);
+                _w = Arrays.copyOf(_w, cap);
+            }
+            _src[_size] = src;
+            _dest[_size] = dest;
+            _w[_size] = w;
+            _size++;
+        }
+
+        void connectAll(directed_weighted_graph g) {
+            for (int i = 0; i < _size; i++) {
+                g.connect(_src[i], _dest[i], _w[i]);
+            }
+        }
+    }
+}
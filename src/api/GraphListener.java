@@ -0,0 +1,56 @@
+package api;
+
+/**
+ * This interface represents a listener of the changes of a {@link WDGraph_DS},
+ * see {@link WDGraph_DS#addListener}. The methods are called after the change was made.
+ * A listener can handle the typed {@link GraphEvent} in {@link #graphChanged}, or override only the
+ * callbacks it needs, all the methods do nothing by default.
+ */
+public interface GraphListener {
+
+    /**
+     * Called for every change of the graph. by default it calls the matching callback below.
+     *
+     * @param e the change
+     */
+    public default void graphChanged(GraphEvent e) {
+        switch (e.getType()) {
+            case NODE_ADDED:
+                nodeAdded(e.getSrc());
+                break;
+            case NODE_REMOVED:
+                nodeRemoved(e.getSrc());
+                break;
+            default:
+                edgeChanged(e.getSrc(), e.getDest(), e.getOldWeight(), e.getNewWeight());
+        }
+    }
+
+    /**
+     * Called when an edge is added, removed or gets a new weight.
+     * when a node is removed, this is called for every edge of the node before {@link #nodeRemoved}.
+     *
+     * @param src       the source of the edge
+     * @param dest      the destination of the edge
+     * @param oldWeight the weight before the change, -1 if the edge was added
+     * @param newWeight the weight after the change, -1 if the edge was removed
+     */
+    public default void edgeChanged(int src, int dest, double oldWeight, double newWeight) {
+    }
+
+    /**
+     * Called when a node is added.
+     *
+     * @param key node id
+     */
+    public default void nodeAdded(int key) {
+    }
+
+    /**
+     * Called when a node is removed, after all its edges.
+     *
+     * @param key node id
+     */
+    public default void nodeRemoved(int key) {
+    }
+}
@@ -0,0 +1,24 @@
+package api;
+
+/**
+ * This interface represents the heuristic of the A* search of {@link WDGraph_Algo}:
+ * an estimate of the length of the shortest path between two nodes.
+ * <p>
+ * A* never re-opens a settled node, so it returns shortest paths only if the heuristic is consistent:
+ * estimate(u, t) <= w(u, v) + estimate(v, t) for every edge u->v and every target t, and estimate(t, t) == 0.
+ * The caller must guarantee it. {@link WDGraph_Algo} only checks that estimate(u, v) is at most the weight
+ * of the edge u->v for every edge (see {@link WDGraph_Algo#isHeuristicBelowEdgeWeights()}),
+ * that is consistent only together with the triangle inequality (estimate(u, t) <= estimate(u, v) + estimate(v, t)).
+ * {@link GeoHeuristic#fit} and a {@link LandmarkTable} of the same graph are consistent.
+ */
+public interface Heuristic {
+
+    /**
+     * Returns a lower bound of the length of the shortest path from n to target.
+     *
+     * @param n      node_data
+     * @param target node_data
+     * @return estimate, must be non negative.
+     */
+    public double estimate(node_data n, node_data target);
+}
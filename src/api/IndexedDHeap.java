@@ -0,0 +1,150 @@
+package api;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an indexed min heap with D children per node, of the ints [0, capacity) by double keys.
+ * Every int is in the heap at most once and the heap knows its position,
+ * so decreasing the key of an int that is already in the heap moves it up in O(log_D(n))
+ * instead of adding a duplicate entry.
+ * A 4-ary heap is shallower than a binary heap, and the children of a node are next to each other in the array,
+ * which makes poll cheaper in practice.
+ */
+class IndexedDHeap {
+
+    private static final int D = 4;
+
+    private int[] _heap;
+    private int[] _pos;
+    private double[] _key;
+    private int _size;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the ints in the heap are in [0, capacity)
+     */
+    IndexedDHeap(int capacity) {
+        _heap = new int[capacity];
+        _pos = new int[capacity];
+        _key = new double[capacity];
+        Arrays.fill(_pos, -1);
+    }
+
+    /**
+     * Removes all the ints from the heap, runs in O(size()).
+     */
+    void clear() {
+        for (int i = 0; i < _size; i++) {
+            _pos[_heap[i]] = -1;
+        }
+        _size = 0;
+    }
+
+    boolean isEmpty() {
+        return _size == 0;
+    }
+
+    int size() {
+        return _size;
+    }
+
+    boolean contains(int i) {
+        return _pos[i] != -1;
+    }
+
+    /**
+     * Returns the key of an int in the heap.
+     */
+    double key(int i) {
+        return _key[i];
+    }
+
+    /**
+     * Returns the int with the minimal key, without removing it.
+     */
+    int peek() {
+        return _heap[0];
+    }
+
+    /**
+     * Returns the minimal key in the heap.
+     */
+    double peekKey() {
+        return _key[_heap[0]];
+    }
+
+    /**
+     * Adds i with the given key, or decreases its key if it is already in the heap.
+     *
+     * @return true iff i was added or its key was decreased.
+     */
+    boolean insertOrDecrease(int i, double key) {
+        int p = _pos[i];
+        if (p == -1) {
+            _key[i] = key;
+            siftUp(_size++, i);
+            return true;
+        }
+        if (key < _key[i]) {
+            _key[i] = key;
+            siftUp(p, i);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes and returns the int with the minimal key.
+     */
+    int poll() {
+        int ans = _heap[0];
+        _pos[ans] = -1;
+        int last = _heap[--_size];
+        if (_size > 0) {
+            siftDown(0, last);
+        }
+        return ans;
+    }
+
+    private void siftUp(int c, int i) {
+        double k = _key[i];
+        while (c > 0) {
+            int p = (c - 1) / D;
+            int parent = _heap[p];
+            if (_key[parent] <= k) {
+                break;
+            }
+            _heap[c] = parent;
+            _pos[parent] = c;
+            c = p;
+        }
+        _heap[c] = i;
+        _pos[i] = c;
+    }
+
+    private void siftDown(int c, int i) {
+        double k = _key[i];
+        while (true) {
+            int first = c * D + 1;
+            if (first >= _size) {
+                break;
+            }
+            int min = first;
+            int end = Math.min(first + D, _size);
+            for (int j = first + 1; j < end; j++) {
+                if (_key[_heap[j]] < _key[_heap[min]]) {
+                    min = j;
+                }
+            }
+            if (_key[_heap[min]] >= k) {
+                break;
+            }
+            _heap[c] = _heap[min];
+            _pos[_heap[c]] = c;
+            c = min;
+        }
+        _heap[c] = i;
+        _pos[i] = c;
+    }
+}
@@ -0,0 +1,451 @@
+package api;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * This class represents a hash map from primitive int keys to objects.
+ * The map uses open addressing with linear probing: the keys are stored in an int array
+ * and the values in a parallel Object array, so a lookup does not box the key
+ * and does not follow a pointer to an entry object.
+ * Removal uses backward shift deletion, so there are no tombstones and lookups stay short.
+ * A null value marks an empty slot, therefore null values are not allowed.
+ * The arrays are allocated on the first put, an empty map costs only the object header.
+ * <p>
+ * The class extends {@link AbstractMap} so it can be used anywhere a {@code Map<Integer, V>} is expected,
+ * the int overloads (get, put, remove, containsKey) should be used to avoid boxing.
+ * The iterators of the views support remove, as the views of {@link java.util.HashMap}.
+ *
+ * @param <V> the type of the values
+ */
+public class IntObjectMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int[] EMPTY_KEYS = new int[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] _keys;
+    private Object[] _values;
+    private int _size;
+    private int _mask;
+    private int _mod_count;
+
+    private Collection<V> _valuesView;
+    private Set<Integer> _keysView;
+    private Set<Map.Entry<Integer, V>> _entriesView;
+
+    /**
+     * Default constructor, creates an empty map without allocating the arrays.
+     */
+    public IntObjectMap() {
+        _keys = EMPTY_KEYS;
+        _values = EMPTY_VALUES;
+        _mask = -1;
+    }
+
+    /**
+     * Constructor, creates an empty map that can hold the expected number of entries without resizing.
+     *
+     * @param expected expected number of entries
+     */
+    public IntObjectMap(int expected) {
+        this();
+        if (expected > 0) {
+            allocate(capacityFor(expected));
+        }
+    }
+
+    private static int capacityFor(int expected) {
+        int cap = MIN_CAPACITY;
+        while (cap * 3 / 4 < expected) {
+            cap <<= 1;
+        }
+        return cap;
+    }
+
+    private void allocate(int capacity) {
+        _keys = new int[capacity];
+        _values = new Object[capacity];
+        _mask = capacity - 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot of the given key, -1 if none.
+     */
+    private int slotOf(int key) {
+        if (_size == 0) {
+            return -1;
+        }
+        int i = mix(key) & _mask;
+        while (_values[i] != null) {
+            if (_keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & _mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key int key
+     * @return the value, null if none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int i = slotOf(key);
+        return i == -1 ? null : (V) _values[i];
+    }
+
+    /**
+     * Returns true iff this map contains the given key.
+     *
+     * @param key int key
+     * @return true iff the key is in the map
+     */
+    public boolean containsKey(int key) {
+        return slotOf(key) != -1;
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   int key
+     * @param value not null value
+     * @return the previous value of the key, null if none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("IntObjectMap does not allow null values");
+        }
+        if (_size + 1 > (_mask + 1) * 3 / 4) {
+            resize(_mask == -1 ? MIN_CAPACITY : (_mask + 1) << 1);
+        }
+        int i = mix(key) & _mask;
+        while (_values[i] != null) {
+            if (_keys[i] == key) {
+                V old = (V) _values[i];
+                _values[i] = value;
+                return old;
+            }
+            i = (i + 1) & _mask;
+        }
+        _keys[i] = key;
+        _values[i] = value;
+        _size++;
+        _mod_count++;
+        return null;
+    }
+
+    /**
+     * Removes the key from the map.
+     *
+     * @param key int key
+     * @return the removed value, null if none.
+     */
+    public V remove(int key) {
+        int i = slotOf(key);
+        return i == -1 ? null : removeSlot(i);
+    }
+
+    /**
+     * Removes the entry in the given used slot.
+     * the entries of the same cluster that follow the slot may move backwards, up to the slot itself.
+     *
+     * @param i slot
+     * @return the removed value
+     */
+    @SuppressWarnings("unchecked")
+    private V removeSlot(int i) {
+        V old = (V) _values[i];
+        // backward shift deletion: move up the entries that their probe passed through slot i.
+        int hole = i;
+        int j = (i + 1) & _mask;
+        while (_values[j] != null) {
+            int home = mix(_keys[j]) & _mask;
+            if (((j - home) & _mask) >= ((j - hole) & _mask)) {
+                _keys[hole] = _keys[j];
+                _values[hole] = _values[j];
+                hole = j;
+            }
+            j = (j + 1) & _mask;
+        }
+        _values[hole] = null;
+        _size--;
+        _mod_count++;
+        return old;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = _keys;
+        Object[] oldValues = _values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = mix(oldKeys[i]) & _mask;
+                while (_values[j] != null) {
+                    j = (j + 1) & _mask;
+                }
+                _keys[j] = oldKeys[i];
+                _values[j] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return _size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (_size > 0) {
+            Arrays.fill(_values, null);
+            _size = 0;
+            _mod_count++;
+        }
+    }
+
+    /**
+     * Returns the keys of this map in increasing order.
+     * the views iterate by the hash of the keys, use this method where the order matters (saving, printing).
+     * this method runs in O(n log n) time.
+     *
+     * @return a new array of the keys
+     */
+    public int[] sortedKeys() {
+        int[] ans = new int[_size];
+        int j = 0;
+        for (int i = 0; i < _values.length; i++) {
+            if (_values[i] != null) {
+                ans[j++] = _keys[i];
+            }
+        }
+        Arrays.sort(ans);
+        return ans;
+    }
+
+    /**
+     * Returns the entries of this map in increasing order of the keys, like "{1=a, 2=b}".
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int key : sortedKeys()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            V value = get(key);
+            sb.append(key).append('=').append(value == this ? "(this Map)" : value);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns a live view of the values of this map.
+     * this method runs in O(1) time.
+     *
+     * @return Collection<V>
+     */
+    @Override
+    public Collection<V> values() {
+        if (_valuesView == null) {
+            _valuesView = new AbstractCollection<>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new SlotIterator<>() {
+                        @SuppressWarnings("unchecked")
+                        @Override
+                        V at(int slot) {
+                            return (V) _values[slot];
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return _size;
+                }
+            };
+        }
+        return _valuesView;
+    }
+
+    /**
+     * Returns a live view of the keys of this map.
+     *
+     * @return Set<Integer>
+     */
+    @Override
+    public Set<Integer> keySet() {
+        if (_keysView == null) {
+            _keysView = new AbstractSet<>() {
+                @Override
+                public Iterator<Integer> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        Integer at(int slot) {
+                            return _keys[slot];
+                        }
+                    };
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+
+                @Override
+                public int size() {
+                    return _size;
+                }
+            };
+        }
+        return _keysView;
+    }
+
+    /**
+     * Returns a live view of the entries of this map.
+     * the entries are created while iterating, prefer values() or the int methods.
+     *
+     * @return Set<Map.Entry < Integer, V>>
+     */
+    @Override
+    public Set<Map.Entry<Integer, V>> entrySet() {
+        if (_entriesView == null) {
+            _entriesView = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<Integer, V>> iterator() {
+                    return new SlotIterator<>() {
+                        @SuppressWarnings("unchecked")
+                        @Override
+                        Map.Entry<Integer, V> at(int slot) {
+                            return new SimpleImmutableEntry<>(_keys[slot], (V) _values[slot]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return _size;
+                }
+            };
+        }
+        return _entriesView;
+    }
+
+    /**
+     * This inner class iterates over the used slots of the arrays.
+     * fails fast (like {@link java.util.HashMap}) if the map was changed while iterating, but not by remove.
+     * The slots are visited from an empty slot, so no cluster wraps around the end of the visit:
+     * the backward shift of remove only moves entries that were not visited yet, into the removed slot or after it,
+     * and the visit goes on from the removed slot.
+     *
+     * @param <T> the type of the returned elements
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+
+        private int _expected_mod = _mod_count;
+        private final int _start = emptySlot();
+        // positions are relative to _start, the slot of position r is (_start + r) & _mask.
+        private int _next = advance(1);
+        private int _last = -1;
+
+        private int emptySlot() {
+            for (int i = 0; i < _values.length; i++) {
+                if (_values[i] == null) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        private int slot(int r) {
+            return (_start + r) & _mask;
+        }
+
+        private int advance(int from) {
+            while (from < _values.length && _values[slot(from)] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        abstract T at(int slot);
+
+        @Override
+        public boolean hasNext() {
+            return _next < _values.length;
+        }
+
+        @Override
+        public T next() {
+            if (_mod_count != _expected_mod) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            _last = _next;
+            T ans = at(slot(_next));
+            _next = advance(_next + 1);
+            return ans;
+        }
+
+        @Override
+        public void remove() {
+            if (_last == -1) {
+                throw new IllegalStateException();
+            }
+            if (_mod_count != _expected_mod) {
+                throw new ConcurrentModificationException();
+            }
+            removeSlot(slot(_last));
+            _expected_mod = _mod_count;
+            _next = advance(_last);
+            _last = -1;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package api;
+
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * This class represents the landmark distances of ALT (A*, landmarks and the triangle inequality),
+ * a {@link Heuristic} for the A_STAR mode of {@link WDGraph_Algo} that does not need geo locations.
+ * <p>
+ * For k landmark nodes L the table keeps d(L, v) and d(v, L) for every node v, and by the triangle inequality
+ * d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L), so the max over the landmarks is a lower bound.
+ * The bound is a difference of potentials, so it is consistent, and it is tighter when the landmarks are
+ * at the borders of the graph: they are chosen by the farthest strategy, every new landmark is the node that is
+ * farthest from the ones chosen before (a node that they do not reach at all first).
+ * <p>
+ * The table describes the graph as it was when it was computed, it can be saved next to the graph file
+ * ({@link #save}, {@link #load}) so it is not computed again at every start. It keeps the number of edges
+ * and the fingerprint of the edges ({@link WDGraph_CSR#fingerprint}), so a table of a graph that was changed since
+ * does not match it ({@link #matches}), the Mode Count depends on how the graph was loaded and is not compared.
+ */
+public class LandmarkTable implements Heuristic {
+
+    private static final int MAGIC = 0x414c5432; // "ALT2"
+
+    private final int _mode_count;
+    private final int _edge_size;
+    private final long _fingerprint;
+    private final int[] _keys;
+    private final IntObjectMap<Integer> _index;
+    private final int[] _landmarks;
+    // d(L, v) and d(v, L) of the landmark j at [j * n + v], -1 if there is no path
+    private final double[] _from, _to;
+
+    private LandmarkTable(int mc, int edgeSize, long fingerprint, int[] keys, int[] landmarks, double[] from, double[] to) {
+        _mode_count = mc;
+        _edge_size = edgeSize;
+        _fingerprint = fingerprint;
+        _keys = keys;
+        _landmarks = landmarks;
+        _from = from;
+        _to = to;
+        _index = new IntObjectMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            _index.put(keys[i], Integer.valueOf(i));
+        }
+    }
+
+    /**
+     * Computes the table of g with k landmarks, it runs 3k Dijkstras.
+     *
+     * @param g directed_weighted_graph
+     * @param k number of landmarks
+     * @return LandmarkTable
+     */
+    public static LandmarkTable build(directed_weighted_graph g, int k) {
+        return build(WDGraph_CSR.of(g), k);
+    }
+
+    static LandmarkTable build(WDGraph_CSR s, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        int n = s.nodeSize();
+        k = Math.min(k, n);
+        int[] landmarks = new int[k];
+        double[] from = new double[k * n];
+        double[] to = new double[k * n];
+        QueryContext c = new QueryContext(n);
+        for (int j = 0; j < k; j++) {
+            if (j == 0) {
+                landmarks[0] = 0;
+            } else {
+                //the farthest node from the landmarks so far
+                c.reset();
+                Dijkstra.runMultiSource(s, c, Arrays.copyOf(landmarks, j));
+                int best = -1;
+                double max = -1;
+                for (int v = 0; v < n; v++) {
+                    double d = c.hasDist(v) ? c.dist(v) : Double.POSITIVE_INFINITY;
+                    if (d > max) {
+                        max = d;
+                        best = v;
+                    }
+                }
+                landmarks[j] = best;
+            }
+            c.reset();
+            Dijkstra.run(s, c, landmarks[j], -1);
+            for (int v = 0; v < n; v++) {
+                from[j * n + v] = c.dist(v);
+            }
+            c.reset();
+            Dijkstra.runBackward(s, c, landmarks[j]);
+            for (int v = 0; v < n; v++) {
+                to[j * n + v] = c.dist(v);
+            }
+        }
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = s.keyOf(i);
+        }
+        return new LandmarkTable(s.getMC(), s.edgeSize(), s.fingerprint(), keys, landmarks, from, to);
+    }
+
+    /**
+     * Returns the keys of the landmarks.
+     *
+     * @return landmark keys
+     */
+    public int[] getLandmarks() {
+        int[] ans = new int[_landmarks.length];
+        for (int j = 0; j < ans.length; j++) {
+            ans[j] = _keys[_landmarks[j]];
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the Mode Count of the graph when the table was computed.
+     *
+     * @return mode_count
+     */
+    public int getMC() {
+        return _mode_count;
+    }
+
+    /**
+     * Returns true iff the table was computed from a graph with the same nodes and edges (and weights) as g.
+     * this method runs in O(V+E) time.
+     *
+     * @param g directed_weighted_graph
+     * @return true iff the table describes g.
+     */
+    public boolean matches(directed_weighted_graph g) {
+        return matches(WDGraph_CSR.of(g));
+    }
+
+    boolean matches(WDGraph_CSR s) {
+        if (s.edgeSize() != _edge_size || s.nodeSize() != _keys.length) {
+            return false;
+        }
+        for (int key : _keys) {
+            if (s.indexOf(key) == -1) {
+                return false;
+            }
+        }
+        return s.fingerprint() == _fingerprint;
+    }
+
+    @Override
+    public double estimate(node_data n, node_data target) {
+        Integer a = _index.get(n.getKey()), b = _index.get(target.getKey());
+        if (a == null || b == null) {
+            return 0;
+        }
+        int v = a, t = b, len = _keys.length;
+        double ans = 0;
+        for (int j = 0; j < _landmarks.length; j++) {
+            int row = j * len;
+            double lt = _from[row + t], lv = _from[row + v];
+            if (lt != -1 && lv != -1 && lt - lv > ans) {
+                ans = lt - lv;
+            }
+            double vl = _to[row + v], tl = _to[row + t];
+            if (vl != -1 && tl != -1 && vl - tl > ans) {
+                ans = vl - tl;
+            }
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the file the landmarks of a graph file are saved in, next to it.
+     *
+     * @param graphFile the JSON file of the graph
+     * @return file name
+     */
+    public static String fileFor(String graphFile) {
+        return graphFile + ".landmarks";
+    }
+
+    /**
+     * Saves the table to the given file name, in a binary format.
+     *
+     * @param file the file name (may include a relative path).
+     * @return true iff the file was successfully saved
+     */
+    public boolean save(String file) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(_mode_count);
+            out.writeInt(_edge_size);
+            out.writeLong(_fingerprint);
+            out.writeInt(_keys.length);
+            out.writeInt(_landmarks.length);
+            for (int key : _keys) {
+                out.writeInt(key);
+            }
+            for (int l : _landmarks) {
+                out.writeInt(l);
+            }
+            for (double d : _from) {
+                out.writeDouble(d);
+            }
+            for (double d : _to) {
+                out.writeDouble(d);
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Loads a table that was saved by {@link #save}.
+     *
+     * @param file file name
+     * @return the table, null if the file does not exist or is not a landmark table.
+     */
+    public static LandmarkTable load(String file) {
+        if (!new File(file).isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int mc = in.readInt();
+            int edgeSize = in.readInt();
+            long fingerprint = in.readLong();
+            int n = in.readInt();
+            int k = in.readInt();
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = in.readInt();
+            }
+            int[] landmarks = new int[k];
+            for (int j = 0; j < k; j++) {
+                landmarks[j] = in.readInt();
+            }
+            double[] from = new double[k * n];
+            for (int i = 0; i < from.length; i++) {
+                from[i] = in.readDouble();
+            }
+            double[] to = new double[k * n];
+            for (int i = 0; i < to.length; i++) {
+                to[i] = in.readDouble();
+            }
+            return new LandmarkTable(mc, edgeSize, fingerprint, keys, landmarks, from, to);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package api;
 
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -19,28 +19,28 @@ public class NodeData implements node_data, Comparable<node_data> {
     private geo_location _GLocation;
 
     /**
-     * This {@link HashMap} stores the nodes that connect to this node.
+     * This {@link IntObjectMap} stores the nodes that connect to this node.
      * key - Integer number, the id of the node.
      * value - The node_data corresponding to the key.
      */
-    private final HashMap<Integer, node_data> _connectedNode;
+    private final IntObjectMap<node_data> _connectedNode;
 
     /**
-     * This {@link HashMap} stores the neighbors nodes of this node by the edge_data between them.
+     * This {@link IntObjectMap} stores the neighbors nodes of this node by the edge_data between them.
      * key - Integer number, the id of the neighbor node.
      * value - The edge_data between this to the node with the corresponding key.
      */
-    private final HashMap<Integer, edge_data> _neighborsDis;
+    private final IntObjectMap<edge_data> _neighborsDis;
 
     /**
      * Default constructor.
-     * init the field, and creates the HashMaps.
+     * init the field, and creates the maps.
      * key field get value from the static field _masterKey.
      */
     public NodeData() {
         this._key = _masterKey++;
-        this._connectedNode = new HashMap<>();
-        this._neighborsDis = new HashMap<>();
+        this._connectedNode = new IntObjectMap<>();
+        this._neighborsDis = new IntObjectMap<>();
         this._remark = "";
         this.setTag(-1);
         _GLocation = new Geo_locationImpl(0, 0, 0);
@@ -49,15 +49,15 @@ public class NodeData implements node_data, Comparable<node_data> {
 
     /**
      * Constructor.
-     * init the field, and creates the HashMaps.
+     * init the field, and creates the maps.
      * key field get value from key param.
      *
      * @param key id
      */
     public NodeData(int key) {
         this._key = key;
-        this._connectedNode = new HashMap<>();
-        this._neighborsDis = new HashMap<>();
+        this._connectedNode = new IntObjectMap<>();
+        this._neighborsDis = new IntObjectMap<>();
         this._remark = "";
         this.setTag(-1);
         _GLocation = new Geo_locationImpl(0, 0, 0);
@@ -67,7 +67,7 @@ public class NodeData implements node_data, Comparable<node_data> {
     /**
      * Copy constructor.
      * All fields are copied.
-     * Except from the HashMaps that initialized to new empty HashMaps.
+     * Except from the maps that initialized to new empty maps.
      *
      * @param n node data
      */
@@ -76,8 +76,8 @@ public class NodeData implements node_data, Comparable<node_data> {
         _remark = n.getInfo();
         _weight = n.getWeight();
         _tag = n.getTag();
-        _connectedNode = new HashMap<>();
-        _neighborsDis = new HashMap<>();
+        _connectedNode = new IntObjectMap<>();
+        _neighborsDis = new IntObjectMap<>();
         if (n.getLocation() == null)
             _GLocation = null;
         else
@@ -85,18 +85,34 @@ public class NodeData implements node_data, Comparable<node_data> {
     }
 
     /**
-     * Returns the HashMap contains all the edges that coming out of this node.
-     * @return _neighborsDis {@link HashMap}
+     * Returns the map contains all the edges that coming out of this node.
+     * @return _neighborsDis {@link Map}
      */
-    public HashMap<Integer, edge_data> getNeighborsDis() {
+    public Map<Integer, edge_data> getNeighborsDis() {
         return _neighborsDis;
     }
 
     /**
-     * Returns the HashMap contains all the nodes that connect to this node.
-     * @return _neighborsDis {@link HashMap}
+     * Returns the map contains all the nodes that connect to this node.
+     * @return _connectedNode {@link Map}
      */
-    public HashMap<Integer, node_data> getConnectedNode() {
+    public Map<Integer, node_data> getConnectedNode() {
+        return _connectedNode;
+    }
+
+    /**
+     * Returns the same map as getNeighborsDis, with the int methods that do not box the key.
+     * @return _neighborsDis {@link IntObjectMap}
+     */
+    IntObjectMap<edge_data> neighborsDis() {
+        return _neighborsDis;
+    }
+
+    /**
+     * Returns the same map as getConnectedNode, with the int methods that do not box the key.
+     * @return _connectedNode {@link IntObjectMap}
+     */
+    IntObjectMap<node_data> connectedNode() {
         return _connectedNode;
     }
 
@@ -197,7 +213,7 @@ public class NodeData implements node_data, Comparable<node_data> {
         NodeData nodeData = (NodeData) o;
         return _key == nodeData._key &&
                 _neighborsDis.equals(nodeData._neighborsDis) &&
-                _GLocation.equals(nodeData._GLocation);
+                Objects.equals(_GLocation, nodeData._GLocation);
     }
 
     /**
@@ -0,0 +1,72 @@
+package api;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * This class represents a growable array of fixed size records stored outside the Java heap.
+ * The records are kept in direct {@link ByteBuffer} chunks of 2^CHUNK_SHIFT records each,
+ * so the total size is not limited to the 2GB of a single buffer, and growing never copies old chunks.
+ * A new chunk is zero filled.
+ * This class is used by {@link WDGraph_OffHeap}, it does not check bounds beyond the ByteBuffer checks.
+ */
+class OffHeapRecords {
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final int _record_size;
+    private ByteBuffer[] _chunks;
+    private long _capacity;
+
+    /**
+     * Constructor.
+     *
+     * @param recordSize size of every record in bytes
+     */
+    OffHeapRecords(int recordSize) {
+        _record_size = recordSize;
+        _chunks = new ByteBuffer[0];
+        _capacity = 0;
+    }
+
+    /**
+     * Makes sure the record with the given index can be accessed.
+     *
+     * @param index record index
+     */
+    void ensure(long index) {
+        while (index >= _capacity) {
+            int c = _chunks.length;
+            _chunks = Arrays.copyOf(_chunks, c + 1);
+            _chunks[c] = ByteBuffer.allocateDirect(_record_size << CHUNK_SHIFT).order(ByteOrder.nativeOrder());
+            _capacity += 1 << CHUNK_SHIFT;
+        }
+    }
+
+    /**
+     * Returns the number of records that can be accessed without calling ensure.
+     *
+     * @return capacity in records
+     */
+    long capacity() {
+        return _capacity;
+    }
+
+    int getInt(long index, int offset) {
+        return _chunks[(int) (index >>> CHUNK_SHIFT)].getInt((int) (index & CHUNK_MASK) * _record_size + offset);
+    }
+
+    void putInt(long index, int offset, int v) {
+        _chunks[(int) (index >>> CHUNK_SHIFT)].putInt((int) (index & CHUNK_MASK) * _record_size + offset, v);
+    }
+
+    double getDouble(long index, int offset) {
+        return _chunks[(int) (index >>> CHUNK_SHIFT)].getDouble((int) (index & CHUNK_MASK) * _record_size + offset);
+    }
+
+    void putDouble(long index, int offset, double v) {
+        _chunks[(int) (index >>> CHUNK_SHIFT)].putDouble((int) (index & CHUNK_MASK) * _record_size + offset, v);
+    }
+}
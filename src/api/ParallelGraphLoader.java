@@ -0,0 +1,703 @@
+package api;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class loads a big graph file on many threads, into a {@link WDGraph_CSR}.
+ * Two kinds of files are read:
+ * <ul>
+ * <li>the JSON of {@link WDGraph_Algo#save}, with the two arrays "Edges" and "Nodes" in any order.
+ * the two arrays are found by their brackets (the objects in them have no brackets), the Nodes are read
+ * by the streaming {@link GraphJson} reader and the Edges array is split to byte ranges.</li>
+ * <li>a plain edge list, a line "src dest w" for every edge (spaces, tabs or commas between them,
+ * lines that start with # are comments), the nodes are all the keys that appear, without a location.</li>
+ * </ul>
+ * every byte range is mapped from the file and parsed by a task of a {@link ForkJoinPool} into its own
+ * primitive {@link GraphJson.EdgeBuffer}, a range owns the records that start in it.
+ * then the buffers are merged into the CSR arrays: the keys are turned to indexes in parallel,
+ * the edges are counted to rows and every row is sorted in parallel. like connect, an edge that comes
+ * again keeps its last weight, and an edge to a missing node is skipped.
+ * The Mode Count of the graph is the number of connect calls that would change a {@link WDGraph_DS}
+ * if the edges were added one by one in the order of the file, as {@link WDGraph_Algo#load} does.
+ * <p>
+ * Like {@link GraphJson}, an edge object may have other keys, their values are skipped, but they must be
+ * strings, numbers, true, false or null: a nested object or array would break the split of the file to ranges.
+ */
+final class ParallelGraphLoader {
+
+    private static final int MIN_CHUNK = 1 << 16;
+    private static final int MAX_CHUNK = 1 << 24;
+    private static final int SLACK = 1 << 16; // a record that starts in a range must end in this many bytes after it
+    private static final int ROWS = 4096; // the rows sorted by one task
+
+    private ParallelGraphLoader() {
+    }
+
+    /**
+     * Loads the JSON or edge list file.
+     *
+     * @param file file name, not compressed
+     * @param pool the threads
+     * @return new immutable {@link WDGraph_CSR}
+     * @throws IOException        if the file can not be read or is not valid
+     * @throws JsonParseException if the nodes are not valid
+     */
+    static WDGraph_CSR read(String file, ForkJoinPool pool) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long first = skipSpaces(ch, 0, size);
+            if (first < size && read(ch, first) == '{') {
+                return readJson(ch, size, pool);
+            }
+            GraphJson.EdgeBuffer[] parts = parse(ch, 0, size, false, pool);
+            return merge(null, null, parts, pool);
+        }
+    }
+
+    /**
+     * Finds the two arrays of {"Edges":[...],"Nodes":[...]} (in any order) and reads them.
+     */
+    private static WDGraph_CSR readJson(FileChannel ch, long size, ForkJoinPool pool) throws IOException {
+        // the first array, from the start
+        long open1 = find(ch, 0, size, '[');
+        String key1 = keyBefore(ch, open1);
+        // the last array, from the end
+        long close2 = findBack(ch, size, ']');
+        long open2 = findBack(ch, close2, '[');
+        String key2 = keyBefore(ch, open2);
+        long close1 = findBack(ch, open2, ']');
+        if (open1 < 0 || open2 <= close1 || close1 <= open1 || key1.equals(key2)
+                || !(key1.equals("Edges") || key1.equals("Nodes")) || !(key2.equals("Edges") || key2.equals("Nodes"))) {
+            throw new IOException("not a graph file with Edges and Nodes arrays");
+        }
+        long nodesFrom = key1.equals("Nodes") ? open1 : open2;
+        long nodesTo = key1.equals("Nodes") ? close1 : close2;
+        long edgesFrom = key1.equals("Edges") ? open1 : open2;
+        long edgesTo = key1.equals("Edges") ? close1 : close2;
+
+        if (nodesTo - nodesFrom + 1 > Integer.MAX_VALUE - 8) {
+            throw new IOException("the Nodes array is too big");
+        }
+        byte[] nodesJson = new byte[(int) (nodesTo - nodesFrom + 1)];
+        ch.map(FileChannel.MapMode.READ_ONLY, nodesFrom, nodesJson.length).get(nodesJson);
+        WDGraph_DS nodes = new WDGraph_DS();
+        GraphJson.readNodes(new JsonReader(new InputStreamReader(new ByteArrayInputStream(nodesJson), StandardCharsets.UTF_8)), nodes);
+        nodesJson = null;
+        node_data[] found = nodes.getV().toArray(new node_data[0]);
+        Arrays.sort(found, (a, b) -> Integer.compare(a.getKey(), b.getKey()));
+        int[] keys = new int[found.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = found[i].getKey();
+        }
+        GraphJson.EdgeBuffer[] parts = parse(ch, edgesFrom + 1, edgesTo, true, pool);
+        return merge(keys, found, parts, pool);
+    }
+
+    /**
+     * Splits [from, to) to ranges and parses them in parallel, the buffers are in the order of the file.
+     */
+    private static GraphJson.EdgeBuffer[] parse(FileChannel ch, long from, long to, boolean json, ForkJoinPool pool) {
+        long len = to - from;
+        long chunk = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, len / (4L * pool.getParallelism()) + 1));
+        int k = (int) Math.max(1, (len + chunk - 1) / chunk);
+        GraphJson.EdgeBuffer[] parts = new GraphJson.EdgeBuffer[k];
+        RecursiveAction[] tasks = new RecursiveAction[k];
+        for (int i = 0; i < k; i++) {
+            int index = i;
+            long start = from + i * chunk, end = Math.min(to, start + chunk);
+            tasks[i] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    try {
+                        parts[index] = parseRange(ch, from, to, start, end, json);
+                    } catch (IOException e) {
+                        throw new JsonParseException(e.getMessage(), e);
+                    }
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+        return parts;
+    }
+
+    /**
+     * Parses the records that start in [start, end), the region of all the records is [from, to).
+     */
+    private static GraphJson.EdgeBuffer parseRange(FileChannel ch, long from, long to, long start, long end, boolean json)
+            throws IOException {
+        long mapFrom = Math.max(from, start - 1);
+        long mapTo = Math.min(to, end + SLACK);
+        byte[] b = new byte[(int) (mapTo - mapFrom)];
+        if (b.length > 0) {
+            ch.map(FileChannel.MapMode.READ_ONLY, mapFrom, b.length).get(b);
+        }
+        int limit = (int) (end - mapFrom); // a record that starts before limit is ours
+        int p = (int) (start - mapFrom);
+        GraphJson.EdgeBuffer out = new GraphJson.EdgeBuffer();
+        Cursor c = new Cursor(b);
+        if (json) {
+            while (true) {
+                while (p < limit && b[p] != '{') {
+                    p++;
+                }
+                if (p >= limit) {
+                    return out;
+                }
+                c._p = p + 1;
+                parseEdge(c, out);
+                p = c._p;
+            }
+        }
+        if (start > from && b[p - 1] != '\n') {
+            while (p < limit && b[p] != '\n') {
+                p++;
+            }
+            p++;
+        }
+        while (p < limit) {
+            c._p = p;
+            parseLine(c, out);
+            p = c._p;
+            if (p > b.length && mapTo < to) {
+                throw new IOException("a line is longer than " + SLACK + " bytes");
+            }
+        }
+        return out;
+    }
+
+    private static final byte[] SRC = {'s', 'r', 'c'}, DEST = {'d', 'e', 's', 't'}, W = {'w'};
+
+    /**
+     * Parses an edge object after its '{': "src", "dest" and "w" in any order, the values of other keys are skipped.
+     * the cursor ends after the '}'.
+     */
+    private static void parseEdge(Cursor c, GraphJson.EdgeBuffer out) throws IOException {
+        int src = 0, dest = 0, fields = 0;
+        double w = 0;
+        while (true) {
+            c.skipSpaces();
+            byte ch = c.next();
+            if (ch == '}') {
+                break;
+            }
+            if (ch == ',') {
+                continue;
+            }
+            if (ch != '"') {
+                throw c.error();
+            }
+            int keyFrom = c._p;
+            c.skipString();
+            int keyTo = c._p - 1;
+            c.skipSpaces();
+            if (c.next() != ':') {
+                throw c.error();
+            }
+            c.skipSpaces();
+            if (c.is(keyFrom, keyTo, SRC)) {
+                src = c.parseInt();
+                fields |= 1;
+            } else if (c.is(keyFrom, keyTo, DEST)) {
+                dest = c.parseInt();
+                fields |= 2;
+            } else if (c.is(keyFrom, keyTo, W)) {
+                w = c.parseDouble();
+                fields |= 4;
+            } else {
+                c.skipValue();
+            }
+        }
+        if (fields != 7) {
+            throw c.error();
+        }
+        out.add(src, dest, w);
+    }
+
+    /**
+     * Parses one line of an edge list, the cursor ends at the start of the next line.
+     */
+    private static void parseLine(Cursor c, GraphJson.EdgeBuffer out) throws IOException {
+        c.skipBlanks();
+        if (c.atLineEnd() || c._b[c._p] == '#') {
+            c.skipLine();
+            return;
+        }
+        int src = c.parseInt();
+        c.skipSeparator();
+        int dest = c.parseInt();
+        c.skipSeparator();
+        double w = c.parseDouble();
+        c.skipBlanks();
+        if (!c.atLineEnd()) {
+            throw c.error();
+        }
+        c.skipLine();
+        out.add(src, dest, w);
+    }
+
+    /**
+     * Merges the buffers into a CSR, keys is null for an edge list (the nodes are the keys of the edges).
+     */
+    private static WDGraph_CSR merge(int[] keys, node_data[] nodes, GraphJson.EdgeBuffer[] parts, ForkJoinPool pool) {
+        if (keys == null) {
+            long total = 0;
+            for (GraphJson.EdgeBuffer b : parts) {
+                total += 2L * b._size;
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new JsonParseException("too many edges: " + total / 2);
+            }
+            int[] all = new int[(int) total];
+            int k = 0;
+            for (GraphJson.EdgeBuffer b : parts) {
+                System.arraycopy(b._src, 0, all, k, b._size);
+                System.arraycopy(b._dest, 0, all, k + b._size, b._size);
+                k += 2 * b._size;
+            }
+            Arrays.parallelSort(all);
+            int n = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (n == 0 || all[n - 1] != all[i]) {
+                    all[n++] = all[i];
+                }
+            }
+            keys = Arrays.copyOf(all, n);
+            nodes = new node_data[n];
+            for (int i = 0; i < n; i++) {
+                nodes[i] = new NodeData(keys[i]);
+                nodes[i].setLocation(null);
+            }
+        }
+        int n = keys.length;
+        int[] finalKeys = keys;
+        boolean dense = n == 0 || keys[n - 1] - keys[0] == n - 1;
+        // the keys to indexes, in place, -1 for a missing node
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                RecursiveAction[] tasks = new RecursiveAction[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    GraphJson.EdgeBuffer b = parts[i];
+                    tasks[i] = new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            for (int e = 0; e < b._size; e++) {
+                                b._src[e] = index(finalKeys, dense, b._src[e]);
+                                b._dest[e] = index(finalKeys, dense, b._dest[e]);
+                            }
+                        }
+                    };
+                }
+                invokeAll(tasks);
+            }
+        });
+        // counting sort by the source, stable so the order of the file is kept in every row
+        int[] offsets = new int[n + 1];
+        int m = 0;
+        for (GraphJson.EdgeBuffer b : parts) {
+            for (int e = 0; e < b._size; e++) {
+                if (b._src[e] >= 0 && b._dest[e] >= 0) {
+                    offsets[b._src[e] + 1]++;
+                    m++;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (GraphJson.EdgeBuffer b : parts) {
+            for (int e = 0; e < b._size; e++) {
+                if (b._src[e] >= 0 && b._dest[e] >= 0) {
+                    int pos = fill[b._src[e]]++;
+                    targets[pos] = b._dest[e];
+                    weights[pos] = b._w[e];
+                }
+            }
+        }
+        Arrays.fill(parts, null);
+        // sort every row by target and keep the last of the same edges, rowSize[i] is the size after that
+        int[] rowSize = new int[n];
+        int[] rowChanges = new int[n];
+        pool.invoke(new SortRows(offsets, targets, weights, rowSize, rowChanges, 0, n));
+        int mc = 0;
+        for (int c : rowChanges) {
+            mc += c;
+        }
+        int[] compact = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            compact[i + 1] = compact[i] + rowSize[i];
+        }
+        if (compact[n] != m) {
+            int[] t = new int[compact[n]];
+            double[] w = new double[compact[n]];
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(targets, offsets[i], t, compact[i], rowSize[i]);
+                System.arraycopy(weights, offsets[i], w, compact[i], rowSize[i]);
+            }
+            targets = t;
+            weights = w;
+        }
+        return new WDGraph_CSR(keys, nodes, compact, targets, weights, mc);
+    }
+
+    private static int index(int[] keys, boolean dense, int key) {
+        if (keys.length == 0) {
+            return -1;
+        }
+        if (dense) {
+            int i = key - keys[0];
+            return i >= 0 && i < keys.length ? i : -1;
+        }
+        int i = Arrays.binarySearch(keys, key);
+        return i >= 0 ? i : -1;
+    }
+
+    /**
+     * Sorts the rows [from, to) by target, the same targets are removed but the last, the row keeps its start.
+     * rowChanges[i] is the number of the edges of row i that connect would not ignore (a new edge, or a new weight
+     * of an edge that is not a loop).
+     */
+    private static class SortRows extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int[] _offsets, _targets, _rowSize, _rowChanges;
+        private final double[] _weights;
+        private final int _from, _to;
+
+        SortRows(int[] offsets, int[] targets, double[] weights, int[] rowSize, int[] rowChanges, int from, int to) {
+            _offsets = offsets;
+            _targets = targets;
+            _weights = weights;
+            _rowSize = rowSize;
+            _rowChanges = rowChanges;
+            _from = from;
+            _to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (_to - _from > ROWS) {
+                int mid = (_from + _to) >>> 1;
+                invokeAll(new SortRows(_offsets, _targets, _weights, _rowSize, _rowChanges, _from, mid),
+                        new SortRows(_offsets, _targets, _weights, _rowSize, _rowChanges, mid, _to));
+                return;
+            }
+            for (int i = _from; i < _to; i++) {
+                int a = _offsets[i], len = _offsets[i + 1] - a;
+                // (target, position) packed to a long, the position keeps the order of the file
+                long[] packed = new long[len];
+                for (int e = 0; e < len; e++) {
+                    packed[e] = ((long) _targets[a + e] << 32) | e;
+                }
+                Arrays.sort(packed);
+                double[] w = Arrays.copyOfRange(_weights, a, a + len);
+                int k = 0, changes = 0;
+                for (int e = 0; e < len; e++) {
+                    int t = (int) (packed[e] >>> 32);
+                    // the edges to the same target are in the order of the file
+                    boolean earlier = e > 0 && (int) (packed[e - 1] >>> 32) == t;
+                    boolean later = e + 1 < len && (int) (packed[e + 1] >>> 32) == t;
+                    if (!earlier || (t != i && w[(int) packed[e]] != w[(int) packed[e - 1]])) {
+                        changes++;
+                    }
+                    if (t == i ? earlier : later) {
+                        continue; // like connect, a loop keeps its first weight and other edges their last
+                    }
+                    _targets[a + k] = t;
+                    _weights[a + k] = w[(int) packed[e]];
+                    k++;
+                }
+                _rowSize[i] = k;
+                _rowChanges[i] = changes;
+            }
+        }
+    }
+
+    /**
+     * A position in the bytes of a range, with the small parsers of the records.
+     */
+    private static final class Cursor {
+        private final byte[] _b;
+        private int _p;
+
+        Cursor(byte[] b) {
+            _b = b;
+        }
+
+        byte next() throws IOException {
+            if (_p >= _b.length) {
+                throw new IOException("a record is cut at the end of a range, or is longer than " + SLACK + " bytes");
+            }
+            return _b[_p++];
+        }
+
+        /**
+         * Skips the rest of a string after its '"', the cursor ends after the closing '"'.
+         */
+        void skipString() throws IOException {
+            byte ch;
+            while ((ch = next()) != '"') {
+                if (ch == '\\') {
+                    next();
+                }
+            }
+        }
+
+        /**
+         * Returns true iff the bytes [from, to) are the given key.
+         */
+        boolean is(int from, int to, byte[] key) {
+            if (to - from != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (_b[from + i] != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Skips a string, a number, true, false or null, the cursor ends after it.
+         */
+        void skipValue() throws IOException {
+            byte ch = next();
+            if (ch == '"') {
+                skipString();
+                return;
+            }
+            if (ch == '{' || ch == '[' || ch == ',' || ch == '}') {
+                throw error();
+            }
+            while (_p < _b.length && _b[_p] != ',' && _b[_p] != '}' && _b[_p] != ' '
+                    && _b[_p] != '\n' && _b[_p] != '\r' && _b[_p] != '\t') {
+                _p++;
+            }
+        }
+
+        void skipSpaces() {
+            while (_p < _b.length && (_b[_p] == ' ' || _b[_p] == '\n' || _b[_p] == '\r' || _b[_p] == '\t')) {
+                _p++;
+            }
+        }
+
+        void skipBlanks() {
+            while (_p < _b.length && (_b[_p] == ' ' || _b[_p] == '\t' || _b[_p] == '\r')) {
+                _p++;
+            }
+        }
+
+        void skipSeparator() throws IOException {
+            int p = _p;
+            skipBlanks();
+            if (_p < _b.length && _b[_p] == ',') {
+                _p++;
+                skipBlanks();
+            }
+            if (_p == p) {
+                throw error();
+            }
+        }
+
+        boolean atLineEnd() {
+            return _p >= _b.length || _b[_p] == '\n';
+        }
+
+        void skipLine() {
+            while (_p < _b.length && _b[_p] != '\n') {
+                _p++;
+            }
+            _p++;
+        }
+
+        int parseInt() throws IOException {
+            boolean neg = _p < _b.length && _b[_p] == '-';
+            if (neg) {
+                _p++;
+            }
+            long v = 0;
+            int from = _p;
+            while (_p < _b.length && _b[_p] >= '0' && _b[_p] <= '9') {
+                v = v * 10 + (_b[_p++] - '0');
+                if (v > 1L << 31) {
+                    throw error();
+                }
+            }
+            if (_p == from) {
+                throw error();
+            }
+            v = neg ? -v : v;
+            if (v != (int) v) {
+                throw error();
+            }
+            return (int) v;
+        }
+
+        /**
+         * Parses a double, plain decimals with up to 15 digits are computed exactly (one division by a
+         * power of ten that is exact), other numbers are given to Double.parseDouble.
+         */
+        double parseDouble() throws IOException {
+            int from = _p;
+            while (_p < _b.length && isNumberByte(_b[_p])) {
+                _p++;
+            }
+            if (_p == from) {
+                throw error();
+            }
+            long mantissa = 0;
+            int digits = 0, fraction = -1;
+            boolean simple = true;
+            int i = from;
+            boolean neg = _b[i] == '-';
+            if (neg) {
+                i++;
+            }
+            for (; i < _p && simple; i++) {
+                byte c = _b[i];
+                if (c >= '0' && c <= '9') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0 || digits > 0) {
+                        digits++;
+                    }
+                    if (fraction >= 0) {
+                        fraction++;
+                    }
+                } else if (c == '.' && fraction < 0) {
+                    fraction = 0;
+                } else {
+                    simple = false;
+                }
+            }
+            if (simple && digits <= 15 && fraction <= 22 && i > from + (neg ? 1 : 0)) {
+                double v = fraction > 0 ? mantissa / POW10[fraction] : mantissa;
+                return neg ? -v : v;
+            }
+            try {
+                return Double.parseDouble(new String(_b, from, _p - from, StandardCharsets.ISO_8859_1));
+            } catch (NumberFormatException e) {
+                throw error();
+            }
+        }
+
+        private static boolean isNumberByte(byte c) {
+            return (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+' || c == 'e' || c == 'E';
+        }
+
+        IOException error() {
+            int from = Math.max(0, _p - 20), to = Math.min(_b.length, _p + 20);
+            return new IOException("bad record near: " + new String(_b, from, to - from, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private static long skipSpaces(FileChannel ch, long p, long size) throws IOException {
+        while (p < size && Character.isWhitespace(read(ch, p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static byte read(FileChannel ch, long p) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(1);
+        ch.read(b, p);
+        return b.get(0);
+    }
+
+    /**
+     * Returns the position of the first c in [from, to), -1 if none.
+     */
+    private static long find(FileChannel ch, long from, long to, char c) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(1 << 16);
+        for (long p = from; p < to; ) {
+            b.clear();
+            int r = ch.read(b, p);
+            if (r <= 0) {
+                break;
+            }
+            for (int i = 0; i < r && p + i < to; i++) {
+                if (b.get(i) == c) {
+                    return p + i;
+                }
+            }
+            p += r;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the last c before the position to, -1 if none.
+     */
+    private static long findBack(FileChannel ch, long to, char c) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(1 << 16);
+        for (long end = to; end > 0; ) {
+            long start = Math.max(0, end - b.capacity());
+            b.clear();
+            b.limit((int) (end - start));
+            int r = 0;
+            while (b.hasRemaining()) {
+                int k = ch.read(b, start + r);
+                if (k <= 0) {
+                    break;
+                }
+                r += k;
+            }
+            for (int i = r - 1; i >= 0; i--) {
+                if (b.get(i) == c) {
+                    return start + i;
+                }
+            }
+            end = start;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key before the '[' at the given position: "key" : [ , "" if none.
+     */
+    private static String keyBefore(FileChannel ch, long open) throws IOException {
+        if (open <= 0) {
+            return "";
+        }
+        long from = Math.max(0, open - 256);
+        ByteBuffer b = ByteBuffer.allocate((int) (open - from));
+        ch.read(b, from);
+        String s = new String(b.array(), 0, b.position(), StandardCharsets.UTF_8).trim();
+        if (!s.endsWith(":")) {
+            return "";
+        }
+        s = s.substring(0, s.length() - 1).trim();
+        int q = s.lastIndexOf('"', s.length() - 2);
+        return s.endsWith("\"") && q >= 0 ? s.substring(q + 1, s.length() - 1) : "";
+    }
+}
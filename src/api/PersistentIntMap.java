@@ -0,0 +1,333 @@
+package api;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represents an immutable (persistent) map from primitive int keys to objects.
+ * The map is a hash array mapped trie (HAMT): every inner node has a 32 bit bitmap of the used slots
+ * and a compact array of its children, every level uses 5 bits of the hash of the key.
+ * put and remove do not change the map, they return a new map that shares all the untouched nodes
+ * with the old one, only the path from the root to the changed key is copied (at most 7 small arrays).
+ * so keeping an old version of the map costs nothing, and get, put and remove run in O(log32 n) time.
+ * <p>
+ * the hash of a key is a bijection of the int, so two keys never have the same hash and the trie
+ * needs no collision nodes. null values are not allowed.
+ *
+ * @param <V> the type of the values
+ */
+public final class PersistentIntMap<V> implements Iterable<V> {
+
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(null, 0);
+
+    private final Node _root;
+    private final int _size;
+
+    private PersistentIntMap(Node root, int size) {
+        _root = root;
+        _size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <V> the type of the values
+     * @return empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    /**
+     * A bijective mix of the key, so near keys go to different slots.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() {
+        return _size;
+    }
+
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    /**
+     * Returns the value of the key, null if none.
+     *
+     * @param key the key
+     * @return value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int h = hash(key);
+        Node n = _root;
+        for (int shift = 0; n != null; shift += 5) {
+            int bit = 1 << ((h >>> shift) & 31);
+            if ((n._bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = n._array[Integer.bitCount(n._bitmap & (bit - 1))];
+            if (slot instanceof Leaf) {
+                Leaf l = (Leaf) slot;
+                return l._key == key ? (V) l._value : null;
+            }
+            n = (Node) slot;
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map with the key mapped to the value, this map is not changed.
+     *
+     * @param key   the key
+     * @param value the value, not null
+     * @return the new map, or this map if the key already has this value
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null values are not allowed");
+        }
+        Leaf leaf = new Leaf(key, value);
+        if (_root == null) {
+            return new PersistentIntMap<>(new Node(1 << (hash(key) & 31), new Object[]{leaf}), 1);
+        }
+        boolean[] added = new boolean[1];
+        Node root = put(_root, 0, hash(key), leaf, added);
+        return root == _root ? this : new PersistentIntMap<>(root, added[0] ? _size + 1 : _size);
+    }
+
+    private static Node put(Node n, int shift, int h, Leaf leaf, boolean[] added) {
+        int bit = 1 << ((h >>> shift) & 31);
+        int idx = Integer.bitCount(n._bitmap & (bit - 1));
+        if ((n._bitmap & bit) == 0) {
+            added[0] = true;
+            Object[] a = new Object[n._array.length + 1];
+            System.arraycopy(n._array, 0, a, 0, idx);
+            a[idx] = leaf;
+            System.arraycopy(n._array, idx, a, idx + 1, n._array.length - idx);
+            return new Node(n._bitmap | bit, a);
+        }
+        Object slot = n._array[idx];
+        Object replace;
+        if (slot instanceof Leaf) {
+            Leaf l = (Leaf) slot;
+            if (l._key == leaf._key) {
+                if (l._value == leaf._value) {
+                    return n;
+                }
+                replace = leaf;
+            } else {
+                added[0] = true;
+                replace = pair(shift + 5, l, hash(l._key), leaf, h);
+            }
+        } else {
+            replace = put((Node) slot, shift + 5, h, leaf, added);
+            if (replace == slot) {
+                return n;
+            }
+        }
+        Object[] a = n._array.clone();
+        a[idx] = replace;
+        return new Node(n._bitmap, a);
+    }
+
+    /**
+     * Returns a node with the two leaves, that have the same hash bits up to shift.
+     */
+    private static Node pair(int shift, Leaf a, int ha, Leaf b, int hb) {
+        int fa = (ha >>> shift) & 31, fb = (hb >>> shift) & 31;
+        if (fa == fb) {
+            return new Node(1 << fa, new Object[]{pair(shift + 5, a, ha, b, hb)});
+        }
+        return new Node((1 << fa) | (1 << fb), fa < fb ? new Object[]{a, b} : new Object[]{b, a});
+    }
+
+    /**
+     * Returns a map without the key, this map is not changed.
+     *
+     * @param key the key
+     * @return the new map, or this map if there is no such key
+     */
+    public PersistentIntMap<V> remove(int key) {
+        if (_root == null) {
+            return this;
+        }
+        Object root = remove(_root, 0, hash(key), key);
+        if (root == _root) {
+            return this;
+        }
+        if (root == null) {
+            return empty();
+        }
+        if (root instanceof Leaf) {
+            int h = hash(((Leaf) root)._key);
+            root = new Node(1 << (h & 31), new Object[]{root});
+        }
+        return new PersistentIntMap<>((Node) root, _size - 1);
+    }
+
+    /**
+     * Returns the node without the key: the same node if the key is not there, null if it becomes empty,
+     * or a single leaf if only one leaf is left (the parent keeps the leaf instead of a node).
+     */
+    private static Object remove(Node n, int shift, int h, int key) {
+        int bit = 1 << ((h >>> shift) & 31);
+        if ((n._bitmap & bit) == 0) {
+            return n;
+        }
+        int idx = Integer.bitCount(n._bitmap & (bit - 1));
+        Object slot = n._array[idx];
+        Object replace;
+        if (slot instanceof Leaf) {
+            if (((Leaf) slot)._key != key) {
+                return n;
+            }
+            replace = null;
+        } else {
+            replace = remove((Node) slot, shift + 5, h, key);
+            if (replace == slot) {
+                return n;
+            }
+        }
+        if (replace != null) {
+            if (replace instanceof Leaf && n._array.length == 1) {
+                return replace;
+            }
+            Object[] a = n._array.clone();
+            a[idx] = replace;
+            return new Node(n._bitmap, a);
+        }
+        if (n._array.length == 1) {
+            return null;
+        }
+        if (n._array.length == 2 && n._array[1 - idx] instanceof Leaf) {
+            return n._array[1 - idx];
+        }
+        Object[] a = new Object[n._array.length - 1];
+        System.arraycopy(n._array, 0, a, 0, idx);
+        System.arraycopy(n._array, idx + 1, a, idx, a.length - idx);
+        return new Node(n._bitmap & ~bit, a);
+    }
+
+    /**
+     * Returns a collection view of the values, it is immutable like the map.
+     *
+     * @return Collection<V>
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return PersistentIntMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return _size;
+            }
+        };
+    }
+
+    /**
+     * Iterates the values, in the order of the hashes of the keys.
+     *
+     * @return Iterator<V>
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            // the path from the root, the trie is at most 7 levels deep
+            private final Object[][] _arrays = new Object[8][];
+            private final int[] _indexes = new int[8];
+            private int _depth = -1;
+            private Leaf _next;
+
+            {
+                if (_root != null) {
+                    _arrays[0] = _root._array;
+                    _depth = 0;
+                }
+                advance();
+            }
+
+            private void advance() {
+                _next = null;
+                while (_depth >= 0) {
+                    if (_indexes[_depth] == _arrays[_depth].length) {
+                        _depth--;
+                        continue;
+                    }
+                    Object slot = _arrays[_depth][_indexes[_depth]++];
+                    if (slot instanceof Leaf) {
+                        _next = (Leaf) slot;
+                        return;
+                    }
+                    _depth++;
+                    _arrays[_depth] = ((Node) slot)._array;
+                    _indexes[_depth] = 0;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return _next != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (_next == null) {
+                    throw new NoSuchElementException();
+                }
+                V ans = (V) _next._value;
+                advance();
+                return ans;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (V v : this) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(v);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * An inner node of the trie, the array holds a {@link Leaf} or a Node for every set bit of the bitmap.
+     */
+    private static final class Node {
+        final int _bitmap;
+        final Object[] _array;
+
+        Node(int bitmap, Object[] array) {
+            _bitmap = bitmap;
+            _array = array;
+        }
+    }
+
+    private static final class Leaf {
+        final int _key;
+        final Object _value;
+
+        Leaf(int key, Object value) {
+            _key = key;
+            _value = value;
+        }
+    }
+}
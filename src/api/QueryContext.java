@@ -0,0 +1,163 @@
+package api;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the scratch state of one query of {@link WDGraph_Algo}:
+ * distances, predecessors and settled marks in dense arrays indexed by the node index of a {@link WDGraph_CSR} snapshot.
+ * Instead of initializing the arrays before every query, every query gets a new stamp,
+ * and an entry is valid only if its stamp equals the current one, so starting a query costs O(1).
+ * A context is used by one thread at a time, {@link WDGraph_Algo} keeps one context per thread.
+ */
+class QueryContext {
+
+    private double[] _dist;
+    private int[] _pred;
+    private double[] _h;
+    private int[] _origin;
+    private int[] _stamp;
+    private int[] _settled;
+    private int[] _target;
+    private int _curr;
+
+    private final IndexedDHeap _heap;
+
+    /**
+     * the state of the backward half of a bidirectional search, created on first use.
+     */
+    private QueryContext _backward;
+
+    /**
+     * Constructor.
+     *
+     * @param n number of nodes
+     */
+    QueryContext(int n) {
+        _dist = new double[n];
+        _pred = new int[n];
+        _h = new double[n];
+        _origin = new int[n];
+        _stamp = new int[n];
+        _settled = new int[n];
+        _target = new int[n];
+        _heap = new IndexedDHeap(n);
+        _curr = 0;
+    }
+
+    /**
+     * Returns the number of nodes this context can hold.
+     *
+     * @return capacity
+     */
+    int capacity() {
+        return _dist.length;
+    }
+
+    /**
+     * Starts a new query, all the distances become unknown and no node is settled.
+     */
+    void reset() {
+        _curr++;
+        if (_curr == Integer.MAX_VALUE) {
+            Arrays.fill(_stamp, 0);
+            Arrays.fill(_settled, 0);
+            Arrays.fill(_target, 0);
+            _curr = 1;
+        }
+        _heap.clear();
+        if (_backward != null) {
+            _backward.reset();
+        }
+    }
+
+    /**
+     * Returns a second context of the same capacity for the backward search of a bidirectional query.
+     * it is reset together with this context.
+     */
+    QueryContext backward() {
+        if (_backward == null) {
+            _backward = new QueryContext(capacity());
+            _backward.reset();
+        }
+        return _backward;
+    }
+
+    /**
+     * Returns the distance of node i in the current query, -1 if unknown.
+     */
+    double dist(int i) {
+        return _stamp[i] == _curr ? _dist[i] : -1;
+    }
+
+    boolean hasDist(int i) {
+        return _stamp[i] == _curr;
+    }
+
+    void setDist(int i, double d) {
+        _dist[i] = d;
+        _stamp[i] = _curr;
+    }
+
+    /**
+     * Returns the index of the node before i on the shortest path found so far, -1 for the source.
+     * valid only if hasDist(i).
+     */
+    int pred(int i) {
+        return _pred[i];
+    }
+
+    void setPred(int i, int p) {
+        _pred[i] = p;
+    }
+
+    /**
+     * Returns the index of the source node i was reached from in a multi source query, valid only if hasDist(i).
+     */
+    int origin(int i) {
+        return _origin[i];
+    }
+
+    void setOrigin(int i, int o) {
+        _origin[i] = o;
+    }
+
+    /**
+     * Returns the heuristic estimate of node i in an A* query, valid only if hasDist(i).
+     */
+    double h(int i) {
+        return _h[i];
+    }
+
+    void setH(int i, double h) {
+        _h[i] = h;
+    }
+
+    /**
+     * Returns the heap of the search, empty at the start of a query.
+     */
+    IndexedDHeap heap() {
+        return _heap;
+    }
+
+    /**
+     * Returns true iff the final distance of node i is known in the current query.
+     */
+    boolean isSettled(int i) {
+        return _settled[i] == _curr;
+    }
+
+    void settle(int i) {
+        _settled[i] = _curr;
+    }
+
+    /**
+     * Returns true iff node i is one of the targets of a one to many query.
+     */
+    boolean isTarget(int i) {
+        return _target[i] == _curr;
+    }
+
+    void setTarget(int i) {
+        _target[i] = _curr;
+    }
+}
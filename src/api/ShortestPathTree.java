@@ -0,0 +1,107 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents the result of a single source shortest path search of {@link WDGraph_Algo}:
+ * the distance from the source to every node of the graph and the node before it on the shortest path,
+ * as it was when the search ran.
+ * The object is immutable, so it can be shared between threads.
+ */
+public class ShortestPathTree {
+
+    private final WDGraph_CSR _graph;
+    private final int _src;
+    private final double[] _dist;
+    private final int[] _pred;
+
+    /**
+     * Constructor.
+     *
+     * @param graph the snapshot the search ran on
+     * @param src   key of the source node
+     * @param dist  distance of every node by its index in graph, -1 if not reachable
+     * @param pred  index of the node before every node on its shortest path, -1 for the source and unreachable nodes
+     */
+    ShortestPathTree(WDGraph_CSR graph, int src, double[] dist, int[] pred) {
+        _graph = graph;
+        _src = src;
+        _dist = dist;
+        _pred = pred;
+    }
+
+    /**
+     * Returns the key of the source node.
+     *
+     * @return src key
+     */
+    public int getSrc() {
+        return _src;
+    }
+
+    /**
+     * Returns the length of the shortest path from the source to the given node.
+     *
+     * @param key node id
+     * @return distance, -1 if there is no such node or no path to it.
+     */
+    public double getDist(int key) {
+        int i = _graph.indexOf(key);
+        return i == -1 ? -1 : _dist[i];
+    }
+
+    /**
+     * Returns the shortest path from the source to the given node as an array of node keys, src first.
+     * runs in O(path length).
+     *
+     * @param key node id
+     * @return the keys of the path, null if there is no such node or no path to it.
+     */
+    public int[] getPathKeys(int key) {
+        int i = _graph.indexOf(key);
+        if (i == -1 || _dist[i] == -1) {
+            return null;
+        }
+        int len = 0;
+        for (int j = i; j != -1; j = _pred[j]) {
+            len++;
+        }
+        int[] ans = new int[len];
+        for (int j = i; j != -1; j = _pred[j]) {
+            ans[--len] = _graph.keyOf(j);
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the shortest path from the source to the given node as a list of the nodes, src first.
+     *
+     * @param key node id
+     * @return the path, null if there is no such node or no path to it.
+     */
+    public List<node_data> getPath(int key) {
+        int[] keys = getPathKeys(key);
+        if (keys == null) {
+            return null;
+        }
+        List<node_data> ans = new ArrayList<>(keys.length);
+        for (int k : keys) {
+            ans.add(_graph.getNode(k));
+        }
+        return ans;
+    }
+
+    boolean isOf(WDGraph_CSR s) {
+        return _graph == s;
+    }
+
+    /**
+     * Returns the Mode Count of the graph when the search ran.
+     *
+     * @return mode_count
+     */
+    public int getMC() {
+        return _graph.getMC();
+    }
+}
@@ -0,0 +1,92 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class represents a bounded LRU cache of {@link ShortestPathTree}s of {@link WDGraph_Algo},
+ * keyed by the source node and the Mode Count of the graph, so a tree of an older graph is never returned.
+ * The entries are kept in an access ordered {@link LinkedHashMap} that drops the least recently used tree
+ * when it is full. All the methods are synchronized, the cache is shared by the threads of a WDGraph_Algo.
+ */
+class ShortestPathTreeCache {
+
+    private final LinkedHashMap<Long, ShortestPathTree> _trees;
+    private int _capacity;
+    private long _hits, _misses;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity max number of trees, 0 to disable the cache
+     */
+    ShortestPathTreeCache(int capacity) {
+        _capacity = capacity;
+        _trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ShortestPathTree> eldest) {
+                return size() > _capacity;
+            }
+        };
+    }
+
+    private static long key(int src, int mc) {
+        return ((long) mc << 32) | (src & 0xffffffffL);
+    }
+
+    synchronized int capacity() {
+        return _capacity;
+    }
+
+    /**
+     * Changes the max number of trees, drops the least recently used ones if there are too many.
+     */
+    synchronized void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non negative");
+        }
+        _capacity = capacity;
+        var it = _trees.entrySet().iterator();
+        while (_trees.size() > capacity) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the tree of src on the snapshot s, and counts a hit or a miss.
+     *
+     * @return the tree, null if it is not in the cache.
+     */
+    synchronized ShortestPathTree get(WDGraph_CSR s, int src) {
+        ShortestPathTree t = _trees.get(key(src, s.getMC()));
+        if (t != null && t.isOf(s)) {
+            _hits++;
+            return t;
+        }
+        _misses++;
+        return null;
+    }
+
+    synchronized void put(WDGraph_CSR s, ShortestPathTree t) {
+        if (_capacity > 0) {
+            _trees.put(key(t.getSrc(), s.getMC()), t);
+        }
+    }
+
+    synchronized void clear() {
+        _trees.clear();
+    }
+
+    synchronized int size() {
+        return _trees.size();
+    }
+
+    synchronized long hits() {
+        return _hits;
+    }
+
+    synchronized long misses() {
+        return _misses;
+    }
+}
@@ -0,0 +1,219 @@
+package api;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the strongly connected components of a directed graph:
+ * two nodes are in the same component iff there is a path from each of them to the other.
+ * The components are computed once, in O(V+E) time, by an iterative Tarjan over a {@link WDGraph_CSR} snapshot,
+ * so deep graphs do not overflow the call stack.
+ * <p>
+ * The components are numbered 0..count()-1 in reverse topological order of the condensation DAG
+ * (the graph with a node per component and an edge between components that have an edge between them):
+ * every edge of the DAG goes from a component to a component with a smaller id, so component 0 is a sink.
+ * The object is immutable, it describes the graph as it was when it was built.
+ */
+public class StronglyConnectedComponents {
+
+    private final WDGraph_CSR _graph;
+    private final int[] _comp;
+    private final int _count;
+    private final int[] _memberOffsets;
+    private final int[] _members;
+    private final int[] _dagOffsets;
+    private final int[] _dagTargets;
+
+    /**
+     * Computes the strongly connected components of g.
+     *
+     * @param g directed_weighted_graph
+     */
+    public StronglyConnectedComponents(directed_weighted_graph g) {
+        this(WDGraph_CSR.of(g));
+    }
+
+    StronglyConnectedComponents(WDGraph_CSR s) {
+        _graph = s;
+        int n = s.nodeSize();
+        _comp = new int[n];
+        _count = tarjan(s, _comp);
+
+        //the members of every component, by counting sort on the component id
+        _memberOffsets = new int[_count + 1];
+        for (int i = 0; i < n; i++) {
+            _memberOffsets[_comp[i] + 1]++;
+        }
+        for (int c = 0; c < _count; c++) {
+            _memberOffsets[c + 1] += _memberOffsets[c];
+        }
+        _members = new int[n];
+        int[] next = Arrays.copyOf(_memberOffsets, _count);
+        for (int i = 0; i < n; i++) {
+            _members[next[_comp[i]]++] = i;
+        }
+
+        //the condensation DAG, without duplicate edges
+        _dagOffsets = new int[_count + 1];
+        int[] targets = new int[16];
+        int m = 0;
+        int[] seen = new int[_count];
+        Arrays.fill(seen, -1);
+        for (int c = 0; c < _count; c++) {
+            for (int j = _memberOffsets[c]; j < _memberOffsets[c + 1]; j++) {
+                int u = _members[j];
+                for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                    int d = _comp[s.target(e)];
+                    if (d != c && seen[d] != c) {
+                        seen[d] = c;
+                        if (m == targets.length) {
+                            targets = Arrays.copyOf(targets, m * 2);
+                        }
+                        targets[m++] = d;
+                    }
+                }
+            }
+            _dagOffsets[c + 1] = m;
+        }
+        _dagTargets = Arrays.copyOf(targets, m);
+    }
+
+    /**
+     * Iterative Tarjan, fills the component of every node index and returns the number of components.
+     */
+    private static int tarjan(WDGraph_CSR s, int[] comp) {
+        int n = s.nodeSize();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(comp, -1);
+        int[] stack = new int[n];
+        int sp = 0;
+        //the simulated call stack: the node and the next out edge to visit
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int csp = 0;
+        int counter = 0, count = 0;
+
+        for (int r = 0; r < n; r++) {
+            if (index[r] != -1) {
+                continue;
+            }
+            index[r] = low[r] = counter++;
+            stack[sp++] = r;
+            callNode[csp] = r;
+            callEdge[csp++] = s.outStart(r);
+
+            while (csp > 0) {
+                int u = callNode[csp - 1];
+                int e = callEdge[csp - 1];
+                if (e < s.outEnd(u)) {
+                    callEdge[csp - 1]++;
+                    int v = s.target(e);
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        stack[sp++] = v;
+                        callNode[csp] = v;
+                        callEdge[csp++] = s.outStart(v);
+                    } else if (comp[v] == -1 && index[v] < low[u]) {
+                        //v is still on the stack
+                        low[u] = index[v];
+                    }
+                } else {
+                    csp--;
+                    if (low[u] == index[u]) {
+                        int v;
+                        do {
+                            v = stack[--sp];
+                            comp[v] = count;
+                        } while (v != u);
+                        count++;
+                    }
+                    if (csp > 0) {
+                        int p = callNode[csp - 1];
+                        if (low[u] < low[p]) {
+                            low[p] = low[u];
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of strongly connected components.
+     *
+     * @return count
+     */
+    public int count() {
+        return _count;
+    }
+
+    /**
+     * Returns true iff the graph is strongly connected (an empty graph is).
+     *
+     * @return true iff there is at most one component.
+     */
+    public boolean isStronglyConnected() {
+        return _count <= 1;
+    }
+
+    /**
+     * Returns the component of a node.
+     *
+     * @param key node id
+     * @return component id, -1 if there is no such node.
+     */
+    public int componentOf(int key) {
+        int i = _graph.indexOf(key);
+        return i == -1 ? -1 : _comp[i];
+    }
+
+    /**
+     * Returns the number of nodes in a component.
+     *
+     * @param comp component id
+     * @return size
+     */
+    public int size(int comp) {
+        return _memberOffsets[comp + 1] - _memberOffsets[comp];
+    }
+
+    /**
+     * Returns the keys of the nodes in a component, in ascending order.
+     *
+     * @param comp component id
+     * @return the keys
+     */
+    public int[] members(int comp) {
+        int[] ans = new int[size(comp)];
+        for (int j = 0; j < ans.length; j++) {
+            ans[j] = _graph.keyOf(_members[_memberOffsets[comp] + j]);
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the components that have an edge from comp in the condensation DAG,
+     * all of them have an id smaller than comp.
+     *
+     * @param comp component id
+     * @return the successor components
+     */
+    public int[] successors(int comp) {
+        return Arrays.copyOfRange(_dagTargets, _dagOffsets[comp], _dagOffsets[comp + 1]);
+    }
+
+    boolean isOf(WDGraph_CSR s) {
+        return _graph == s;
+    }
+
+    /**
+     * Returns the Mode Count of the graph when the components were computed.
+     *
+     * @return mode_count
+     */
+    public int getMC() {
+        return _graph.getMC();
+    }
+}
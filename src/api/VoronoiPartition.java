@@ -0,0 +1,111 @@
+package api;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the result of a multi source shortest path search of {@link WDGraph_Algo}:
+ * every node is labeled with its nearest source and the distance from it,
+ * which splits the graph into cells, one per source (a graph Voronoi partition).
+ * The labels come from one Dijkstra seeded with all the sources, instead of a Dijkstra per source.
+ * The object is immutable, it describes the graph as it was when the search ran.
+ */
+public class VoronoiPartition {
+
+    private final WDGraph_CSR _graph;
+    private final int[] _origin;
+    private final int[] _pred;
+    private final double[] _dist;
+
+    /**
+     * Constructor.
+     *
+     * @param graph  the snapshot the search ran on
+     * @param origin index of the nearest source of every node, -1 if no source reaches it
+     * @param pred   index of the node before every node on the path from its source, -1 for the sources
+     * @param dist   distance of every node from its nearest source, -1 if no source reaches it
+     */
+    VoronoiPartition(WDGraph_CSR graph, int[] origin, int[] pred, double[] dist) {
+        _graph = graph;
+        _origin = origin;
+        _pred = pred;
+        _dist = dist;
+    }
+
+    /**
+     * Returns the source that is nearest to the given node.
+     *
+     * @param key node id
+     * @return key of the source, -1 if there is no such node or no source reaches it.
+     */
+    public int getSource(int key) {
+        int i = _graph.indexOf(key);
+        return i == -1 || _origin[i] == -1 ? -1 : _graph.keyOf(_origin[i]);
+    }
+
+    /**
+     * Returns the distance of the given node from its nearest source.
+     *
+     * @param key node id
+     * @return distance, -1 if there is no such node or no source reaches it.
+     */
+    public double getDist(int key) {
+        int i = _graph.indexOf(key);
+        return i == -1 ? -1 : _dist[i];
+    }
+
+    /**
+     * Returns the shortest path from the nearest source to the given node as an array of node keys, source first.
+     *
+     * @param key node id
+     * @return the keys of the path, null if there is no such node or no source reaches it.
+     */
+    public int[] getPathKeys(int key) {
+        int i = _graph.indexOf(key);
+        if (i == -1 || _origin[i] == -1) {
+            return null;
+        }
+        int len = 0;
+        for (int j = i; j != -1; j = _pred[j]) {
+            len++;
+        }
+        int[] ans = new int[len];
+        for (int j = i; j != -1; j = _pred[j]) {
+            ans[--len] = _graph.keyOf(j);
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the keys of the nodes whose nearest source is the given source, in ascending order.
+     * this method runs in O(V) time.
+     *
+     * @param source key of a source
+     * @return the keys of the cell, empty if it is not a source.
+     */
+    public int[] getCell(int source) {
+        int s = _graph.indexOf(source);
+        if (s == -1) {
+            return new int[0];
+        }
+        int[] ans = new int[16];
+        int n = 0;
+        for (int i = 0; i < _origin.length; i++) {
+            if (_origin[i] == s) {
+                if (n == ans.length) {
+                    ans = Arrays.copyOf(ans, n * 2);
+                }
+                ans[n++] = _graph.keyOf(i);
+            }
+        }
+        return Arrays.copyOf(ans, n);
+    }
+
+    /**
+     * Returns the Mode Count of the graph when the search ran.
+     *
+     * @return mode_count
+     */
+    public int getMC() {
+        return _graph.getMC();
+    }
+}
@@ -2,12 +2,21 @@ package api;
 
 import com.google.gson.*;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * This class represents an directed weighted Graph Theory algorithms implements dw_graph_algorithms.
@@ -17,6 +26,7 @@ import java.util.*;
  * 2. isConnected(); // strongly (all ordered pais connected)
  * 3. double shortestPathDist(int src, int dest);
  * 4. List<node_data> shortestPath(int src, int dest);
+ * 4.1 double[] shortestPathDist(int src, int[] targets); List<List<node_data>> shortestPaths(int src, int[] targets);
  * 5. Save(file); // JSON file
  * 6. Load(file); // JSON file
  */
@@ -27,6 +37,82 @@ public class WDGraph_Algo implements dw_graph_algorithms {
      */
     private directed_weighted_graph _g;
 
+    /**
+     * a {@link WDGraph_CSR} snapshot of the structure of _g, rebuilt when _g changes.
+     * the queries only read the snapshot, and keep their state (distances, marks) in the
+     * {@link QueryContext} of the calling thread, so many threads can query the same graph at once.
+     */
+    private volatile WDGraph_CSR _snapshot;
+
+    private final ThreadLocal<QueryContext> _contexts = new ThreadLocal<>();
+
+    /**
+     * The search used by the point to point queries (shortestPathDist, shortestPath, shortestPathKeys).
+     * UNIDIRECTIONAL runs Dijkstra from src until dest is settled.
+     * BIDIRECTIONAL runs Dijkstra from src over the out edges and from dest over the in edges at the same time,
+     * and usually settles far fewer nodes on large graphs.
+     * A_STAR runs A* from src with the heuristic of {@link #setHeuristic}, by default the scaled geo distance.
+     * CONTRACTION_HIERARCHY queries the {@link ContractionHierarchy} of the graph, that is built on the first query
+     * after every change of the graph.
+     */
+    public enum SearchMode {
+        UNIDIRECTIONAL, BIDIRECTIONAL, A_STAR, CONTRACTION_HIERARCHY
+    }
+
+    private volatile SearchMode _mode = SearchMode.UNIDIRECTIONAL;
+
+    /**
+     * the heuristic of A_STAR, null for the {@link GeoHeuristic} fitted to the graph.
+     */
+    private volatile Heuristic _heuristic;
+
+    /**
+     * the heuristic checked against the current snapshot, rebuilt with the snapshot.
+     */
+    private volatile AStarSetup _astar;
+
+    /**
+     * the strongly connected components of the current snapshot, computed on demand.
+     */
+    private volatile StronglyConnectedComponents _scc;
+
+    /**
+     * the all pairs table of the current snapshot, computed on demand.
+     */
+    private volatile AllPairsTable _allPairs;
+
+    /**
+     * the recently used shortest path trees, disabled (capacity 0) by default.
+     */
+    private final ShortestPathTreeCache _trees = new ShortestPathTreeCache(0);
+
+    /**
+     * the contraction hierarchy of the current snapshot, built on demand or set by setContractionHierarchy.
+     */
+    private volatile HierarchySetup _hierarchy;
+
+    private static final class HierarchySetup {
+        final WDGraph_CSR _graph;
+        final ContractionHierarchy _ch;
+
+        HierarchySetup(WDGraph_CSR graph, ContractionHierarchy ch) {
+            _graph = graph;
+            _ch = ch;
+        }
+    }
+
+    private static final class AStarSetup {
+        final WDGraph_CSR _graph;
+        final Heuristic _from;
+        final Heuristic _h;
+
+        AStarSetup(WDGraph_CSR graph, Heuristic from, Heuristic h) {
+            _graph = graph;
+            _from = from;
+            _h = h;
+        }
+    }
+
     /**
      * Default constructor
      */
@@ -50,6 +136,8 @@ public class WDGraph_Algo implements dw_graph_algorithms {
     @Override
     public void init(directed_weighted_graph g) {
         this._g = g;
+        this._snapshot = null;
+        this._trees.clear();
     }
 
     /**
@@ -64,15 +152,240 @@ public class WDGraph_Algo implements dw_graph_algorithms {
 
     /**
      * Compute a deep copy of this weighted graph.
-     * this method uses the copy constructors of {@link WDGraph_DS}.
+     * this method uses the copy constructors of {@link WDGraph_DS},
+     * a {@link WDGraph_Persistent} graph is copied by {@link WDGraph_Persistent#deepCopy()}.
      *
-     * @return new {@link WDGraph_DS}.
+     * @return new {@link WDGraph_DS}, or new {@link WDGraph_Persistent} if the graph is persistent.
      */
     @Override
     public directed_weighted_graph copy() {
+        if (_g instanceof WDGraph_Persistent) {
+            return ((WDGraph_Persistent) _g).deepCopy();
+        }
         return new WDGraph_DS(_g);
     }
 
+    /**
+     * Returns a copy of the graph whose edges and nodes can be changed without changing the graph,
+     * a {@link WDGraph_Persistent} graph is copied in O(1) time by sharing its structure (see {@link WDGraph_Persistent#copy()}),
+     * but the node_data objects are shared: a tag, info or location set on a node of the copy is seen by the graph.
+     * any other graph is copied by {@link #copy()}.
+     *
+     * @return new {@link WDGraph_Persistent} that shares the nodes if the graph is persistent, else a deep copy.
+     */
+    public directed_weighted_graph sharedCopy() {
+        if (_g instanceof WDGraph_Persistent) {
+            return ((WDGraph_Persistent) _g).copy();
+        }
+        return copy();
+    }
+
+    /**
+     * Returns the search used by the point to point queries.
+     *
+     * @return SearchMode
+     */
+    public SearchMode getSearchMode() {
+        return _mode;
+    }
+
+    /**
+     * Sets the search used by the point to point queries.
+     *
+     * @param mode SearchMode
+     */
+    public void setSearchMode(SearchMode mode) {
+        _mode = Objects.requireNonNull(mode);
+    }
+
+    /**
+     * Returns the heuristic of the A_STAR mode.
+     *
+     * @return the heuristic, null for the default {@link GeoHeuristic}.
+     */
+    public Heuristic getHeuristic() {
+        return _heuristic;
+    }
+
+    /**
+     * Sets the heuristic of the A_STAR mode.
+     * the heuristic must be consistent (see {@link Heuristic}), the caller is responsible for it:
+     * A* does not re-open settled nodes, so an inconsistent heuristic may give longer paths.
+     * the heuristic is checked against the edges of the graph before the first A* query
+     * (see {@link #isHeuristicBelowEdgeWeights()}), if it overestimates an edge, the A_STAR queries run plain Dijkstra.
+     *
+     * @param h the heuristic, null for the {@link GeoHeuristic} fitted to the graph
+     */
+    public void setHeuristic(Heuristic h) {
+        _heuristic = h;
+    }
+
+    /**
+     * Computes the ALT landmark table of the graph with k landmarks and sets it as the heuristic of the A_STAR mode.
+     * unlike the geo heuristic it works for any edge weights.
+     *
+     * @param k number of landmarks
+     * @return the table
+     */
+    public LandmarkTable useLandmarks(int k) {
+        LandmarkTable t = LandmarkTable.build(snapshot(), k);
+        setHeuristic(t);
+        return t;
+    }
+
+    /**
+     * Sets the ALT landmark table of the graph as the heuristic of the A_STAR mode,
+     * the table is loaded from the file next to graphFile (see {@link LandmarkTable#fileFor}) if it matches the graph,
+     * else it is computed with k landmarks and saved there.
+     *
+     * @param graphFile the JSON file of the graph
+     * @param k         number of landmarks if the table is computed
+     * @return the table
+     */
+    public LandmarkTable useLandmarks(String graphFile, int k) {
+        WDGraph_CSR s = snapshot();
+        String file = LandmarkTable.fileFor(graphFile);
+        LandmarkTable t = LandmarkTable.load(file);
+        if (t == null || !t.matches(s)) {
+            t = LandmarkTable.build(s, k);
+            t.save(file);
+        }
+        setHeuristic(t);
+        return t;
+    }
+
+    /**
+     * Returns true iff the heuristic of the A_STAR mode is at most the weight of every edge u->v of the current graph
+     * (estimate(u, v) <= w(u, v)) and 0 from every node to itself,
+     * this method runs in O(V+E) time when the graph or the heuristic were changed, else in O(1).
+     * it does not check consistency (estimate(u, t) <= w(u, v) + estimate(v, t) for every target t),
+     * that the caller must guarantee, see {@link Heuristic}.
+     *
+     * @return true iff the A_STAR queries use the heuristic.
+     */
+    public boolean isHeuristicBelowEdgeWeights() {
+        return heuristic(snapshot()) != null;
+    }
+
+    /**
+     * Returns the heuristic for the A* queries on s, or null if it overestimates an edge of s.
+     */
+    private Heuristic heuristic(WDGraph_CSR s) {
+        Heuristic from = _heuristic;
+        AStarSetup a = _astar;
+        if (a == null || a._graph != s || a._from != from) {
+            Heuristic h = from == null ? GeoHeuristic.fit(s) : from;
+            //landmark distances of another graph may overestimate even if every edge passes the check
+            boolean stale = h instanceof LandmarkTable && !((LandmarkTable) h).matches(s);
+            a = new AStarSetup(s, from, !stale && belowEdgeWeights(s, h) ? h : null);
+            _astar = a;
+        }
+        return a._h;
+    }
+
+    /**
+     * Checks that h does not overestimate any edge of s, and is 0 from every node to itself.
+     */
+    private static boolean belowEdgeWeights(WDGraph_CSR s, Heuristic h) {
+        for (int u = 0; u < s.nodeSize(); u++) {
+            node_data n = s.nodeAt(u);
+            for (int e = s.outStart(u); e < s.outEnd(u); e++) {
+                double w = s.weight(e);
+                if (h.estimate(n, s.nodeAt(s.target(e))) > w + w * 1e-9) {
+                    return false;
+                }
+            }
+            if (h.estimate(n, n) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the number of shortest path trees kept for the sources queried most recently.
+     * when it is not 0, a point to point query computes the whole tree of its source (or takes it from the cache),
+     * so the next queries from the same source are answered in O(1) while the graph is not changed.
+     *
+     * @param capacity max number of trees, 0 to disable the cache
+     */
+    public void setTreeCacheCapacity(int capacity) {
+        _trees.setCapacity(capacity);
+    }
+
+    /**
+     * Returns the max number of cached shortest path trees, 0 if the cache is disabled.
+     *
+     * @return capacity
+     */
+    public int getTreeCacheCapacity() {
+        return _trees.capacity();
+    }
+
+    /**
+     * Returns the number of queries that were answered by a cached shortest path tree.
+     *
+     * @return hits
+     */
+    public long getTreeCacheHits() {
+        return _trees.hits();
+    }
+
+    /**
+     * Returns the number of queries that had to compute a shortest path tree while the cache was enabled.
+     *
+     * @return misses
+     */
+    public long getTreeCacheMisses() {
+        return _trees.misses();
+    }
+
+    /**
+     * Returns the snapshot of the current graph, builds a new one if the graph was changed
+     * (the Mode Count or the number of nodes is different), see {@link WDGraph_CSR#of}.
+     * if the graph is a {@link WDGraph_CSR} it is used as is, the snapshot of a {@link WDGraph_OffHeap}
+     * is kept off the heap as well.
+     * the snapshot costs O(V+E) time after every change of the graph: a graph that is changed between
+     * most of the queries (e.g. a {@link WDGraph_Concurrent} with many writers) pays this rebuild on the first
+     * query after each change, and the other queries wait for it. such a graph is better queried
+     * on a {@link WDGraph_CSR} that is taken once for a batch of queries.
+     *
+     * @return WDGraph_CSR
+     */
+    WDGraph_CSR snapshot() {
+        directed_weighted_graph g = _g;
+        if (g instanceof WDGraph_CSR) {
+            return (WDGraph_CSR) g;
+        }
+        WDGraph_CSR s = _snapshot;
+        if (s == null || s.getMC() != g.getMC() || s.nodeSize() != g.nodeSize()) {
+            synchronized (this) {
+                s = _snapshot;
+                if (s == null || s.getMC() != g.getMC() || s.nodeSize() != g.nodeSize()) {
+                    s = WDGraph_CSR.of(g);
+                    _snapshot = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Returns the query context of the calling thread, reset for a new query on s.
+     *
+     * @param s the snapshot the query runs on
+     * @return QueryContext
+     */
+    private QueryContext context(WDGraph_CSR s) {
+        QueryContext c = _contexts.get();
+        if (c == null || c.capacity() < s.nodeSize()) {
+            c = new QueryContext(s.nodeSize());
+            _contexts.set(c);
+        }
+        c.reset();
+        return c;
+    }
+
     /**
      * Returns true if and only if (iff) there is a valid path from each node to each
      * other node. NOTE: assume directional graph (all n*(n-1) ordered pairs).
@@ -81,68 +394,87 @@ public class WDGraph_Algo implements dw_graph_algorithms {
      */
     @Override
     public boolean isConnected() {
-        int num = -1;
-        if (_g.getV().iterator().hasNext()) {
-            // initialize the nodes tag
-            for (node_data i : this._g.getV()) {
-                i.setTag(num);
-            }
-
-            node_data connectedNode = _g.getV().iterator().next();
+        return connectedComponents().isStronglyConnected();
+    }
 
-            int sum = this.connectedCheck(connectedNode, connectedNode, num);
+    /**
+     * Returns the contraction hierarchy of the graph, builds it if the graph was changed since it was built.
+     * building takes a while, but then every point to point query settles only a few hundred nodes.
+     *
+     * @return ContractionHierarchy
+     */
+    public ContractionHierarchy contractionHierarchy() {
+        return hierarchy(snapshot());
+    }
 
-            //cheking if the value that we get from the connectedCheck function equal to the number of node in the graph
-            //if not we return false
-            if (sum != _g.getV().size()) {
-                return false;
-            }
-            // here we check if other node can connect to first node(connected node) if not we return false
-            for (node_data i : _g.getV()) {
-                this.connectedCheck(i, connectedNode, ++num);
-                if (connectedNode.getTag() == num) {
-                    return false;
+    private ContractionHierarchy hierarchy(WDGraph_CSR s) {
+        HierarchySetup h = _hierarchy;
+        if (h == null || h._graph != s) {
+            synchronized (this) {
+                h = _hierarchy;
+                if (h == null || h._graph != s) {
+                    h = new HierarchySetup(s, ContractionHierarchy.build(s));
+                    _hierarchy = h;
                 }
             }
         }
-        //we return true if all the node connected to another
-        return true;
+        return h._ch;
     }
 
     /**
-     * change the tag to the distance between node_data to the rest of the graph nodes until it reach the destination
-     * if the tag = -1 the nodes are not connected
+     * Sets a contraction hierarchy of the graph (for example one that was loaded by {@link ContractionHierarchy#load}),
+     * so it is not built again.
      *
-     * @@param node_data
-     * @return the sum of the marked nodes
+     * @param ch a hierarchy that was built from this graph
+     * @return true iff ch matches the graph (the same nodes, edges and weights, see {@link ContractionHierarchy#isOf}) and was set.
      */
-    private int connectedCheck(node_data src, node_data dest, int num) {
-        int sum = 0;
+    public boolean setContractionHierarchy(ContractionHierarchy ch) {
+        WDGraph_CSR s = snapshot();
+        if (!ch.matches(s)) {
+            return false;
+        }
+        _hierarchy = new HierarchySetup(s, ch);
+        return true;
+    }
 
-        Queue<node_data> q = new LinkedList<>();
-        src.setTag(num + 1);
-        sum++;
-        //the Queue add the first node and then add their neighbors and so on
-        q.add(src);
+    /**
+     * Returns the strongly connected components of the graph,
+     * computed in O(V+E) time once per change of the graph.
+     *
+     * @return StronglyConnectedComponents
+     */
+    public StronglyConnectedComponents connectedComponents() {
+        WDGraph_CSR s = snapshot();
+        StronglyConnectedComponents scc = _scc;
+        if (scc == null || !scc.isOf(s)) {
+            scc = new StronglyConnectedComponents(s);
+            _scc = scc;
+        }
+        return scc;
+    }
 
-        while (!q.isEmpty()) {
-            int temp = q.poll().getKey();
-            for (edge_data i : this._g.getE(temp)) {
-                node_data n_d = _g.getNode(i.getDest());
-                if (n_d.getTag() != num + 1) {
-                    //every time that new unseen node enter the queue sum++
-                    sum++;
-                    q.add(n_d);
-                    n_d.setTag(num + 1);
-                    if (n_d == dest)
-                        return 0;
+    /**
+     * Returns the distances and the next hops between all the pairs of nodes.
+     * the table is computed once per change of the graph (Mode Count), by a parallel Dijkstra from every node,
+     * it takes O(V^2) memory so it is meant for small graphs.
+     *
+     * @return AllPairsTable
+     */
+    public AllPairsTable allPairs() {
+        WDGraph_CSR s = snapshot();
+        AllPairsTable t = _allPairs;
+        if (t == null || !t.isOf(s)) {
+            synchronized (this) {
+                t = _allPairs;
+                if (t == null || !t.isOf(s)) {
+                    t = new AllPairsTable(s, ForkJoinPool.commonPool());
+                    _allPairs = t;
                 }
             }
         }
-        return sum;
+        return t;
     }
 
-
     /**
      * returns the the shortest path between src to dest - as an ordered List of nodes:
      * src--> n1-->n2-->...dest
@@ -155,16 +487,37 @@ public class WDGraph_Algo implements dw_graph_algorithms {
      */
     @Override
     public List<node_data> shortestPath(int src, int dest) {
-        List<node_data> ll = new ArrayList<>();
-        double flag = shortestPathDist(src, dest);
-        //first we check if the nodes are connected and if so we use the function ShortPath to return the shortest Path
-        if (flag != -1) {
-            node_data Src = this._g.getNode(src);
-            node_data Dest = this._g.getNode(dest);
+        WDGraph_CSR s = snapshot();
+        int[] path = pathIndexes(s, src, dest);
+        if (path == null) {
+            return null;
+        }
+        List<node_data> ll = new ArrayList<>(path.length);
+        for (int i : path) {
+            ll.add(s.nodeAt(i));
+        }
+        return ll;
+    }
 
-            return ShortPath(Dest, Src, ll, flag);
+    /**
+     * returns the the shortest path between src to dest as an array of node keys:
+     * src, n1, n2, ..., dest.
+     * the path is built from the predecessors recorded by the search, in O(path length).
+     *
+     * @param src  - start node
+     * @param dest - end (target) node
+     * @return the keys of the path, null if there is no such path.
+     */
+    public int[] shortestPathKeys(int src, int dest) {
+        WDGraph_CSR s = snapshot();
+        int[] path = pathIndexes(s, src, dest);
+        if (path == null) {
+            return null;
         }
-        return null;
+        for (int i = 0; i < path.length; i++) {
+            path[i] = s.keyOf(path[i]);
+        }
+        return path;
     }
 
     /**
@@ -177,137 +530,278 @@ public class WDGraph_Algo implements dw_graph_algorithms {
      */
     @Override
     public double shortestPathDist(int src, int dest) {
-        node_data Src = _g.getNode(src);
-        node_data Dest = _g.getNode(dest);
-
-        if (Src != null && Dest != null) {
-            this.initNodeWeight();
-            this.initNodeTag();
-
-            setDistance(Src);
-
-            return Dest.getWeight();
+        WDGraph_CSR s = snapshot();
+        int a = s.indexOf(src), b = s.indexOf(dest);
+        if (a == -1 || b == -1) {
+            return -1;
+        }
+        if (_trees.capacity() > 0) {
+            return tree(s, src).getDist(dest);
+        }
+        SearchMode mode = _mode;
+        if (mode == SearchMode.CONTRACTION_HIERARCHY) {
+            return hierarchy(s).shortestPathDist(src, dest);
         }
-        return -1;
+        QueryContext c = context(s);
+        if (mode == SearchMode.BIDIRECTIONAL) {
+            int m = Dijkstra.runBidirectional(s, c, a, b);
+            return m == -1 ? -1 : c.dist(m) + c.backward().dist(m);
+        }
+        Heuristic h = mode == SearchMode.A_STAR ? heuristic(s) : null;
+        if (h != null) {
+            return Dijkstra.runAStar(s, c, a, b, h) ? c.dist(b) : -1;
+        }
+        return Dijkstra.run(s, c, a, b) ? c.dist(b) : -1;
     }
 
-    private void setDistance(node_data n) {
-        PriorityQueue<node_data> q = new PriorityQueue<>();
-        n.setWeight(0);
-        q.add(n);
-
-        while (!q.isEmpty()) {
-            node_data temp = q.poll();
+    /**
+     * returns the length of the shortest path from src to each of the targets.
+     * runs one Dijkstra from src that stops when all the targets are settled,
+     * instead of a search per target.
+     * Note: if there is no path to a target --> its distance is -1
+     *
+     * @param src     - start node
+     * @param targets - end (target) nodes
+     * @return array of distances, in the order of targets
+     */
+    @Override
+    public double[] shortestPathDist(int src, int[] targets) {
+        double[] ans = new double[targets.length];
+        Arrays.fill(ans, -1);
+        WDGraph_CSR s = snapshot();
+        if (s.indexOf(src) == -1) {
+            return ans;
+        }
+        if (_trees.capacity() > 0) {
+            ShortestPathTree t = tree(s, src);
+            for (int i = 0; i < targets.length; i++) {
+                ans[i] = t.getDist(targets[i]);
+            }
+            return ans;
+        }
+        QueryContext c = context(s);
+        int[] idx = toIndexes(s, targets);
+        Dijkstra.runToAll(s, c, s.indexOf(src), idx);
+        for (int i = 0; i < idx.length; i++) {
+            if (idx[i] != -1 && c.isSettled(idx[i])) {
+                ans[i] = c.dist(idx[i]);
+            }
+        }
+        return ans;
+    }
 
-            for (edge_data i : _g.getE(temp.getKey())) {
-                double SEdge = i.getWeight() + temp.getWeight();
-                if (_g.getNode(i.getDest()).getWeight() == -1 || (_g.getNode(i.getDest()).getWeight() > SEdge)) {//&& _g.getNode(i.getDest()).getWeight() != 0)
-                    q.add(_g.getNode(i.getDest()));
-                    _g.getNode(i.getDest()).setWeight(SEdge);
-                }
+    /**
+     * returns the shortest path from src to each of the targets - as ordered Lists of nodes.
+     * runs one Dijkstra from src that stops when all the targets are settled,
+     * instead of a search per target.
+     * Note if there is no path to a target --> its path is null;
+     *
+     * @param src     - start node
+     * @param targets - end (target) nodes
+     * @return list of paths, in the order of targets
+     */
+    @Override
+    public List<List<node_data>> shortestPaths(int src, int[] targets) {
+        List<List<node_data>> ans = new ArrayList<>(targets.length);
+        WDGraph_CSR s = snapshot();
+        if (s.indexOf(src) == -1) {
+            for (int i = 0; i < targets.length; i++) {
+                ans.add(null);
+            }
+            return ans;
+        }
+        if (_trees.capacity() > 0) {
+            ShortestPathTree t = tree(s, src);
+            for (int target : targets) {
+                ans.add(t.getPath(target));
+            }
+            return ans;
+        }
+        QueryContext c = context(s);
+        int[] idx = toIndexes(s, targets);
+        Dijkstra.runToAll(s, c, s.indexOf(src), idx);
+        for (int i : idx) {
+            if (i == -1 || !c.isSettled(i)) {
+                ans.add(null);
+                continue;
+            }
+            int[] path = Dijkstra.path(c, i);
+            List<node_data> ll = new ArrayList<>(path.length);
+            for (int j : path) {
+                ll.add(s.nodeAt(j));
             }
+            ans.add(ll);
         }
+        return ans;
     }
 
     /**
-     * return list with the path from one node to the other
+     * Labels every node with its nearest source and its distance from it, by one Dijkstra
+     * that starts from all the sources at distance 0, instead of a search per source.
      *
-     * @param src
-     * @param dest
-     * @param ll
-     * @param distance
+     * @param sources keys of the source nodes, keys that are not in the graph are ignored
+     * @return VoronoiPartition
      */
-    private List<node_data> ShortPath(node_data dest, node_data src, List<node_data> ll, double distance) {
-        //we start by putting the dest in the stack
-        Stack<node_data> stack = new Stack<>();
+    public VoronoiPartition nearestSources(int[] sources) {
+        WDGraph_CSR s = snapshot();
+        QueryContext c = context(s);
+        Dijkstra.runMultiSource(s, c, toIndexes(s, sources));
+        int n = s.nodeSize();
+        int[] origin = new int[n];
+        int[] pred = new int[n];
+        double[] dist = new double[n];
+        for (int i = 0; i < n; i++) {
+            boolean reached = c.hasDist(i);
+            origin[i] = reached ? c.origin(i) : -1;
+            pred[i] = reached ? c.pred(i) : -1;
+            dist[i] = reached ? c.dist(i) : -1;
+        }
+        return new VoronoiPartition(s, origin, pred, dist);
+    }
+
+    private static int[] toIndexes(WDGraph_CSR s, int[] keys) {
+        int[] ans = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ans[i] = s.indexOf(keys[i]);
+        }
+        return ans;
+    }
 
-        stack.add(dest);
-        node_data temp = stack.peek();
-        temp.setTag(-2);
-        //then we check until we reach the source node
-        while (temp != src) {
-            NodeData n_d = (NodeData) temp;
-            for (node_data i : n_d.getConnectedNode().values()) {
-                //if the neighbors weight + the edge wight to the node equal to the node wight then we putting it in the stack
-                if (n_d.getWeight() == i.getWeight() + _g.getEdge(i.getKey(), temp.getKey()).getWeight() && i.getTag() != -2) {//
-                    stack.add(i);
-                    temp = stack.peek();
-                    temp.setTag(-2);
-                    break;
+    /**
+     * Runs the point to point search of the current mode and returns the path as node indexes of s.
+     *
+     * @return the path, null if there is no such path.
+     */
+    private int[] pathIndexes(WDGraph_CSR s, int src, int dest) {
+        int a = s.indexOf(src), b = s.indexOf(dest);
+        if (a == -1 || b == -1) {
+            return null;
+        }
+        if (_trees.capacity() > 0) {
+            int[] path = tree(s, src).getPathKeys(dest);
+            if (path != null) {
+                for (int i = 0; i < path.length; i++) {
+                    path[i] = s.indexOf(path[i]);
+                }
+            }
+            return path;
+        }
+        SearchMode mode = _mode;
+        if (mode == SearchMode.CONTRACTION_HIERARCHY) {
+            int[] path = hierarchy(s).shortestPathKeys(src, dest);
+            if (path != null) {
+                for (int i = 0; i < path.length; i++) {
+                    path[i] = s.indexOf(path[i]);
                 }
             }
+            return path;
         }
+        QueryContext c = context(s);
+        if (mode == SearchMode.BIDIRECTIONAL) {
+            int m = Dijkstra.runBidirectional(s, c, a, b);
+            return m == -1 ? null : Dijkstra.bidirectionalPath(c, m);
+        }
+        Heuristic h = mode == SearchMode.A_STAR ? heuristic(s) : null;
+        if (h != null) {
+            return Dijkstra.runAStar(s, c, a, b, h) ? Dijkstra.path(c, b) : null;
+        }
+        return Dijkstra.run(s, c, a, b) ? Dijkstra.path(c, b) : null;
+    }
 
-        int t = stack.size();
-        //we changing the stack into list , and then return it
-        for (int i = 0; i < t; i++) {
-            ll.add(stack.pop());
+    /**
+     * Computes the length of the shortest path from src to all the nodes of the graph.
+     *
+     * @param src - start node
+     * @return ShortestPathTree, null if there is no such node.
+     */
+    public ShortestPathTree shortestPathTree(int src) {
+        WDGraph_CSR s = snapshot();
+        if (s.indexOf(src) == -1) {
+            return null;
         }
-        return ll;
+        if (_trees.capacity() > 0) {
+            return tree(s, src);
+        }
+        return computeTree(s, src);
     }
 
     /**
-     * Initialize the nodes weight to -1.
+     * Computes the length of the shortest path from src to all the nodes of the graph
+     * with the parallel delta-stepping engine, for big graphs.
+     * the distances are the same as the ones of {@link #shortestPathTree(int)}.
+     *
+     * @param src    - start node
+     * @param engine the engine, its delta and threads
+     * @return ShortestPathTree, null if there is no such node.
      */
-    private void initNodeWeight() {
-        for (node_data i : _g.getV()) {
-            i.setWeight(-1);
+    public ShortestPathTree shortestPathTree(int src, DeltaStepping engine) {
+        WDGraph_CSR s = snapshot();
+        int a = s.indexOf(src);
+        if (a == -1) {
+            return null;
         }
+        return engine.run(s, a);
     }
 
     /**
-     * Initialize the nodes tag to -1.
+     * Returns the tree of src on s from the cache, computes and caches it on a miss.
      */
-    private void initNodeTag() {
-        for (node_data i : _g.getV()) {
-            i.setTag(-1);
+    private ShortestPathTree tree(WDGraph_CSR s, int src) {
+        ShortestPathTree t = _trees.get(s, src);
+        if (t == null) {
+            t = computeTree(s, src);
+            _trees.put(s, t);
+        }
+        return t;
+    }
+
+    private ShortestPathTree computeTree(WDGraph_CSR s, int src) {
+        int a = s.indexOf(src);
+        QueryContext c = context(s);
+        Dijkstra.run(s, c, a, -1);
+        double[] dist = new double[s.nodeSize()];
+        int[] pred = new int[dist.length];
+        for (int i = 0; i < dist.length; i++) {
+            dist[i] = c.dist(i);
+            pred[i] = c.hasDist(i) ? c.pred(i) : -1;
         }
+        return new ShortestPathTree(s, src, dist, pred);
     }
 
     /**
      * Saves this weighted (directed) graph to the given
      * file name - in JSON format
+     * the nodes are saved by increasing key and the edges of a node by increasing destination,
+     * the maps of {@link WDGraph_DS} iterate by hash so their order is not used.
+     * if the name ends with ".gz" the JSON is compressed with gzip.
      *
      * @param file the file name (may include a relative path).
      * @return true iff the file was successfully savedץ
      */
     @Override
     public boolean save(String file) {
-        //we save the file using json format
-        JsonObject json_obj = new JsonObject();
-        JsonArray nodes_arr = new JsonArray();
-        for (node_data i : _g.getV()) {
-            JsonObject jo_node = new JsonObject();
-            if (i.getLocation() != null) {
-                String loc = i.getLocation().x() + "," + i.getLocation().y() + "," + i.getLocation().z();
-                jo_node.addProperty("pos", loc);
-            } else {
-                jo_node.addProperty("pos", ",,");
-            }
-            jo_node.addProperty("id", i.getKey());
-            nodes_arr.add(jo_node);
-        }
-
-        JsonArray edges_arr = new JsonArray();
-        for (node_data i : _g.getV()) {
-            for (edge_data j : _g.getE(i.getKey())) {
-                JsonObject jo_edge = new JsonObject();
-                jo_edge.addProperty("src", j.getSrc());
-                jo_edge.addProperty("w", j.getWeight());
-                jo_edge.addProperty("dest", j.getDest());
-                edges_arr.add(jo_edge);
-            }
+        //we save the file using json format, written as a stream (see GraphJson)
+        try (OutputStream out = file.endsWith(".gz") ?
+                new GZIPOutputStream(new FileOutputStream(file), 1 << 16) : new FileOutputStream(file);
+             Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+            GraphJson.write(_g, w);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
         }
+    }
 
-        json_obj.add("Edges", edges_arr);
-        json_obj.add("Nodes", nodes_arr);
-
-        Gson gs = new Gson();
-        File f = new File(file);
+    /**
+     * Saves this graph to the given file in a compact binary format (see {@link GraphBinary}),
+     * that {@link #load} reads much faster than JSON.
+     *
+     * @param file the file name (may include a relative path).
+     * @return true iff the file was successfully saved
+     */
+    public boolean saveBinary(String file) {
         try {
-            FileWriter fw = new FileWriter(f);
-            fw.write(gs.toJson(json_obj));
-            fw.close();
+            GraphBinary.write(snapshot(), file);
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -320,41 +814,82 @@ public class WDGraph_Algo implements dw_graph_algorithms {
      * if the file was successfully loaded - the underlying graph
      * of this class will be changed (to the loaded one), in case the
      * graph was not loaded the original graph should remain "as is".
+     * the file is parsed as a stream (see {@link GraphJson}), the Nodes and Edges arrays may come in any order.
+     * a gzip compressed file (found by its first bytes or a ".gz" name) is decompressed while it is read.
+     * a file that was saved by {@link #saveBinary} is found by its first bytes and mapped, not copied
+     * (see {@link GraphBinary}), the graph is then an immutable {@link WDGraph_CSR} with read-only nodes
+     * (use new WDGraph_DS(getGraph()) to change it).
      *
      * @param file file name of JSON file
      * @return true iff the graph was successfully loaded.
      */
     @Override
     public boolean load(String file) {
-        //we opening the json file that wee save and make from it a new graph
-        JsonObject json_obj;
-        try {
-            String json_str = new String(Files.readAllBytes(Paths.get(file)));
-            directed_weighted_graph g = new WDGraph_DS();
-            json_obj = JsonParser.parseString(json_str).getAsJsonObject();
-
-            JsonArray nodes_arr = json_obj.get("Nodes").getAsJsonArray();
-            for (JsonElement i : nodes_arr) {
-                String[] xyz = i.getAsJsonObject().get("pos").getAsString().split(",");
-                node_data n = new NodeData(i.getAsJsonObject().get("id").getAsInt());
-                geo_location loc = new Geo_locationImpl
-                        (Double.parseDouble(xyz[0]), Double.parseDouble(xyz[1]), Double.parseDouble(xyz[2]));
-                n.setLocation(loc);
-                g.addNode(n);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            in.mark(4);
+            boolean binary = GraphBinary.isBinary(in);
+            in.reset();
+            if (binary) {
+                init(GraphBinary.read(file));
+                return true;
             }
+            //we read the json file as a stream of tokens and make from it a new graph
+            InputStream json = isGzip(in) || file.endsWith(".gz") ? new GZIPInputStream(in, 1 << 16) : in;
+            init(GraphJson.read(new InputStreamReader(json, StandardCharsets.UTF_8)));
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-            JsonArray edges_arr = json_obj.get("Edges").getAsJsonArray();
-            for (JsonElement i : edges_arr) {
-                int src = i.getAsJsonObject().get("src").getAsInt();
-                int dest = i.getAsJsonObject().get("dest").getAsInt();
-                double w = i.getAsJsonObject().get("w").getAsDouble();
-                g.connect(src, dest, w);
+    /**
+     * Loads a big graph on many threads: the JSON of {@link #save}, or a plain edge list with a line "src dest w"
+     * for every edge. the edges are split to byte ranges that are parsed in parallel (see {@link ParallelGraphLoader}),
+     * the graph is then an immutable {@link WDGraph_CSR} (use new WDGraph_DS(getGraph()) to change it).
+     * compressed and binary files can not be split, they are loaded by {@link #load}.
+     * in case the graph was not loaded the original graph remains "as is".
+     *
+     * @param file    file name
+     * @param threads the number of threads, 0 to use the common pool
+     * @return true iff the graph was successfully loaded.
+     */
+    public boolean loadParallel(String file, int threads) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("threads must be non negative");
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            in.mark(4);
+            boolean binary = GraphBinary.isBinary(in);
+            in.reset();
+            if (binary || isGzip(in) || file.endsWith(".gz")) {
+                return load(file);
             }
-            init(g);
-            return true;
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+        try {
+            init(ParallelGraphLoader.read(file, pool));
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (threads > 0) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Returns true iff the stream starts with the gzip magic bytes, the stream is reset to where it was.
+     */
+    private static boolean isGzip(InputStream in) throws IOException {
+        in.mark(2);
+        int b0 = in.read(), b1 = in.read();
+        in.reset();
+        return b0 == 0x1f && b1 == 0x8b;
     }
 }
\ No newline at end of file
@@ -0,0 +1,874 @@
+package api;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class represents an immutable snapshot of a directed weighted graph,
+ * stored in a compressed-sparse-row (CSR) layout.
+ * Every node gets a dense index in [0, nodeSize()), ordered by key.
+ * The outgoing edges of the node with index i are stored in the range
+ * [_outOffsets[i], _outOffsets[i+1]) of the _outTargets and _outWeights columns,
+ * sorted by the target index, so getEdge runs in O(log(degree)).
+ * The incoming edges are kept in the same layout (offsets, sources and edge ids), built on the first backward walk,
+ * so algorithms can walk the graph backwards without extra lookups.
+ * The columns ({@link Columns}) are heap arrays, direct buffers for a snapshot of a {@link WDGraph_OffHeap},
+ * or the mapped pages of a file read by {@link GraphBinary}, so a graph that is kept off the heap
+ * is not copied back onto it to be queried.
+ * The nodes of a mapped snapshot are light read-only views, made when asked.
+ * The structure of the snapshot can not be changed - all the modifying methods throws
+ * {@link UnsupportedOperationException}, the edges returned by this graph are light views over the columns.
+ */
+public class WDGraph_CSR implements directed_weighted_graph {
+
+    private final int _node_size;
+    private final int _edge_size;
+    private final Columns.Ints _keys;
+    private final boolean _dense;
+    private final int _first_key;
+    private final node_data[] _nodes;
+    private final directed_weighted_graph _source;
+    private final Columns.Doubles _xyz;
+    private final Collection<node_data> _nodesView;
+
+    private final Columns.Ints _outOffsets;
+    private final Columns.Ints _outTargets;
+    private final Columns.Doubles _outWeights;
+
+    private volatile InEdges _in;
+
+    private final int _mode_count;
+
+    /**
+     * Constructor.
+     * Freezes the given graph into a new CSR snapshot.
+     * The nodes are copied (uses the copy constructor of {@link NodeData}),
+     * so changes to the nodes of g after this call are not seen by the snapshot.
+     *
+     * @param g directed_weighted_graph
+     */
+    public WDGraph_CSR(directed_weighted_graph g) {
+        this(g, true, false);
+    }
+
+    /**
+     * Constructor.
+     * Builds a CSR snapshot of the structure of g, in heap arrays.
+     *
+     * @param g         directed_weighted_graph
+     * @param copyNodes true to copy the nodes, false to share the node_data objects of g
+     *                  (used by {@link WDGraph_Algo}, that only needs the structure).
+     */
+    WDGraph_CSR(directed_weighted_graph g, boolean copyNodes) {
+        this(g, copyNodes, false);
+    }
+
+    /**
+     * Returns g if it is already a snapshot, else a new snapshot of the structure of g that shares its nodes.
+     * the snapshot of a {@link WDGraph_OffHeap} is stored in direct buffers, and its nodes are not kept at all:
+     * nodeAt and getNode returns the views of g, so the snapshot must not be used after a node of g is removed.
+     * only the O(V) working arrays of the build are allocated on the heap.
+     *
+     * @param g directed_weighted_graph
+     * @return WDGraph_CSR
+     */
+    static WDGraph_CSR of(directed_weighted_graph g) {
+        if (g instanceof WDGraph_CSR) {
+            return (WDGraph_CSR) g;
+        }
+        return new WDGraph_CSR(g, false, g instanceof WDGraph_OffHeap);
+    }
+
+    /**
+     * Builds a CSR snapshot of the structure of g.
+     * the rows are read once each, so a graph that is changed while building (e.g. {@link WDGraph_Concurrent})
+     * gives a consistent snapshot of some state, edges to nodes that are not in the snapshot are skipped.
+     * The Mode Count is read first, so a change while building makes the snapshot look older, never newer.
+     *
+     * @param g         directed_weighted_graph
+     * @param copyNodes true to copy the nodes, false to share the node_data objects of g
+     * @param offHeap   true to store the columns in direct buffers and read the nodes from g
+     */
+    private WDGraph_CSR(directed_weighted_graph g, boolean copyNodes, boolean offHeap) {
+        _mode_count = g.getMC();
+        node_data[] found = new node_data[Math.max(g.nodeSize(), 16)];
+        int n = 0;
+        for (node_data i : g.getV()) {
+            if (n == found.length) {
+                found = Arrays.copyOf(found, n * 2);
+            }
+            found[n++] = i;
+        }
+        // sort the nodes by key, (key, position) packed to a long keeps the order of negative keys.
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = ((long) found[i].getKey() << 32) | i;
+        }
+        Arrays.sort(packed);
+        int[] keys = new int[n];
+        node_data[] nodes = offHeap ? null : new node_data[n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            int key = (int) (packed[i] >> 32);
+            if (k > 0 && keys[k - 1] == key) {
+                continue;
+            }
+            if (!offHeap) {
+                node_data node = found[(int) packed[i]];
+                nodes[k] = copyNodes ? new NodeData(node) : node;
+            }
+            keys[k++] = key;
+        }
+        n = k;
+        _node_size = n;
+        if (offHeap) {
+            _keys = Columns.ints(n, true);
+            for (int i = 0; i < n; i++) {
+                _keys.set(i, keys[i]);
+            }
+            _nodes = null;
+            _source = g;
+        } else {
+            _keys = Columns.ints(Arrays.copyOf(keys, n));
+            _nodes = Arrays.copyOf(nodes, n);
+            _source = null;
+        }
+        _xyz = null;
+        _first_key = n == 0 ? 0 : keys[0];
+        _dense = n == 0 || keys[n - 1] - keys[0] == n - 1;
+        _nodesView = nodesView();
+
+        _outOffsets = Columns.ints(n + 1, offHeap);
+        int capacity = Math.max(g.edgeSize(), 16);
+        Columns.Ints targets = Columns.ints(capacity, offHeap);
+        Columns.Doubles weights = Columns.doubles(capacity, offHeap);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            Collection<edge_data> row = g.getE(keys[i]);
+            if (row != null) {
+                for (edge_data j : row) {
+                    int dest = indexOf(j.getDest());
+                    if (dest == -1) {
+                        continue;
+                    }
+                    if (m == capacity) {
+                        capacity *= 2;
+                        targets = Columns.copyOf(targets, m, capacity);
+                        weights = Columns.copyOf(weights, m, capacity);
+                    }
+                    targets.set(m, dest);
+                    weights.set(m++, j.getWeight());
+                }
+            }
+            _outOffsets.set(i + 1, m);
+        }
+        _edge_size = m;
+        _outTargets = targets;
+        _outWeights = weights;
+
+        for (int i = 0; i < n; i++) {
+            sortRow(_outOffsets.get(i), _outOffsets.get(i + 1));
+        }
+    }
+
+    /**
+     * Constructor.
+     * Wraps arrays that are already in the CSR layout (used by {@link ParallelGraphLoader} to load a file),
+     * the arrays are not copied.
+     * the keys must be sorted and unique, and every row sorted by target index.
+     *
+     * @param keys       node keys, by index
+     * @param nodes      node data, by index
+     * @param outOffsets n + 1 row offsets
+     * @param outTargets target index of every edge
+     * @param outWeights weight of every edge
+     * @param mc         the mode count of the snapshot
+     */
+    WDGraph_CSR(int[] keys, node_data[] nodes, int[] outOffsets, int[] outTargets, double[] outWeights, int mc) {
+        int n = keys.length;
+        _mode_count = mc;
+        _node_size = n;
+        _edge_size = outTargets.length;
+        _keys = Columns.ints(keys);
+        _nodes = nodes;
+        _source = null;
+        _xyz = null;
+        _first_key = n == 0 ? 0 : keys[0];
+        _dense = n == 0 || keys[n - 1] - keys[0] == n - 1;
+        _nodesView = nodesView();
+        _outOffsets = Columns.ints(outOffsets);
+        _outTargets = Columns.ints(outTargets);
+        _outWeights = Columns.doubles(outWeights);
+    }
+
+    /**
+     * Constructor.
+     * Wraps columns that are already in the CSR layout (used by {@link GraphBinary} to map a file),
+     * the columns are not copied, and the nodes are views over the keys and xyz columns.
+     * the keys must be sorted and unique, and every row sorted by target index.
+     *
+     * @param n          number of nodes
+     * @param m          number of edges
+     * @param keys       node keys, by index
+     * @param xyz        x, y, z of every node, by index, x is NaN for a node without a location
+     * @param outOffsets n + 1 row offsets
+     * @param outTargets target index of every edge
+     * @param outWeights weight of every edge
+     * @param mc         the mode count of the snapshot
+     */
+    WDGraph_CSR(int n, int m, Columns.Ints keys, Columns.Doubles xyz, Columns.Ints outOffsets,
+                Columns.Ints outTargets, Columns.Doubles outWeights, int mc) {
+        _mode_count = mc;
+        _node_size = n;
+        _edge_size = m;
+        _keys = keys;
+        _nodes = null;
+        _source = null;
+        _xyz = xyz;
+        _first_key = n == 0 ? 0 : keys.get(0);
+        _dense = n == 0 || keys.get(n - 1) - keys.get(0) == n - 1;
+        _nodesView = nodesView();
+        _outOffsets = outOffsets;
+        _outTargets = outTargets;
+        _outWeights = outWeights;
+    }
+
+    private Collection<node_data> nodesView() {
+        if (_nodes != null) {
+            return Collections.unmodifiableList(Arrays.asList(_nodes));
+        }
+        return new AbstractList<>() {
+            @Override
+            public node_data get(int index) {
+                return nodeAt(index);
+            }
+
+            @Override
+            public int size() {
+                return _node_size;
+            }
+        };
+    }
+
+    /**
+     * Returns the incoming edges, builds them on the first call.
+     */
+    private InEdges in() {
+        InEdges in = _in;
+        if (in == null) {
+            synchronized (this) {
+                in = _in;
+                if (in == null) {
+                    in = new InEdges();
+                    _in = in;
+                }
+            }
+        }
+        return in;
+    }
+
+    /**
+     * Returns true iff the columns of this snapshot are stored outside the Java heap.
+     *
+     * @return true for direct or mapped buffers
+     */
+    boolean isOffHeap() {
+        return _outTargets.offHeap();
+    }
+
+    /**
+     * Sorts the edges in the range [from, to) by their target index.
+     * short rows are sorted in place by insertion sort, long rows by packing (target, position) into longs.
+     */
+    private void sortRow(int from, int to) {
+        if (to - from > 32) {
+            long[] packed = new long[to - from];
+            double[] weights = new double[to - from];
+            for (int i = from; i < to; i++) {
+                packed[i - from] = ((long) _outTargets.get(i) << 32) | (i - from);
+                weights[i - from] = _outWeights.get(i);
+            }
+            Arrays.sort(packed);
+            for (int i = from; i < to; i++) {
+                _outTargets.set(i, (int) (packed[i - from] >>> 32));
+                _outWeights.set(i, weights[(int) packed[i - from]]);
+            }
+            return;
+        }
+        for (int i = from + 1; i < to; i++) {
+            int t = _outTargets.get(i);
+            double w = _outWeights.get(i);
+            int j = i - 1;
+            while (j >= from && _outTargets.get(j) > t) {
+                _outTargets.set(j + 1, _outTargets.get(j));
+                _outWeights.set(j + 1, _outWeights.get(j));
+                j--;
+            }
+            _outTargets.set(j + 1, t);
+            _outWeights.set(j + 1, w);
+        }
+    }
+
+    /**
+     * Returns the dense index of the node with the given key.
+     * runs in O(1) if the keys are continuous, O(log(n)) otherwise.
+     *
+     * @param key node id
+     * @return index in [0, nodeSize()), -1 if none.
+     */
+    public int indexOf(int key) {
+        if (_node_size == 0) {
+            return -1;
+        }
+        if (_dense) {
+            long i = (long) key - _first_key;
+            return i >= 0 && i < _node_size ? (int) i : -1;
+        }
+        int lo = 0, hi = _node_size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int k = _keys.get(mid);
+            if (k < key) {
+                lo = mid + 1;
+            } else if (k > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the key of the node with the given dense index.
+     *
+     * @param index dense index
+     * @return node id
+     */
+    public int keyOf(int index) {
+        return _keys.get(index);
+    }
+
+    /**
+     * Returns the node with the given dense index.
+     *
+     * @param index dense index
+     * @return node_data
+     */
+    public node_data nodeAt(int index) {
+        if (_nodes != null) {
+            return _nodes[index];
+        }
+        if (_source != null) {
+            return _source.getNode(_keys.get(index));
+        }
+        return new NodeView(index);
+    }
+
+    /**
+     * Returns the first edge id going out of the node with the given index.
+     * the edges of the node are [outStart(i), outEnd(i)).
+     *
+     * @param index dense index
+     * @return edge id
+     */
+    public int outStart(int index) {
+        return _outOffsets.get(index);
+    }
+
+    /**
+     * Returns the edge id after the last edge going out of the node with the given index.
+     *
+     * @param index dense index
+     * @return edge id
+     */
+    public int outEnd(int index) {
+        return _outOffsets.get(index + 1);
+    }
+
+    /**
+     * Returns the dense index of the destination of the given edge.
+     *
+     * @param edge edge id
+     * @return dense index
+     */
+    public int target(int edge) {
+        return _outTargets.get(edge);
+    }
+
+    /**
+     * Returns the weight of the given edge.
+     *
+     * @param edge edge id
+     * @return weight
+     */
+    public double weight(int edge) {
+        return _outWeights.get(edge);
+    }
+
+    /**
+     * Returns the first position of the incoming edges of the node with the given index.
+     * the incoming edges of the node are [inStart(i), inEnd(i)).
+     *
+     * @param index dense index
+     * @return position
+     */
+    public int inStart(int index) {
+        return in()._offsets.get(index);
+    }
+
+    /**
+     * Returns the position after the last incoming edge of the node with the given index.
+     *
+     * @param index dense index
+     * @return position
+     */
+    public int inEnd(int index) {
+        return in()._offsets.get(index + 1);
+    }
+
+    /**
+     * Returns the dense index of the source of the incoming edge in the given position.
+     *
+     * @param pos position in [inStart(i), inEnd(i))
+     * @return dense index
+     */
+    public int source(int pos) {
+        return in()._sources.get(pos);
+    }
+
+    /**
+     * Returns the edge id (as used by target and weight) of the incoming edge in the given position.
+     *
+     * @param pos position in [inStart(i), inEnd(i))
+     * @return edge id
+     */
+    public int inEdge(int pos) {
+        return in()._edges.get(pos);
+    }
+
+    /**
+     * Returns the nodes that have an edge to the node with the given key.
+     *
+     * @param key node id
+     * @return Collection<node_data>, null if none.
+     */
+    public Collection<node_data> getInNodes(int key) {
+        int i = indexOf(key);
+        if (i == -1) {
+            return null;
+        }
+        int from = inStart(i), to = inEnd(i);
+        node_data[] in = new node_data[to - from];
+        for (int p = from; p < to; p++) {
+            in[p - from] = nodeAt(source(p));
+        }
+        return Arrays.asList(in);
+    }
+
+    /**
+     * Returns the node_data by the node_id.
+     *
+     * @param key the node_id
+     * @return the node_data by the node_id, null if none.
+     */
+    @Override
+    public node_data getNode(int key) {
+        int i = indexOf(key);
+        return i == -1 ? null : nodeAt(i);
+    }
+
+    /**
+     * Returns the data of the edge (src,dest), null if none.
+     * this method runs in O(log(degree)) time, by binary search on the row of src.
+     *
+     * @param src  the node id of the source node.
+     * @param dest the node id of the destination node.
+     * @return edge_data
+     */
+    @Override
+    public edge_data getEdge(int src, int dest) {
+        int s = indexOf(src);
+        int d = indexOf(dest);
+        if (s == -1 || d == -1) {
+            return null;
+        }
+        int lo = outStart(s), hi = outEnd(s) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = _outTargets.get(mid);
+            if (t < d) {
+                lo = mid + 1;
+            } else if (t > d) {
+                hi = mid - 1;
+            } else {
+                return new EdgeView(s, mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Not supported, the snapshot is immutable.
+     */
+    @Override
+    public void addNode(node_data n) {
+        throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+    }
+
+    /**
+     * Not supported, the snapshot is immutable.
+     */
+    @Override
+    public void connect(int src, int dest, double w) {
+        throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+    }
+
+    /**
+     * Returns an unmodifiable collection of all the nodes, ordered by key.
+     * this method runs in O(1) time.
+     *
+     * @return Collection<node_data>
+     */
+    @Override
+    public Collection<node_data> getV() {
+        return _nodesView;
+    }
+
+    /**
+     * Returns a collection view of the edges getting out of the given node.
+     * this method runs in O(1) time, the edges are created while iterating.
+     *
+     * @param node_id key
+     * @return Collection<edge_data>, null if none.
+     */
+    @Override
+    public Collection<edge_data> getE(int node_id) {
+        int s = indexOf(node_id);
+        if (s == -1) {
+            return null;
+        }
+        return new RowView(s);
+    }
+
+    /**
+     * Not supported, the snapshot is immutable.
+     */
+    @Override
+    public node_data removeNode(int key) {
+        throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+    }
+
+    /**
+     * Not supported, the snapshot is immutable.
+     */
+    @Override
+    public edge_data removeEdge(int src, int dest) {
+        throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+    }
+
+    /**
+     * Returns the number of vertices (nodes) in the graph.
+     *
+     * @return number of nodes.
+     */
+    @Override
+    public int nodeSize() {
+        return _node_size;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return number of edges.
+     */
+    @Override
+    public int edgeSize() {
+        return _edge_size;
+    }
+
+    /**
+     * Returns a hash of all the edges (source key, destination key and weight),
+     * it does not depend on the order of the nodes or of the edges, so two snapshots of the same graph
+     * have the same fingerprint whatever their Mode Count is. this method runs in O(V+E) time.
+     *
+     * @return the fingerprint of the edges
+     */
+    long fingerprint() {
+        long ans = 0;
+        for (int i = 0; i < _node_size; i++) {
+            long src = (long) keyOf(i) << 32;
+            for (int e = outStart(i); e < outEnd(i); e++) {
+                long h = (src | (keyOf(target(e)) & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+                h ^= Double.doubleToLongBits(weight(e));
+                h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+                ans += h ^ (h >>> 29);
+            }
+        }
+        return ans;
+    }
+
+    /**
+     * Returns the Mode Count of the source graph at the time it was frozen.
+     *
+     * @return mode_count
+     */
+    @Override
+    public int getMC() {
+        return _mode_count;
+    }
+
+    @Override
+    public String toString() {
+        return "WDGraph_CSR{" +
+                "node_size=" + nodeSize() +
+                ", edge_size=" + edgeSize() +
+                ", mode_count=" + _mode_count +
+                '}';
+    }
+
+    /**
+     * This inner class holds the incoming edges, built from the outgoing ones by counting sort on the target.
+     * the columns are stored in the same way as the outgoing ones.
+     */
+    private class InEdges {
+
+        private final Columns.Ints _offsets;
+        private final Columns.Ints _sources;
+        private final Columns.Ints _edges;
+
+        InEdges() {
+            int n = _node_size;
+            boolean offHeap = isOffHeap();
+            _offsets = Columns.ints(n + 1, offHeap);
+            _sources = Columns.ints(_edge_size, offHeap);
+            _edges = Columns.ints(_edge_size, offHeap);
+            for (int e = 0; e < _edge_size; e++) {
+                int t = target(e) + 1;
+                _offsets.set(t, _offsets.get(t) + 1);
+            }
+            for (int i = 0; i < n; i++) {
+                _offsets.set(i + 1, _offsets.get(i + 1) + _offsets.get(i));
+            }
+            Columns.Ints fill = Columns.ints(n, offHeap);
+            for (int i = 0; i < n; i++) {
+                fill.set(i, _offsets.get(i));
+            }
+            for (int i = 0; i < n; i++) {
+                for (int e = outStart(i); e < outEnd(i); e++) {
+                    int t = target(e);
+                    int pos = fill.get(t);
+                    fill.set(t, pos + 1);
+                    _sources.set(pos, i);
+                    _edges.set(pos, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * This inner class is a collection view over the outgoing edges of one node.
+     */
+    private class RowView extends AbstractCollection<edge_data> {
+
+        private final int _src;
+
+        RowView(int src) {
+            _src = src;
+        }
+
+        @Override
+        public Iterator<edge_data> iterator() {
+            return new Iterator<>() {
+                private int _e = outStart(_src);
+
+                @Override
+                public boolean hasNext() {
+                    return _e < outEnd(_src);
+                }
+
+                @Override
+                public edge_data next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return new EdgeView(_src, _e++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return outEnd(_src) - outStart(_src);
+        }
+    }
+
+    /**
+     * This inner class is a light read-only view of one node in the keys and xyz columns.
+     * tag, info, weight and location can not be changed.
+     */
+    private class NodeView implements node_data {
+
+        private final int _index;
+
+        NodeView(int index) {
+            _index = index;
+        }
+
+        @Override
+        public int getKey() {
+            return keyOf(_index);
+        }
+
+        @Override
+        public geo_location getLocation() {
+            double x = _xyz.get(3 * _index);
+            if (Double.isNaN(x)) {
+                return null;
+            }
+            return new Geo_locationImpl(x, _xyz.get(3 * _index + 1), _xyz.get(3 * _index + 2));
+        }
+
+        @Override
+        public void setLocation(geo_location p) {
+            throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+        }
+
+        @Override
+        public double getWeight() {
+            return 0;
+        }
+
+        @Override
+        public void setWeight(double w) {
+            throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+        }
+
+        @Override
+        public String getInfo() {
+            return "";
+        }
+
+        @Override
+        public void setInfo(String s) {
+            throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+        }
+
+        @Override
+        public int getTag() {
+            return 0;
+        }
+
+        @Override
+        public void setTag(int t) {
+            throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+        }
+
+        /**
+         * Equal method. return true iff o is a view of the same node in the same snapshot.
+         * @param o {@link Objects}
+         * @return true iff o is equal to this.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NodeView that = (NodeView) o;
+            return _index == that._index && graph() == that.graph();
+        }
+
+        private WDGraph_CSR graph() {
+            return WDGraph_CSR.this;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getKey());
+        }
+
+        @Override
+        public String toString() {
+            return "(" + getKey() + ")";
+        }
+    }
+
+    /**
+     * This inner class is a light read-only view of one edge in the columns.
+     * tag and info can not be changed.
+     */
+    private class EdgeView implements edge_data {
+
+        private final int _src, _edge;
+
+        EdgeView(int src, int edge) {
+            _src = src;
+            _edge = edge;
+        }
+
+        @Override
+        public int getSrc() {
+            return keyOf(_src);
+        }
+
+        @Override
+        public int getDest() {
+            return keyOf(target(_edge));
+        }
+
+        @Override
+        public double getWeight() {
+            return weight(_edge);
+        }
+
+        @Override
+        public String getInfo() {
+            return "";
+        }
+
+        @Override
+        public void setInfo(String s) {
+            throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+        }
+
+        @Override
+        public int getTag() {
+            return 0;
+        }
+
+        @Override
+        public void setTag(int t) {
+            throw new UnsupportedOperationException("WDGraph_CSR is immutable");
+        }
+
+        @Override
+        public String toString() {
+            return "(" + getSrc() + " -> " + getDest() + "): weight=" + getWeight() + '}';
+        }
+
+        /**
+         * Equal method. returns true iff o is an edge_data with the same src, dest and weight.
+         * @param o {@link Objects}
+         * @return true iff o and this are equal.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof edge_data)) return false;
+            edge_data that = (edge_data) o;
+            return getSrc() == that.getSrc() &&
+                    getDest() == that.getDest() &&
+                    Double.compare(getWeight(), that.getWeight()) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getSrc(), getDest(), getWeight());
+        }
+    }
+}
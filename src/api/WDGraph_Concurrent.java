@@ -0,0 +1,462 @@
+package api;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class represent a weighted and directional graph that can be changed by many threads at once,
+ * implements directed_weighted_graph interface.
+ * The nodes and the adjacency of every node are stored in {@link ConcurrentHashMap}s,
+ * so the reading methods (getNode, getEdge, getE, getV) never block.
+ * Every change is done under striped locks: the key of a node selects one of the locks,
+ * connect and removeEdge hold the locks of src and dest, removeNode holds the locks of the node and all its neighbors,
+ * the locks are always taken in increasing order so there are no deadlocks.
+ * Changes of different nodes runs in parallel, and the edge size and mode count are atomic counters.
+ * The collections returned by getV and getE are weakly consistent (as the ConcurrentHashMap views).
+ * {@link WDGraph_Algo} queries a snapshot of the graph that is rebuilt in O(V+E) after every change,
+ * so for a graph that keeps changing, a {@link WDGraph_CSR} should be taken once for a batch of queries.
+ */
+public class WDGraph_Concurrent implements directed_weighted_graph {
+
+    private final ConcurrentHashMap<Integer, Vertex> _vertices;
+    private final ReentrantLock[] _locks;
+    private final AtomicInteger _edge_size;
+    private final AtomicInteger _mode_count;
+    private final Collection<node_data> _nodesView;
+
+    /**
+     * Default constructor, uses 4 locks per available processor (rounded up to a power of two).
+     */
+    public WDGraph_Concurrent() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param stripes minimal number of locks
+     */
+    public WDGraph_Concurrent(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        _locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            _locks[i] = new ReentrantLock();
+        }
+        _vertices = new ConcurrentHashMap<>();
+        _edge_size = new AtomicInteger();
+        _mode_count = new AtomicInteger();
+        _nodesView = new NodesView();
+    }
+
+    /**
+     * Copy constructor
+     * get directed_weighted_graph g as param and compute a deep copy of g.
+     *
+     * @param g directed_weighted_graph
+     */
+    public WDGraph_Concurrent(directed_weighted_graph g) {
+        this();
+        for (node_data i : g.getV()) {
+            addNode(new NodeData(i));
+        }
+        for (node_data i : g.getV()) {
+            for (edge_data j : g.getE(i.getKey())) {
+                connect(j.getSrc(), j.getDest(), j.getWeight());
+            }
+        }
+    }
+
+    private int stripe(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (_locks.length - 1);
+    }
+
+    /**
+     * Locks the stripes of the two keys, in increasing order.
+     */
+    private void lock(int a, int b) {
+        int sa = stripe(a), sb = stripe(b);
+        if (sa == sb) {
+            _locks[sa].lock();
+        } else {
+            _locks[Math.min(sa, sb)].lock();
+            _locks[Math.max(sa, sb)].lock();
+        }
+    }
+
+    private void unlock(int a, int b) {
+        int sa = stripe(a), sb = stripe(b);
+        _locks[sa].unlock();
+        if (sa != sb) {
+            _locks[sb].unlock();
+        }
+    }
+
+    /**
+     * Returns the node_data by the node_id.
+     * this method does not block.
+     *
+     * @param key the node_id
+     * @return the node_data by the node_id, null if none.
+     */
+    @Override
+    public node_data getNode(int key) {
+        Vertex v = _vertices.get(key);
+        return v == null ? null : v._node;
+    }
+
+    /**
+     * Returns the data of the edge (src,dest), null if none.
+     * this method does not block.
+     *
+     * @param src  the node id of the source node.
+     * @param dest the node id of the destination node.
+     * @return edge_data
+     */
+    @Override
+    public edge_data getEdge(int src, int dest) {
+        Vertex v = _vertices.get(src);
+        return v == null ? null : v._out.get(dest);
+    }
+
+    /**
+     * Adds a new node to the graph with the given node_data.
+     *
+     * @param n node_data
+     */
+    @Override
+    public void addNode(node_data n) {
+        ReentrantLock lock = _locks[stripe(n.getKey())];
+        lock.lock();
+        try {
+            _vertices.putIfAbsent(n.getKey(), new Vertex(n));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Connects an edge with weight w between node src to node dest.
+     * holds the locks of src and dest, so the check of the existing edge and the update are atomic.
+     *
+     * @param src  the source of the edge.
+     * @param dest the destination of the edge.
+     * @param w    positive weight representing the cost (aka time, price, etc) between src-->dest.
+     */
+    @Override
+    public void connect(int src, int dest, double w) {
+        lock(src, dest);
+        try {
+            Vertex s = _vertices.get(src);
+            Vertex d = _vertices.get(dest);
+            if (s == null || d == null) {
+                return;
+            }
+            edge_data old = s._out.get(dest);
+            if (old != null && (old.getWeight() == w || src == dest)) {
+                return;
+            }
+            if (old == null) {
+                _edge_size.incrementAndGet();
+            }
+            d._in.put(src, s._node);
+            s._out.put(dest, new EdgeData(src, dest, w));
+            _mode_count.incrementAndGet();
+        } finally {
+            unlock(src, dest);
+        }
+    }
+
+    /**
+     * Returns a weakly consistent view of all the nodes in the graph.
+     * this method runs in O(1) time.
+     *
+     * @return Collection<node_data>
+     */
+    @Override
+    public Collection<node_data> getV() {
+        return _nodesView;
+    }
+
+    /**
+     * Returns a weakly consistent view of the edges getting out of the given node.
+     * this method runs in O(1) time.
+     *
+     * @param node_id key
+     * @return Collection<edge_data>
+     */
+    @Override
+    public Collection<edge_data> getE(int node_id) {
+        Vertex v = _vertices.get(node_id);
+        return v == null ? null : v._out.values();
+    }
+
+    /**
+     * Returns the nodes that have an edge to the node with the given key.
+     *
+     * @param key node id
+     * @return Collection<node_data>, null if none.
+     */
+    public Collection<node_data> getInNodes(int key) {
+        Vertex v = _vertices.get(key);
+        return v == null ? null : v._in.values();
+    }
+
+    /**
+     * Deletes the node (with the given ID) from the graph -
+     * and removes all edges which starts or ends at this node.
+     * holds the locks of the node and all its neighbors, the neighbors are read under the lock of the node,
+     * and if a new neighbor (of a different lock) was connected meanwhile, the locks are taken again.
+     *
+     * @param key node_id
+     * @return the data of the removed node (null if none).
+     */
+    @Override
+    public node_data removeNode(int key) {
+        while (true) {
+            Vertex v = _vertices.get(key);
+            if (v == null) {
+                return null;
+            }
+            boolean[] stripes = new boolean[_locks.length];
+            stripes[stripe(key)] = true;
+            for (Integer i : v._out.keySet()) {
+                stripes[stripe(i)] = true;
+            }
+            for (Integer i : v._in.keySet()) {
+                stripes[stripe(i)] = true;
+            }
+            for (int i = 0; i < stripes.length; i++) {
+                if (stripes[i]) _locks[i].lock();
+            }
+            try {
+                if (_vertices.get(key) != v) {
+                    continue;
+                }
+                // v can not get new edges while its lock is held, so this check is final.
+                if (!covered(stripes, v)) {
+                    continue;
+                }
+                int t = v._out.size() + v._in.size();
+                if (v._out.containsKey(key)) {
+                    t--;
+                }
+                for (Integer i : v._out.keySet()) {
+                    _vertices.get(i)._in.remove(key);
+                }
+                for (Integer i : v._in.keySet()) {
+                    _vertices.get(i)._out.remove(key);
+                }
+                _edge_size.addAndGet(-t);
+                _mode_count.addAndGet(t + 1);
+                _vertices.remove(key);
+                return v._node;
+            } finally {
+                for (int i = 0; i < stripes.length; i++) {
+                    if (stripes[i]) _locks[i].unlock();
+                }
+            }
+        }
+    }
+
+    private boolean covered(boolean[] stripes, Vertex v) {
+        for (Integer i : v._out.keySet()) {
+            if (!stripes[stripe(i)]) return false;
+        }
+        for (Integer i : v._in.keySet()) {
+            if (!stripes[stripe(i)]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the edge from the graph,
+     * holds the locks of src and dest.
+     *
+     * @param src  the source of the edge.
+     * @param dest the destination of the edge.
+     * @return the data of the removed edge (null if none).
+     */
+    @Override
+    public edge_data removeEdge(int src, int dest) {
+        lock(src, dest);
+        try {
+            Vertex s = _vertices.get(src);
+            Vertex d = _vertices.get(dest);
+            if (s == null || d == null) {
+                return null;
+            }
+            edge_data ans = s._out.remove(dest);
+            if (ans == null) {
+                return null;
+            }
+            d._in.remove(src);
+            _edge_size.decrementAndGet();
+            _mode_count.incrementAndGet();
+            return ans;
+        } finally {
+            unlock(src, dest);
+        }
+    }
+
+    @Override
+    public int nodeSize() {
+        return _vertices.size();
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edge_size.get();
+    }
+
+    @Override
+    public int getMC() {
+        return _mode_count.get();
+    }
+
+    @Override
+    public String toString() {
+        return "WDGraph_Concurrent{" +
+                "node_size=" + nodeSize() +
+                ", edge_size=" + edgeSize() +
+                ", mode_count=" + getMC() +
+                '}';
+    }
+
+    /**
+     * This inner class holds a node and its adjacency.
+     * _out - the edges going out of the node, by the destination key.
+     * _in - the nodes that have an edge to this node, by their key.
+     */
+    private static class Vertex {
+
+        private final node_data _node;
+        private final ConcurrentHashMap<Integer, edge_data> _out;
+        private final ConcurrentHashMap<Integer, node_data> _in;
+
+        Vertex(node_data node) {
+            _node = node;
+            _out = new ConcurrentHashMap<>();
+            _in = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * This inner class is a view of the nodes of the graph.
+     */
+    private class NodesView extends AbstractCollection<node_data> {
+
+        @Override
+        public Iterator<node_data> iterator() {
+            Iterator<Vertex> it = _vertices.values().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public node_data next() {
+                    return it.next()._node;
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof node_data)) {
+                return false;
+            }
+            Vertex v = _vertices.get(((node_data) o).getKey());
+            return v != null && v._node.equals(o);
+        }
+
+        @Override
+        public int size() {
+            return _vertices.size();
+        }
+    }
+
+    /**
+     * This inner class represent a directional edge between 2 nodes in the graph.
+     * The weight can not be changed (connect replaces the edge), tag and info are volatile.
+     */
+    private static class EdgeData implements edge_data {
+
+        private final int _src, _dest;
+        private final double _weight;
+        private volatile int _tag;
+        private volatile String _info;
+
+        EdgeData(int src, int dest, double weight) {
+            _src = src;
+            _dest = dest;
+            _weight = weight;
+            _tag = 0;
+            _info = "";
+        }
+
+        @Override
+        public int getSrc() {
+            return _src;
+        }
+
+        @Override
+        public int getDest() {
+            return _dest;
+        }
+
+        @Override
+        public double getWeight() {
+            return _weight;
+        }
+
+        @Override
+        public String getInfo() {
+            return _info;
+        }
+
+        @Override
+        public void setInfo(String s) {
+            _info = s;
+        }
+
+        @Override
+        public int getTag() {
+            return _tag;
+        }
+
+        @Override
+        public void setTag(int t) {
+            _tag = t;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + _src + " -> " + _dest + "): weight=" + _weight + '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EdgeData edgeData = (EdgeData) o;
+            return _src == edgeData._src &&
+                    _dest == edgeData._dest &&
+                    Double.compare(edgeData._weight, _weight) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_src, _dest, _weight);
+        }
+    }
+}
@@ -1,26 +1,34 @@
 package api;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * This class represent a weighted and directional graph, implements directed_weighted_graph interface.
  * WDGraph_DS contains inner private class {@link EdgeData} that represent the edge of the graph.
- * every {@link WDGraph_DS} has a {@link HashMap} calls _graphNodes contains all the vertices in the graph
- * the keys in this hashmap are the keys of the {@link NodeData} keys, that has a unique key to each node.
+ * every {@link WDGraph_DS} has a {@link IntObjectMap} calls _graphNodes contains all the vertices in the graph
+ * the keys in this map are the keys of the {@link NodeData} keys, that has a unique key to each node.
  */
 public class WDGraph_DS implements directed_weighted_graph {
 
-    private final HashMap<Integer, node_data> _graphNodes;
+    private final IntObjectMap<node_data> _graphNodes;
     private int _edge_size;
     private int _mode_count;
 
+    /**
+     * the listeners that are told about every change of the graph, see {@link GraphListener}.
+     * the array is replaced on add/remove, so a listener can remove itself while it is called.
+     */
+    private GraphListener[] _listeners = new GraphListener[0];
+
     /**
      * Default constructor
      */
     public WDGraph_DS() {
-        this._graphNodes = new HashMap<>();
+        this._graphNodes = new IntObjectMap<>();
         this._edge_size = 0;
         this._mode_count = 0;
     }
@@ -32,7 +40,7 @@ public class WDGraph_DS implements directed_weighted_graph {
      * @param g directed_weighted_graph
      */
     public WDGraph_DS(directed_weighted_graph g) {
-        _graphNodes = new HashMap<>();
+        _graphNodes = new IntObjectMap<>(g.nodeSize());
         for (node_data i : g.getV()) {
             _graphNodes.put(i.getKey(), new NodeData(i));
         }
@@ -68,12 +76,12 @@ public class WDGraph_DS implements directed_weighted_graph {
         NodeData temp = (NodeData) this.getNode(src);
         if (temp == null)
             return null;
-        return temp.getNeighborsDis().get(dest);
+        return temp.neighborsDis().get(dest);
     }
 
     /**
      * Adds a new node to the graph with the given node_data.
-     * adds to _graphNodes HashMap.
+     * adds to _graphNodes map.
      *
      * @param n node_data
      */
@@ -81,6 +89,9 @@ public class WDGraph_DS implements directed_weighted_graph {
     public void addNode(node_data n) {
         if (!this._graphNodes.containsKey(n.getKey())) {
             this._graphNodes.put(n.getKey(), n);
+            if (_listeners.length > 0) {
+                fire(GraphEvent.node(GraphEvent.Type.NODE_ADDED, n.getKey(), _mode_count));
+            }
         }
     }
 
@@ -103,13 +114,17 @@ public class WDGraph_DS implements directed_weighted_graph {
             if (this.getEdge(src, dest).getWeight() == w || src == dest) {
                 return;
             }
-        if (this.getEdge(src, dest) == null) {
+        edge_data old = this.getEdge(src, dest);
+        if (old == null) {
             this._edge_size++;
         }
 
-        tempDest.getConnectedNode().put(src, tempSrc);
-        tempSrc.getNeighborsDis().put(dest, new EdgeData(src, dest, w));
+        tempDest.connectedNode().put(src, tempSrc);
+        tempSrc.neighborsDis().put(dest, new EdgeData(src, dest, w));
         this._mode_count++;
+        if (_listeners.length > 0) {
+            fire(GraphEvent.edge(src, dest, old == null ? -1 : old.getWeight(), w, _mode_count));
+        }
     }
 
     /**
@@ -138,7 +153,7 @@ public class WDGraph_DS implements directed_weighted_graph {
         NodeData temp = (NodeData) this.getNode(node_id);
         if (temp == null)
             return null;
-        return temp.getNeighborsDis().values();
+        return temp.neighborsDis().values();
     }
 
     /**
@@ -155,18 +170,38 @@ public class WDGraph_DS implements directed_weighted_graph {
         if (temp == null) {
             return null;
         }
-        for (node_data i : temp.getConnectedNode().values()) {
-            NodeData tempI = (NodeData) i;
-            tempI.getNeighborsDis().remove(key);
-            tempI.getConnectedNode().remove(key);
+        List<GraphEvent> events = _listeners.length == 0 ? null : new ArrayList<>();
+        // the edges that start at this node
+        for (edge_data e : temp.neighborsDis().values()) {
+            NodeData dest = (NodeData) getNode(e.getDest());
+            dest.connectedNode().remove(key);
             this._edge_size--;
             this._mode_count++;
+            if (events != null) {
+                events.add(GraphEvent.edge(key, e.getDest(), e.getWeight(), -1, _mode_count));
+            }
+        }
+        // the edges that end at this node, a self loop was already removed
+        for (node_data i : temp.connectedNode().values()) {
+            if (i.getKey() == key) {
+                continue;
+            }
+            edge_data e = ((NodeData) i).neighborsDis().remove(key);
+            this._edge_size--;
+            this._mode_count++;
+            if (events != null) {
+                events.add(GraphEvent.edge(i.getKey(), key, e.getWeight(), -1, _mode_count));
+            }
         }
-        int t = getE(key).size();
-        _edge_size -= t;
-        _mode_count += t;
         _mode_count++;
         this._graphNodes.remove(key);
+        if (events != null) {
+            // the events are sent after the node is gone, so the listeners see a consistent graph
+            for (GraphEvent e : events) {
+                fire(e);
+            }
+            fire(GraphEvent.node(GraphEvent.Type.NODE_REMOVED, key, _mode_count));
+        }
         return temp;
     }
 
@@ -187,8 +222,12 @@ public class WDGraph_DS implements directed_weighted_graph {
         }
         this._mode_count++;
         this._edge_size--;
-        tempDest.getConnectedNode().remove(src);
-        return tempSrc.getNeighborsDis().remove(dest);
+        tempDest.connectedNode().remove(src);
+        edge_data ans = tempSrc.neighborsDis().remove(dest);
+        if (_listeners.length > 0) {
+            fire(GraphEvent.edge(src, dest, ans.getWeight(), -1, _mode_count));
+        }
+        return ans;
     }
 
     /**
@@ -222,12 +261,62 @@ public class WDGraph_DS implements directed_weighted_graph {
         return this._mode_count;
     }
 
+    /**
+     * Adds a listener that is told about every change of this graph, after it was made.
+     *
+     * @param l GraphListener
+     */
+    public void addListener(GraphListener l) {
+        GraphListener[] ls = Arrays.copyOf(_listeners, _listeners.length + 1);
+        ls[_listeners.length] = l;
+        _listeners = ls;
+    }
+
+    /**
+     * Removes a listener that was added by addListener.
+     *
+     * @param l GraphListener
+     */
+    public void removeListener(GraphListener l) {
+        for (int i = 0; i < _listeners.length; i++) {
+            if (_listeners[i] == l) {
+                GraphListener[] ls = new GraphListener[_listeners.length - 1];
+                System.arraycopy(_listeners, 0, ls, 0, i);
+                System.arraycopy(_listeners, i + 1, ls, i, ls.length - i);
+                _listeners = ls;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends the event to all the listeners.
+     *
+     * @param e GraphEvent
+     */
+    private void fire(GraphEvent e) {
+        for (GraphListener l : _listeners) {
+            l.graphChanged(e);
+        }
+    }
+
+    /**
+     * Freezes the current state of this graph into an immutable {@link WDGraph_CSR} snapshot.
+     * later changes to this graph are not seen by the snapshot.
+     *
+     * @return new {@link WDGraph_CSR}
+     */
+    public WDGraph_CSR freeze() {
+        return new WDGraph_CSR(this);
+    }
+
     @Override
     public String toString() {
         String edgesStr = "[";
-        for (node_data i : getV()) {
-            for (edge_data j : getE(i.getKey())) {
-                edgesStr += j + ", ";
+        for (int i : _graphNodes.sortedKeys()) {
+            IntObjectMap<edge_data> edges = ((NodeData) _graphNodes.get(i)).neighborsDis();
+            for (int j : edges.sortedKeys()) {
+                edgesStr += edges.get(j) + ", ";
             }
         }
         return "WDGraph_DS{" +
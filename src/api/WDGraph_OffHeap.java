@@ -0,0 +1,891 @@
+package api;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class represents a weighted and directional graph that keeps its nodes and edges outside the Java heap,
+ * implements directed_weighted_graph interface.
+ * The node records and the edge records are stored in {@link OffHeapRecords} (direct buffers),
+ * every node keeps a doubly linked list of its outgoing edges and a doubly linked list of its incoming edges,
+ * so connect, removeEdge and removeNode runs in the same time as in {@link WDGraph_DS}.
+ * The key of a node and the pair (src, dest) of an edge are found by two open addressing hash tables
+ * that are also stored off heap, so getNode and getEdge runs in O(1).
+ * Only the info strings (that are usually empty) are kept on the heap.
+ * <p>
+ * getNode, getE and getEdge returns light views over the records, not retained objects:
+ * a view reads and writes the off heap record, and is valid until its node or edge is removed.
+ * addNode copies the given node_data into a new record.
+ * removeNode and removeEdge returns detached copies of the removed node and edge.
+ */
+public class WDGraph_OffHeap implements directed_weighted_graph {
+
+    // node record: key, tag, x, y, z, weight, out head, in head, out degree, flags.
+    private static final int N_KEY = 0, N_TAG = 4, N_X = 8, N_Y = 16, N_Z = 24, N_WEIGHT = 32,
+            N_OUT = 40, N_IN = 44, N_DEGREE = 48, N_FLAGS = 52, NODE_SIZE = 56;
+    // edge record: src slot, dest slot, weight, out list links, in list links, tag, flags.
+    private static final int E_SRC = 0, E_DEST = 4, E_WEIGHT = 8, E_NEXT_OUT = 16, E_PREV_OUT = 20,
+            E_NEXT_IN = 24, E_PREV_IN = 28, E_TAG = 32, E_FLAGS = 36, EDGE_SIZE = 40;
+    // node index entry: key, node slot + 1. edge index entry: src slot, dest slot, edge slot + 1.
+    private static final int I_KEY = 0, I_NODE = 4, NODE_INDEX_SIZE = 8;
+    private static final int I_SRC = 0, I_DEST = 4, I_EDGE = 8, EDGE_INDEX_SIZE = 12;
+
+    // an index has at most 2^31 entries, so the probe position and the mask are non negative ints.
+    static final int MAX_INDEX_BITS = 31;
+
+    private static final int LIVE = 1, HAS_LOCATION = 2;
+    private static final int NONE = -1;
+
+    private final OffHeapRecords _nodes;
+    private final OffHeapRecords _edges;
+    private OffHeapRecords _nodeIndex;
+    private OffHeapRecords _edgeIndex;
+    private int _nodeIndexBits;
+    private int _edgeIndexBits;
+    private final int _maxIndexBits;
+
+    private final IntObjectMap<String> _nodeInfo;
+    private final IntObjectMap<String> _edgeInfo;
+
+    private int _nodeHigh, _edgeHigh;
+    private int _freeNode, _freeEdge;
+    private int _node_size;
+    private int _edge_size;
+    private int _mode_count;
+
+    private final Collection<node_data> _nodesView;
+
+    /**
+     * Default constructor
+     */
+    public WDGraph_OffHeap() {
+        this(4, MAX_INDEX_BITS);
+    }
+
+    /**
+     * Constructor with the sizes of the index tables (used by the tests to reach the largest size).
+     *
+     * @param indexBits    the initial index tables have 2^indexBits entries
+     * @param maxIndexBits the index tables grow up to 2^maxIndexBits entries, at most MAX_INDEX_BITS
+     */
+    WDGraph_OffHeap(int indexBits, int maxIndexBits) {
+        if (indexBits < 1 || indexBits > maxIndexBits || maxIndexBits > MAX_INDEX_BITS) {
+            throw new IllegalArgumentException("bad index bits: " + indexBits + ", " + maxIndexBits);
+        }
+        _maxIndexBits = maxIndexBits;
+        _nodes = new OffHeapRecords(NODE_SIZE);
+        _edges = new OffHeapRecords(EDGE_SIZE);
+        _nodeIndexBits = indexBits;
+        _edgeIndexBits = indexBits;
+        _nodeIndex = newIndex(NODE_INDEX_SIZE, _nodeIndexBits);
+        _edgeIndex = newIndex(EDGE_INDEX_SIZE, _edgeIndexBits);
+        _nodeInfo = new IntObjectMap<>();
+        _edgeInfo = new IntObjectMap<>();
+        _freeNode = NONE;
+        _freeEdge = NONE;
+        _nodesView = new NodesView();
+    }
+
+    /**
+     * Copy constructor
+     * get directed_weighted_graph g as param and copies it off heap.
+     *
+     * @param g directed_weighted_graph
+     */
+    public WDGraph_OffHeap(directed_weighted_graph g) {
+        this();
+        for (node_data i : g.getV()) {
+            addNode(i);
+        }
+        for (node_data i : g.getV()) {
+            for (edge_data j : g.getE(i.getKey())) {
+                connect(j.getSrc(), j.getDest(), j.getWeight());
+            }
+        }
+    }
+
+    private static OffHeapRecords newIndex(int recordSize, int bits) {
+        OffHeapRecords index = new OffHeapRecords(recordSize);
+        index.ensure((1L << bits) - 1);
+        return index;
+    }
+
+    ////////////////////// Index tables /////////////////////
+
+    private static int nodeHash(int key, int bits) {
+        return (key * 0x9E3779B9) >>> (32 - bits);
+    }
+
+    private static int edgeHash(int src, int dest, int bits) {
+        long h = (((long) src << 32) | (dest & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> (64 - bits));
+    }
+
+    /**
+     * Returns the node slot of the given key, NONE if none.
+     */
+    private int slotOf(int key) {
+        int mask = (1 << _nodeIndexBits) - 1;
+        int i = nodeHash(key, _nodeIndexBits);
+        int node;
+        while ((node = _nodeIndex.getInt(i, I_NODE)) != 0) {
+            if (_nodeIndex.getInt(i, I_KEY) == key) {
+                return node - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns true iff an index of 2^bits entries with size entries must grow before one more is added.
+     * it grows at load 1/2 up to 2^_maxIndexBits entries, then it fills up to one free entry
+     * (the probes stop at a free entry), and one more entry throws IllegalStateException.
+     */
+    private boolean grow(int size, int bits) {
+        long capacity = 1L << bits;
+        if (size + 1L <= capacity / 2) {
+            return false;
+        }
+        if (bits < _maxIndexBits) {
+            return true;
+        }
+        if (size + 1L >= capacity) {
+            throw new IllegalStateException("the index is full: " + size + " entries");
+        }
+        return false;
+    }
+
+    private void indexNode(int key, int slot) {
+        if (grow(_node_size, _nodeIndexBits)) {
+            OffHeapRecords old = _nodeIndex;
+            long oldSize = 1L << _nodeIndexBits;
+            _nodeIndex = newIndex(NODE_INDEX_SIZE, ++_nodeIndexBits);
+            for (long i = 0; i < oldSize; i++) {
+                int node = old.getInt(i, I_NODE);
+                if (node != 0) {
+                    insertNode(old.getInt(i, I_KEY), node);
+                }
+            }
+        }
+        insertNode(key, slot + 1);
+    }
+
+    private void insertNode(int key, int nodePlusOne) {
+        int mask = (1 << _nodeIndexBits) - 1;
+        int i = nodeHash(key, _nodeIndexBits);
+        while (_nodeIndex.getInt(i, I_NODE) != 0) {
+            i = (i + 1) & mask;
+        }
+        _nodeIndex.putInt(i, I_KEY, key);
+        _nodeIndex.putInt(i, I_NODE, nodePlusOne);
+    }
+
+    private void unindexNode(int key) {
+        int mask = (1 << _nodeIndexBits) - 1;
+        int i = nodeHash(key, _nodeIndexBits);
+        while (_nodeIndex.getInt(i, I_KEY) != key || _nodeIndex.getInt(i, I_NODE) == 0) {
+            i = (i + 1) & mask;
+        }
+        // backward shift deletion, see IntObjectMap.remove
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (_nodeIndex.getInt(j, I_NODE) != 0) {
+            int home = nodeHash(_nodeIndex.getInt(j, I_KEY), _nodeIndexBits);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                _nodeIndex.putInt(hole, I_KEY, _nodeIndex.getInt(j, I_KEY));
+                _nodeIndex.putInt(hole, I_NODE, _nodeIndex.getInt(j, I_NODE));
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        _nodeIndex.putInt(hole, I_NODE, 0);
+    }
+
+    /**
+     * Returns the edge slot of the edge between the given node slots, NONE if none.
+     */
+    private int edgeOf(int src, int dest) {
+        int mask = (1 << _edgeIndexBits) - 1;
+        int i = edgeHash(src, dest, _edgeIndexBits);
+        int edge;
+        while ((edge = _edgeIndex.getInt(i, I_EDGE)) != 0) {
+            if (_edgeIndex.getInt(i, I_SRC) == src && _edgeIndex.getInt(i, I_DEST) == dest) {
+                return edge - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private void indexEdge(int src, int dest, int slot) {
+        if (grow(_edge_size, _edgeIndexBits)) {
+            OffHeapRecords old = _edgeIndex;
+            long oldSize = 1L << _edgeIndexBits;
+            _edgeIndex = newIndex(EDGE_INDEX_SIZE, ++_edgeIndexBits);
+            for (long i = 0; i < oldSize; i++) {
+                int edge = old.getInt(i, I_EDGE);
+                if (edge != 0) {
+                    insertEdge(old.getInt(i, I_SRC), old.getInt(i, I_DEST), edge);
+                }
+            }
+        }
+        insertEdge(src, dest, slot + 1);
+    }
+
+    private void insertEdge(int src, int dest, int edgePlusOne) {
+        int mask = (1 << _edgeIndexBits) - 1;
+        int i = edgeHash(src, dest, _edgeIndexBits);
+        while (_edgeIndex.getInt(i, I_EDGE) != 0) {
+            i = (i + 1) & mask;
+        }
+        _edgeIndex.putInt(i, I_SRC, src);
+        _edgeIndex.putInt(i, I_DEST, dest);
+        _edgeIndex.putInt(i, I_EDGE, edgePlusOne);
+    }
+
+    private void unindexEdge(int src, int dest) {
+        int mask = (1 << _edgeIndexBits) - 1;
+        int i = edgeHash(src, dest, _edgeIndexBits);
+        while (_edgeIndex.getInt(i, I_EDGE) == 0
+                || _edgeIndex.getInt(i, I_SRC) != src || _edgeIndex.getInt(i, I_DEST) != dest) {
+            i = (i + 1) & mask;
+        }
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (_edgeIndex.getInt(j, I_EDGE) != 0) {
+            int home = edgeHash(_edgeIndex.getInt(j, I_SRC), _edgeIndex.getInt(j, I_DEST), _edgeIndexBits);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                _edgeIndex.putInt(hole, I_SRC, _edgeIndex.getInt(j, I_SRC));
+                _edgeIndex.putInt(hole, I_DEST, _edgeIndex.getInt(j, I_DEST));
+                _edgeIndex.putInt(hole, I_EDGE, _edgeIndex.getInt(j, I_EDGE));
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        _edgeIndex.putInt(hole, I_EDGE, 0);
+    }
+
+    ////////////////////// Records /////////////////////
+
+    private int allocNode() {
+        if (_freeNode != NONE) {
+            int slot = _freeNode;
+            _freeNode = _nodes.getInt(slot, N_OUT);
+            return slot;
+        }
+        _nodes.ensure(_nodeHigh);
+        return _nodeHigh++;
+    }
+
+    private int allocEdge() {
+        if (_freeEdge != NONE) {
+            int slot = _freeEdge;
+            _freeEdge = _edges.getInt(slot, E_NEXT_OUT);
+            return slot;
+        }
+        _edges.ensure(_edgeHigh);
+        return _edgeHigh++;
+    }
+
+    private boolean isLive(int slot) {
+        return (_nodes.getInt(slot, N_FLAGS) & LIVE) != 0;
+    }
+
+    /**
+     * Unlinks the edge from the lists of its nodes, removes it from the index and frees its record.
+     */
+    private void unlinkEdge(int e) {
+        int src = _edges.getInt(e, E_SRC);
+        int dest = _edges.getInt(e, E_DEST);
+        int next = _edges.getInt(e, E_NEXT_OUT);
+        int prev = _edges.getInt(e, E_PREV_OUT);
+        if (prev == NONE) _nodes.putInt(src, N_OUT, next);
+        else _edges.putInt(prev, E_NEXT_OUT, next);
+        if (next != NONE) _edges.putInt(next, E_PREV_OUT, prev);
+        _nodes.putInt(src, N_DEGREE, _nodes.getInt(src, N_DEGREE) - 1);
+
+        next = _edges.getInt(e, E_NEXT_IN);
+        prev = _edges.getInt(e, E_PREV_IN);
+        if (prev == NONE) _nodes.putInt(dest, N_IN, next);
+        else _edges.putInt(prev, E_NEXT_IN, next);
+        if (next != NONE) _edges.putInt(next, E_PREV_IN, prev);
+
+        unindexEdge(src, dest);
+        _edgeInfo.remove(e);
+        _edges.putInt(e, E_FLAGS, 0);
+        _edges.putInt(e, E_NEXT_OUT, _freeEdge);
+        _freeEdge = e;
+        _edge_size--;
+        _mode_count++;
+    }
+
+    ////////////////////// directed_weighted_graph /////////////////////
+
+    /**
+     * Returns a view of the node with the given key.
+     *
+     * @param key the node_id
+     * @return the node_data by the node_id, null if none.
+     */
+    @Override
+    public node_data getNode(int key) {
+        int slot = slotOf(key);
+        return slot == NONE ? null : new NodeView(slot);
+    }
+
+    /**
+     * Returns a view of the edge (src,dest), null if none.
+     * this method runs in O(1) time.
+     *
+     * @param src  the node id of the source node.
+     * @param dest the node id of the destination node.
+     * @return edge_data
+     */
+    @Override
+    public edge_data getEdge(int src, int dest) {
+        int s = slotOf(src);
+        int d = slotOf(dest);
+        if (s == NONE || d == NONE) {
+            return null;
+        }
+        int e = edgeOf(s, d);
+        return e == NONE ? null : new EdgeView(e);
+    }
+
+    /**
+     * Adds a new node to the graph, the key, tag, weight, info and location of n are copied off heap.
+     *
+     * @param n node_data
+     */
+    @Override
+    public void addNode(node_data n) {
+        if (slotOf(n.getKey()) != NONE) {
+            return;
+        }
+        grow(_node_size, _nodeIndexBits); // throws before anything is changed if the index is full
+        int slot = allocNode();
+        _nodes.putInt(slot, N_KEY, n.getKey());
+        _nodes.putInt(slot, N_TAG, n.getTag());
+        _nodes.putDouble(slot, N_WEIGHT, n.getWeight());
+        _nodes.putInt(slot, N_OUT, NONE);
+        _nodes.putInt(slot, N_IN, NONE);
+        _nodes.putInt(slot, N_DEGREE, 0);
+        _nodes.putInt(slot, N_FLAGS, LIVE);
+        writeLocation(slot, n.getLocation());
+        if (n.getInfo() != null && !n.getInfo().isEmpty()) {
+            _nodeInfo.put(slot, n.getInfo());
+        }
+        indexNode(n.getKey(), slot);
+        _node_size++;
+    }
+
+    private void writeLocation(int slot, geo_location p) {
+        int flags = _nodes.getInt(slot, N_FLAGS);
+        if (p == null) {
+            _nodes.putInt(slot, N_FLAGS, flags & ~HAS_LOCATION);
+            return;
+        }
+        _nodes.putDouble(slot, N_X, p.x());
+        _nodes.putDouble(slot, N_Y, p.y());
+        _nodes.putDouble(slot, N_Z, p.z());
+        _nodes.putInt(slot, N_FLAGS, flags | HAS_LOCATION);
+    }
+
+    /**
+     * Connects an edge with weight w between node src to node dest.
+     * if the edge already exists its weight is updated in place.
+     *
+     * @param src  the source of the edge.
+     * @param dest the destination of the edge.
+     * @param w    positive weight representing the cost (aka time, price, etc) between src-->dest.
+     */
+    @Override
+    public void connect(int src, int dest, double w) {
+        int s = slotOf(src);
+        int d = slotOf(dest);
+        if (s == NONE || d == NONE) {
+            return;
+        }
+        int e = edgeOf(s, d);
+        if (e != NONE) {
+            if (_edges.getDouble(e, E_WEIGHT) == w || src == dest) {
+                return;
+            }
+            _edges.putDouble(e, E_WEIGHT, w);
+            _edges.putInt(e, E_TAG, 0);
+            _edgeInfo.remove(e);
+            _mode_count++;
+            return;
+        }
+        grow(_edge_size, _edgeIndexBits); // throws before anything is changed if the index is full
+        e = allocEdge();
+        _edges.putInt(e, E_SRC, s);
+        _edges.putInt(e, E_DEST, d);
+        _edges.putDouble(e, E_WEIGHT, w);
+        _edges.putInt(e, E_TAG, 0);
+        _edges.putInt(e, E_FLAGS, LIVE);
+
+        int head = _nodes.getInt(s, N_OUT);
+        _edges.putInt(e, E_NEXT_OUT, head);
+        _edges.putInt(e, E_PREV_OUT, NONE);
+        if (head != NONE) _edges.putInt(head, E_PREV_OUT, e);
+        _nodes.putInt(s, N_OUT, e);
+        _nodes.putInt(s, N_DEGREE, _nodes.getInt(s, N_DEGREE) + 1);
+
+        head = _nodes.getInt(d, N_IN);
+        _edges.putInt(e, E_NEXT_IN, head);
+        _edges.putInt(e, E_PREV_IN, NONE);
+        if (head != NONE) _edges.putInt(head, E_PREV_IN, e);
+        _nodes.putInt(d, N_IN, e);
+
+        indexEdge(s, d, e);
+        _edge_size++;
+        _mode_count++;
+    }
+
+    /**
+     * Returns a view of all the nodes in the graph.
+     * this method runs in O(1) time, iterating the view runs over all the node records.
+     *
+     * @return Collection<node_data>
+     */
+    @Override
+    public Collection<node_data> getV() {
+        return _nodesView;
+    }
+
+    /**
+     * Returns a view of the edges getting out of the given node.
+     * this method runs in O(1) time.
+     *
+     * @param node_id key
+     * @return Collection<edge_data>, null if none.
+     */
+    @Override
+    public Collection<edge_data> getE(int node_id) {
+        int s = slotOf(node_id);
+        return s == NONE ? null : new EdgesView(s);
+    }
+
+    /**
+     * Returns the nodes that have an edge to the node with the given key.
+     *
+     * @param key node id
+     * @return Collection<node_data>, null if none.
+     */
+    public Collection<node_data> getInNodes(int key) {
+        int d = slotOf(key);
+        if (d == NONE) {
+            return null;
+        }
+        ArrayList<node_data> ans = new ArrayList<>();
+        for (int e = _nodes.getInt(d, N_IN); e != NONE; e = _edges.getInt(e, E_NEXT_IN)) {
+            ans.add(new NodeView(_edges.getInt(e, E_SRC)));
+        }
+        return ans;
+    }
+
+    /**
+     * Deletes the node (with the given ID) from the graph -
+     * and removes all edges which starts or ends at this node.
+     * This method runs in O(k), k = degree(key).
+     *
+     * @param key node_id
+     * @return a detached copy of the removed node (null if none).
+     */
+    @Override
+    public node_data removeNode(int key) {
+        int slot = slotOf(key);
+        if (slot == NONE) {
+            return null;
+        }
+        node_data ans = new NodeData(new NodeView(slot));
+        while (_nodes.getInt(slot, N_OUT) != NONE) {
+            unlinkEdge(_nodes.getInt(slot, N_OUT));
+        }
+        while (_nodes.getInt(slot, N_IN) != NONE) {
+            unlinkEdge(_nodes.getInt(slot, N_IN));
+        }
+        unindexNode(key);
+        _nodeInfo.remove(slot);
+        _nodes.putInt(slot, N_FLAGS, 0);
+        _nodes.putInt(slot, N_OUT, _freeNode);
+        _freeNode = slot;
+        _node_size--;
+        _mode_count++;
+        return ans;
+    }
+
+    /**
+     * Deletes the edge from the graph,
+     * this method run in O(1) time.
+     *
+     * @param src  the source of the edge.
+     * @param dest the destination of the edge.
+     * @return a detached copy of the removed edge (null if none).
+     */
+    @Override
+    public edge_data removeEdge(int src, int dest) {
+        int s = slotOf(src);
+        int d = slotOf(dest);
+        if (s == NONE || d == NONE) {
+            return null;
+        }
+        int e = edgeOf(s, d);
+        if (e == NONE) {
+            return null;
+        }
+        edge_data ans = new DetachedEdge(new EdgeView(e));
+        unlinkEdge(e);
+        return ans;
+    }
+
+    @Override
+    public int nodeSize() {
+        return _node_size;
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edge_size;
+    }
+
+    @Override
+    public int getMC() {
+        return _mode_count;
+    }
+
+    @Override
+    public String toString() {
+        return "WDGraph_OffHeap{" +
+                "node_size=" + _node_size +
+                ", edge_size=" + _edge_size +
+                ", mode_count=" + _mode_count +
+                '}';
+    }
+
+    ////////////////////// Views /////////////////////
+
+    /**
+     * This inner class is a collection view over all the live node records.
+     */
+    private class NodesView extends AbstractCollection<node_data> {
+
+        @Override
+        public Iterator<node_data> iterator() {
+            return new Iterator<>() {
+                private int _next = advance(0);
+
+                private int advance(int from) {
+                    while (from < _nodeHigh && !isLive(from)) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return _next < _nodeHigh;
+                }
+
+                @Override
+                public node_data next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    node_data ans = new NodeView(_next);
+                    _next = advance(_next + 1);
+                    return ans;
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof node_data)) {
+                return false;
+            }
+            node_data n = (node_data) o;
+            return n.equals(getNode(n.getKey()));
+        }
+
+        @Override
+        public int size() {
+            return _node_size;
+        }
+    }
+
+    /**
+     * This inner class is a collection view over the outgoing edge list of one node.
+     */
+    private class EdgesView extends AbstractCollection<edge_data> {
+
+        private final int _slot;
+
+        EdgesView(int slot) {
+            _slot = slot;
+        }
+
+        @Override
+        public Iterator<edge_data> iterator() {
+            return new Iterator<>() {
+                private int _next = _nodes.getInt(_slot, N_OUT);
+
+                @Override
+                public boolean hasNext() {
+                    return _next != NONE;
+                }
+
+                @Override
+                public edge_data next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    edge_data ans = new EdgeView(_next);
+                    _next = _edges.getInt(_next, E_NEXT_OUT);
+                    return ans;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return isLive(_slot) ? _nodes.getInt(_slot, N_DEGREE) : 0;
+        }
+    }
+
+    /**
+     * This inner class is a light view of a node record.
+     * all the getters and setters read and write the off heap record.
+     */
+    private class NodeView implements node_data {
+
+        private final int _slot;
+
+        NodeView(int slot) {
+            _slot = slot;
+        }
+
+        @Override
+        public int getKey() {
+            return _nodes.getInt(_slot, N_KEY);
+        }
+
+        @Override
+        public geo_location getLocation() {
+            if ((_nodes.getInt(_slot, N_FLAGS) & HAS_LOCATION) == 0) {
+                return null;
+            }
+            return new Geo_locationImpl(_nodes.getDouble(_slot, N_X),
+                    _nodes.getDouble(_slot, N_Y), _nodes.getDouble(_slot, N_Z));
+        }
+
+        @Override
+        public void setLocation(geo_location p) {
+            writeLocation(_slot, p);
+        }
+
+        @Override
+        public double getWeight() {
+            return _nodes.getDouble(_slot, N_WEIGHT);
+        }
+
+        @Override
+        public void setWeight(double w) {
+            _nodes.putDouble(_slot, N_WEIGHT, w);
+        }
+
+        @Override
+        public String getInfo() {
+            String info = _nodeInfo.get(_slot);
+            return info == null ? "" : info;
+        }
+
+        @Override
+        public void setInfo(String s) {
+            if (s == null || s.isEmpty()) {
+                _nodeInfo.remove(_slot);
+            } else {
+                _nodeInfo.put(_slot, s);
+            }
+        }
+
+        @Override
+        public int getTag() {
+            return _nodes.getInt(_slot, N_TAG);
+        }
+
+        @Override
+        public void setTag(int t) {
+            _nodes.putInt(_slot, N_TAG, t);
+        }
+
+        /**
+         * Equal method. return true iff o is a view of the same record in the same graph.
+         * @param o {@link Objects}
+         * @return true iff o is equal to this.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            NodeView that = (NodeView) o;
+            return _slot == that._slot && graph() == that.graph();
+        }
+
+        private WDGraph_OffHeap graph() {
+            return WDGraph_OffHeap.this;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getKey());
+        }
+
+        @Override
+        public String toString() {
+            return "(" + getKey() + ")";
+        }
+    }
+
+    /**
+     * This inner class is a light view of an edge record.
+     */
+    private class EdgeView implements edge_data {
+
+        private final int _slot;
+
+        EdgeView(int slot) {
+            _slot = slot;
+        }
+
+        @Override
+        public int getSrc() {
+            return _nodes.getInt(_edges.getInt(_slot, E_SRC), N_KEY);
+        }
+
+        @Override
+        public int getDest() {
+            return _nodes.getInt(_edges.getInt(_slot, E_DEST), N_KEY);
+        }
+
+        @Override
+        public double getWeight() {
+            return _edges.getDouble(_slot, E_WEIGHT);
+        }
+
+        @Override
+        public String getInfo() {
+            String info = _edgeInfo.get(_slot);
+            return info == null ? "" : info;
+        }
+
+        @Override
+        public void setInfo(String s) {
+            if (s == null || s.isEmpty()) {
+                _edgeInfo.remove(_slot);
+            } else {
+                _edgeInfo.put(_slot, s);
+            }
+        }
+
+        @Override
+        public int getTag() {
+            return _edges.getInt(_slot, E_TAG);
+        }
+
+        @Override
+        public void setTag(int t) {
+            _edges.putInt(_slot, E_TAG, t);
+        }
+
+        @Override
+        public String toString() {
+            return "(" + getSrc() + " -> " + getDest() + "): weight=" + getWeight() + '}';
+        }
+
+        /**
+         * Equal method. returns true iff o is an edge_data with the same src, dest and weight.
+         * @param o {@link Objects}
+         * @return true iff o and this are equal.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof edge_data)) return false;
+            edge_data that = (edge_data) o;
+            return getSrc() == that.getSrc() &&
+                    getDest() == that.getDest() &&
+                    Double.compare(getWeight(), that.getWeight()) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getSrc(), getDest(), getWeight());
+        }
+    }
+
+    /**
+     * This inner class is an on heap copy of a removed edge.
+     */
+    private static class DetachedEdge implements edge_data {
+
+        private final int _src, _dest;
+        private final double _weight;
+        private int _tag;
+        private String _info;
+
+        DetachedEdge(edge_data e) {
+            _src = e.getSrc();
+            _dest = e.getDest();
+            _weight = e.getWeight();
+            _tag = e.getTag();
+            _info = e.getInfo();
+        }
+
+        @Override
+        public int getSrc() {
+            return _src;
+        }
+
+        @Override
+        public int getDest() {
+            return _dest;
+        }
+
+        @Override
+        public double getWeight() {
+            return _weight;
+        }
+
+        @Override
+        public String getInfo() {
+            return _info;
+        }
+
+        @Override
+        public void setInfo(String s) {
+            _info = s;
+        }
+
+        @Override
+        public int getTag() {
+            return _tag;
+        }
+
+        @Override
+        public void setTag(int t) {
+            _tag = t;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + _src + " -> " + _dest + "): weight=" + _weight + '}';
+        }
+    }
+}
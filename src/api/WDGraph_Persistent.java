@@ -0,0 +1,402 @@
+package api;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * This class represent a weighted and directional graph whose copies share their structure,
+ * implements directed_weighted_graph interface.
+ * The nodes are kept in a {@link PersistentIntMap} by their key, and every node keeps its out edges and in nodes
+ * in persistent maps too. A change never modifies a map, it replaces the path from the root to the changed entry,
+ * so {@link #copy()} only copies the root (O(1) time), and after a copy every change of this graph
+ * or of the copy costs O(log n) new small arrays, the rest is shared.
+ * This fits many short what-if changes of one big graph, e.g. a simulation that starts from a copy every time.
+ * <p>
+ * Only the structure is copied on write: the node_data objects (with their tag, info and location)
+ * and the tag and info of the edges are shared by a graph and its copies, {@link #deepCopy()} makes new ones.
+ * The class is not thread safe, but a copy can be used by another thread while this graph is changed.
+ */
+public class WDGraph_Persistent implements directed_weighted_graph {
+
+    private PersistentIntMap<Vertex> _vertices;
+    private int _edge_size;
+    private int _mode_count;
+
+    /**
+     * Default constructor
+     */
+    public WDGraph_Persistent() {
+        _vertices = PersistentIntMap.empty();
+    }
+
+    /**
+     * Copy constructor
+     * get directed_weighted_graph g as param and compute a deep copy of g,
+     * if g is a {@link WDGraph_Persistent} the structure is shared (see {@link #copy()}).
+     *
+     * @param g directed_weighted_graph
+     */
+    public WDGraph_Persistent(directed_weighted_graph g) {
+        this();
+        if (g instanceof WDGraph_Persistent) {
+            WDGraph_Persistent p = (WDGraph_Persistent) g;
+            _vertices = p._vertices;
+            _edge_size = p._edge_size;
+            _mode_count = p._mode_count;
+            return;
+        }
+        addAll(g);
+    }
+
+    private void addAll(directed_weighted_graph g) {
+        for (node_data i : g.getV()) {
+            addNode(new NodeData(i));
+        }
+        for (node_data i : g.getV()) {
+            for (edge_data j : g.getE(i.getKey())) {
+                connect(j.getSrc(), j.getDest(), j.getWeight());
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this graph that shares all the structure with it,
+     * later changes of one of them are not seen by the other.
+     * this method runs in O(1) time.
+     *
+     * @return new {@link WDGraph_Persistent}
+     */
+    public WDGraph_Persistent copy() {
+        return new WDGraph_Persistent(this);
+    }
+
+    /**
+     * Returns a deep copy of this graph: new nodes and edges, nothing is shared with this graph.
+     * this method runs in O((V+E) log V) time.
+     *
+     * @return new {@link WDGraph_Persistent}
+     */
+    public WDGraph_Persistent deepCopy() {
+        WDGraph_Persistent ans = new WDGraph_Persistent();
+        ans.addAll(this);
+        return ans;
+    }
+
+    /**
+     * Returns the node_data by the node_id.
+     * this method runs in O(log n) time.
+     *
+     * @param key the node_id
+     * @return the node_data by the node_id, null if none.
+     */
+    @Override
+    public node_data getNode(int key) {
+        Vertex v = _vertices.get(key);
+        return v == null ? null : v._node;
+    }
+
+    /**
+     * Returns the data of the edge (src,dest), null if none.
+     *
+     * @param src  the node id of the source node.
+     * @param dest the node id of the destination node.
+     * @return edge_data
+     */
+    @Override
+    public edge_data getEdge(int src, int dest) {
+        Vertex v = _vertices.get(src);
+        return v == null ? null : v._out.get(dest);
+    }
+
+    /**
+     * Adds a new node to the graph with the given node_data.
+     *
+     * @param n node_data
+     */
+    @Override
+    public void addNode(node_data n) {
+        if (!_vertices.containsKey(n.getKey())) {
+            _vertices = _vertices.put(n.getKey(), new Vertex(n, PersistentIntMap.empty(), PersistentIntMap.empty()));
+        }
+    }
+
+    /**
+     * Connects an edge with weight w between node src to node dest, a new edge replaces the old one.
+     *
+     * @param src  the source of the edge.
+     * @param dest the destination of the edge.
+     * @param w    positive weight representing the cost (aka time, price, etc) between src-->dest.
+     */
+    @Override
+    public void connect(int src, int dest, double w) {
+        Vertex s = _vertices.get(src);
+        Vertex d = _vertices.get(dest);
+        if (s == null || d == null) {
+            return;
+        }
+        edge_data old = s._out.get(dest);
+        if (old != null && (old.getWeight() == w || src == dest)) {
+            return;
+        }
+        if (old == null) {
+            _edge_size++;
+        }
+        s = s.withOut(s._out.put(dest, new EdgeData(src, dest, w)));
+        if (src == dest) {
+            s = s.withIn(s._in.put(src, s._node));
+            _vertices = _vertices.put(src, s);
+        } else {
+            _vertices = _vertices.put(src, s).put(dest, d.withIn(d._in.put(src, s._node)));
+        }
+        _mode_count++;
+    }
+
+    /**
+     * Returns the nodes of the graph, the collection is a snapshot and is not changed by later changes.
+     * this method runs in O(1) time.
+     *
+     * @return Collection<node_data>
+     */
+    @Override
+    public Collection<node_data> getV() {
+        PersistentIntMap<Vertex> vertices = _vertices;
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<node_data> iterator() {
+                Iterator<Vertex> it = vertices.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public node_data next() {
+                        return it.next()._node;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return vertices.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the edges getting out of the given node, the collection is a snapshot.
+     * this method runs in O(log n) time.
+     *
+     * @param node_id key
+     * @return Collection<edge_data>
+     */
+    @Override
+    public Collection<edge_data> getE(int node_id) {
+        Vertex v = _vertices.get(node_id);
+        return v == null ? null : v._out.values();
+    }
+
+    /**
+     * Returns the nodes that have an edge to the node with the given key.
+     *
+     * @param key node id
+     * @return Collection<node_data>, null if none.
+     */
+    public Collection<node_data> getInNodes(int key) {
+        Vertex v = _vertices.get(key);
+        return v == null ? null : v._in.values();
+    }
+
+    /**
+     * Deletes the node (with the given ID) from the graph -
+     * and removes all edges which starts or ends at this node.
+     * This method runs in O(k log n), k = degree(key).
+     *
+     * @param key node_id
+     * @return the data of the removed node (null if none).
+     */
+    @Override
+    public node_data removeNode(int key) {
+        Vertex v = _vertices.get(key);
+        if (v == null) {
+            return null;
+        }
+        PersistentIntMap<Vertex> vertices = _vertices.remove(key);
+        int t = 0;
+        for (edge_data e : v._out) {
+            t++;
+            Vertex d = vertices.get(e.getDest());
+            if (d != null) {
+                vertices = vertices.put(d._node.getKey(), d.withIn(d._in.remove(key)));
+            }
+        }
+        for (node_data i : v._in) {
+            Vertex s = vertices.get(i.getKey());
+            if (s != null) {
+                t++;
+                vertices = vertices.put(i.getKey(), s.withOut(s._out.remove(key)));
+            }
+        }
+        _vertices = vertices;
+        _edge_size -= t;
+        _mode_count += t + 1;
+        return v._node;
+    }
+
+    /**
+     * Deletes the edge from the graph.
+     *
+     * @param src  the source of the edge.
+     * @param dest the destination of the edge.
+     * @return the data of the removed edge (null if none).
+     */
+    @Override
+    public edge_data removeEdge(int src, int dest) {
+        Vertex s = _vertices.get(src);
+        Vertex d = _vertices.get(dest);
+        if (s == null || d == null) {
+            return null;
+        }
+        edge_data ans = s._out.get(dest);
+        if (ans == null) {
+            return null;
+        }
+        s = s.withOut(s._out.remove(dest));
+        if (src == dest) {
+            _vertices = _vertices.put(src, s.withIn(s._in.remove(src)));
+        } else {
+            _vertices = _vertices.put(src, s).put(dest, d.withIn(d._in.remove(src)));
+        }
+        _edge_size--;
+        _mode_count++;
+        return ans;
+    }
+
+    @Override
+    public int nodeSize() {
+        return _vertices.size();
+    }
+
+    @Override
+    public int edgeSize() {
+        return _edge_size;
+    }
+
+    @Override
+    public int getMC() {
+        return _mode_count;
+    }
+
+    @Override
+    public String toString() {
+        return "WDGraph_Persistent{" +
+                "node_size=" + nodeSize() +
+                ", edge_size=" + edgeSize() +
+                ", mode_count=" + getMC() +
+                '}';
+    }
+
+    /**
+     * This inner class holds a node and its adjacency, it is immutable.
+     * _out - the edges going out of the node, by the destination key.
+     * _in - the nodes that have an edge to this node, by their key.
+     */
+    private static final class Vertex {
+
+        private final node_data _node;
+        private final PersistentIntMap<edge_data> _out;
+        private final PersistentIntMap<node_data> _in;
+
+        Vertex(node_data node, PersistentIntMap<edge_data> out, PersistentIntMap<node_data> in) {
+            _node = node;
+            _out = out;
+            _in = in;
+        }
+
+        Vertex withOut(PersistentIntMap<edge_data> out) {
+            return new Vertex(_node, out, _in);
+        }
+
+        Vertex withIn(PersistentIntMap<node_data> in) {
+            return new Vertex(_node, _out, in);
+        }
+    }
+
+    /**
+     * This inner class represent a directional edge between 2 nodes in the graph.
+     * The weight can not be changed (connect replaces the edge).
+     */
+    private static class EdgeData implements edge_data {
+
+        private final int _src, _dest;
+        private final double _weight;
+        private int _tag;
+        private String _info;
+
+        EdgeData(int src, int dest, double weight) {
+            _src = src;
+            _dest = dest;
+            _weight = weight;
+            _tag = 0;
+            _info = "";
+        }
+
+        @Override
+        public int getSrc() {
+            return _src;
+        }
+
+        @Override
+        public int getDest() {
+            return _dest;
+        }
+
+        @Override
+        public double getWeight() {
+            return _weight;
+        }
+
+        @Override
+        public String getInfo() {
+            return _info;
+        }
+
+        @Override
+        public void setInfo(String s) {
+            _info = s;
+        }
+
+        @Override
+        public int getTag() {
+            return _tag;
+        }
+
+        @Override
+        public void setTag(int t) {
+            _tag = t;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + _src + " -> " + _dest + "): weight=" + _weight + '}';
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EdgeData edgeData = (EdgeData) o;
+            return _src == edgeData._src &&
+                    _dest == edgeData._dest &&
+                    Double.compare(edgeData._weight, _weight) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_src, _dest, _weight);
+        }
+    }
+}
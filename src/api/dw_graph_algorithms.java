@@ -7,6 +7,7 @@ import java.util.List;
  * 2. isConnected(); // strongly (all ordered pais connected)
  * 3. double shortestPathDist(int src, int dest);
  * 4. List<node_data> shortestPath(int src, int dest);
+ * 4.1 double[] shortestPathDist(int src, int[] targets); List<List<node_data>> shortestPaths(int src, int[] targets);
  * 5. Save(file); // JSON file
  * 6. Load(file); // JSON file
  *
@@ -54,6 +55,24 @@ public interface dw_graph_algorithms {
      * @return
      */
     public List<node_data> shortestPath(int src, int dest);
+    /**
+     * returns the length of the shortest path from src to each of the targets, by one search
+     * that stops when all the targets are reached.
+     * Note: if there is no path to a target --> its distance is -1
+     * @param src - start node
+     * @param targets - end (target) nodes
+     * @return array of distances, in the order of targets
+     */
+    public double[] shortestPathDist(int src, int[] targets);
+    /**
+     * returns the shortest path from src to each of the targets - as ordered Lists of nodes,
+     * by one search that stops when all the targets are reached.
+     * Note if there is no path to a target --> its path is null;
+     * @param src - start node
+     * @param targets - end (target) nodes
+     * @return list of paths, in the order of targets
+     */
+    public List<List<node_data>> shortestPaths(int src, int[] targets);
 
     /**
      * Saves this weighted (directed) graph to the given
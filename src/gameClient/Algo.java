@@ -2,9 +2,7 @@ package gameClient;
 
 import api.*;
 
-import java.util.Comparator;
-import java.util.List;
-import java.util.PriorityQueue;
+import java.util.*;
 
 /**
  * This class contains all the algorithms needed to manage the Pokemon game.
@@ -15,6 +13,7 @@ public class Algo {
 
     private static Arena _ar;
     private static directed_weighted_graph _graph;
+    private static WDGraph_Algo _ga;
     private static final double EPS = 0.000001;
 
     /**
@@ -69,18 +68,19 @@ public class Algo {
 
     /**
      * Place the agents in the start of the game, scatter the agents on the graph.
+     * the sources of the pokemons are ordered by their distance from node 0 (one search, see {@link WDGraph_Algo#nearestSources}),
+     * and the agents are spread evenly over this order.
      *
      * @param num_of_agents in the current game.
      * @param game          game_service
      */
     static void placeAgentsByDist(int num_of_agents, game_service game) {
-        dw_graph_algorithms ga = new WDGraph_Algo(_graph);
-        ga.shortestPathDist(0, 0);
+        VoronoiPartition cells = _ga.nearestSources(new int[]{0});
 
         PriorityQueue<node_data> pq = new PriorityQueue<>(new Comparator<>() {
             @Override
             public int compare(node_data o1, node_data o2) {
-                return Double.compare(o1.getWeight(), o2.getWeight());
+                return Double.compare(cells.getDist(o1.getKey()), cells.getDist(o2.getKey()));
             }
         });
 
@@ -103,15 +103,61 @@ public class Algo {
      * @param a an agent
      */
     synchronized static void createPath(Agent a) {
+        createPath(a, null);
+    }
+
+    /**
+     * Creates the current path of the giving agent, chooses the strategy of creating the path,
+     * and calling the mache function.
+     * if there is a free pokemon that is closer to a than to any other agent, a chooses only from them.
+     *
+     * @param a     an agent
+     * @param cells the nearest agent of every node (see {@link #nearestAgents}), null to choose from all the pokemons
+     */
+    synchronized static void createPath(Agent a, VoronoiPartition cells) {
+        cells = hasFreeInCell(a, cells) ? cells : null;
         if (_ar.getAgents().size() == _ar.getPokemons().size()) {
-            createPathByDistance(a);
+            createPathByDistance(a, cells);
         } else {
             if (a.get_speed() > 3) {
-                createPathByDistance(a);
+                createPathByDistance(a, cells);
             } else {
-                createPathByValDist(a);
+                createPathByValDist(a, cells);
+            }
+        }
+    }
+
+    /**
+     * Labels every node of the graph with the agent nearest to it, by one search from all the agents.
+     *
+     * @param agents the agents
+     * @return VoronoiPartition by the src nodes of the agents
+     */
+    static VoronoiPartition nearestAgents(List<Agent> agents) {
+        int[] sources = new int[agents.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = agents.get(i).getSrcNode();
+        }
+        return _ga.nearestSources(sources);
+    }
+
+    /**
+     * Returns true iff p is closer to a than to any other agent, or cells is null.
+     */
+    private static boolean inCell(Agent a, Pokemon p, VoronoiPartition cells) {
+        return cells == null || cells.getSource(p.get_edge().getSrc()) == a.getSrcNode();
+    }
+
+    private static boolean hasFreeInCell(Agent a, VoronoiPartition cells) {
+        if (cells == null) {
+            return false;
+        }
+        for (Pokemon p : _ar.getPokemons()) {
+            if (indexOfPok(_ar.get_pokemonsWithOwner(), p) == -1 && inCell(a, p, cells)) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -122,19 +168,41 @@ public class Algo {
      * @param a an agent
      */
     synchronized static void createPathByValDist(Agent a) {
-        dw_graph_algorithms ga = new WDGraph_Algo();
-        ga.init(_graph);
+        createPathByValDist(a, null);
+    }
 
-        ga.shortestPathDist(a.getSrcNode(), a.getSrcNode());
-        Pokemon min_pokemon = _ar.getPokemons().get(0);
-        double shortest_way = _graph.getNode(min_pokemon.get_edge().getSrc()).getWeight();
+    /**
+     * Create path for the giving agent.
+     * This method calculates the ratio of the distance to the value of each Pokemon,
+     * and returns the shortest path to the Pokemon that gives the best ratio.
+     *
+     * @param a     an agent
+     * @param cells the nearest agent of every node, null to choose from all the pokemons
+     */
+    synchronized static void createPathByValDist(Agent a, VoronoiPartition cells) {
+        List<Pokemon> pokemons = _ar.getPokemons();
+        int[] targets = new int[pokemons.size()];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = pokemons.get(i).get_edge().getSrc();
+        }
+        // one search from the agent gives the distances to all the pokemons and the path to the chosen one
+        ShortestPathTree tree = _ga.shortestPathTree(a.getSrcNode());
+        double[] dist = new double[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            dist[i] = tree.getDist(targets[i]);
+        }
+
+        int min_index = 0;
+        Pokemon min_pokemon = pokemons.get(0);
+        double shortest_way = dist[0];
         if (shortest_way == 0) {
             shortest_way = EPS;
         }
         double max_ValDivDist = min_pokemon.get_value() / shortest_way;
-        for (Pokemon p : _ar.getPokemons()) {
-            if (indexOfPok(_ar.get_pokemonsWithOwner(), p) == -1) {
-                double p_src_weight = _graph.getNode(p.get_edge().getSrc()).getWeight();
+        for (int i = 0; i < targets.length; i++) {
+            Pokemon p = pokemons.get(i);
+            if (indexOfPok(_ar.get_pokemonsWithOwner(), p) == -1 && inCell(a, p, cells)) {
+                double p_src_weight = dist[i];
                 if (p_src_weight == 0) {
                     p_src_weight = EPS;
                 }
@@ -142,10 +210,11 @@ public class Algo {
                 if (max_ValDivDist < temp) {
                     max_ValDivDist = temp;
                     min_pokemon = p;
+                    min_index = i;
                 }
             }
         }
-        List<node_data> path = ga.shortestPath(a.getSrcNode(), min_pokemon.get_edge().getSrc());
+        List<node_data> path = tree.getPath(targets[min_index]);
         path.add(_graph.getNode(min_pokemon.get_edge().getDest()));
         path.remove(0);
         a.set_path(path);
@@ -156,31 +225,42 @@ public class Algo {
 
     /**
      * Create path for the giving agent.
-     * This method calculates the shortest path (uses {@link WDGraph_Algo}) from a to all the Pokemons,
+     * This method looks up the distance from a to all the Pokemons in the all pairs table of {@link WDGraph_Algo},
      * and returns the shortest path to the shortest Pokemon.
      *
      * @param a an agent
      */
     synchronized static void createPathByDistance(Agent a) {
-        dw_graph_algorithms ga = new WDGraph_Algo();
-        ga.init(_graph);
+        createPathByDistance(a, null);
+    }
+
+    /**
+     * Create path for the giving agent.
+     * This method looks up the distance from a to all the Pokemons in the all pairs table of {@link WDGraph_Algo},
+     * and returns the shortest path to the shortest Pokemon.
+     *
+     * @param a     an agent
+     * @param cells the nearest agent of every node, null to choose from all the pokemons
+     */
+    synchronized static void createPathByDistance(Agent a, VoronoiPartition cells) {
+        AllPairsTable table = _ga.allPairs();
 
         Pokemon min_pokemon = _ar.getPokemons().get(0);
         int n = min_pokemon.get_edge().getSrc();
-        double shortest_way = ga.shortestPathDist(a.getSrcNode(), n);
+        double shortest_way = table.getDist(a.getSrcNode(), n);
 
         for (Pokemon p : _ar.getPokemons()) {
-            if (indexOfPok(_ar.get_pokemonsWithOwner(), p) == -1) {
+            if (indexOfPok(_ar.get_pokemonsWithOwner(), p) == -1 && inCell(a, p, cells)) {
                 edge_data pokemon_edge = p.get_edge();
                 int s = pokemon_edge.getSrc();
-                double dist_src = ga.shortestPathDist(a.getSrcNode(), s);
+                double dist_src = table.getDist(a.getSrcNode(), s);
                 if (dist_src < shortest_way) {
                     shortest_way = dist_src;
                     min_pokemon = p;
                 }
             }
         }
-        List<node_data> path = ga.shortestPath(a.getSrcNode(), min_pokemon.get_edge().getSrc());
+        List<node_data> path = table.getPath(a.getSrcNode(), min_pokemon.get_edge().getSrc());
         path.add(_graph.getNode(min_pokemon.get_edge().getDest()));
         path.remove(0);
         a.set_path(path);
@@ -252,5 +332,14 @@ public class Algo {
 
     public static void set_graph(directed_weighted_graph _graph) {
         Algo._graph = _graph;
+        Algo._ga = new WDGraph_Algo(_graph);
+    }
+
+    /**
+     * Computes the all pairs distances of the game graph before the game starts,
+     * so choosing a path during the game is table lookups.
+     */
+    static void initDistances() {
+        _ga.allPairs();
     }
 }
@@ -1,6 +1,7 @@
 package gameClient;
 
 import Server.Game_Server_Ex2;
+import api.VoronoiPartition;
 import api.directed_weighted_graph;
 import api.game_service;
 import com.google.gson.JsonParser;
@@ -64,11 +65,16 @@ public class Runner implements Runnable {
         while (_game.isRunning()) {
             long minSleepTime = Integer.MAX_VALUE;
             int next_dest = -1;
+            // the nearest agent of every node, computed once per move for all the agents that need a path
+            VoronoiPartition cells = null;
 
             for (Agent a : _ar.getAgents()) {
                 _ar.update(_game);
                 if (a.get_path().isEmpty()) {
-                    createPath(a);
+                    if (cells == null) {
+                        cells = nearestAgents(_ar.getAgents());
+                    }
+                    createPath(a, cells);
                 }
                 _ar.update(_game);
                 if (!a.isMoving()) {
@@ -143,6 +149,7 @@ public class Runner implements Runnable {
     private void initAlgo() {
         set_graph(_graph);
         set_ar(_ar);
+        initDistances();
     }
 
     // Getters & Setters:
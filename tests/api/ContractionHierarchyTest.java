@@ -0,0 +1,105 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    private static void assertPath(directed_weighted_graph g, int src, int dest, double dist, int[] path) {
+        if (dist == -1) {
+            assertNull(path);
+            return;
+        }
+        assertEquals(src, path[0]);
+        assertEquals(dest, path[path.length - 1]);
+        double sum = 0;
+        for (int j = 1; j < path.length; j++) {
+            sum += g.getEdge(path[j - 1], path[j]).getWeight();
+        }
+        assertEquals(dist, sum, 1e-9);
+    }
+
+    @Test
+    void sameAsDijkstra() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(1500, 6000, 12);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        ContractionHierarchy ch = ContractionHierarchy.build(graph);
+        assertEquals(1500, ch.nodeSize());
+        for (int src = 0; src < 1500; src += 97) {
+            ShortestPathTree spt = algo.shortestPathTree(src);
+            for (int dest = 0; dest < 1500; dest += 3) {
+                double d = spt.getDist(dest);
+                assertEquals(d, ch.shortestPathDist(src, dest), 1e-9);
+                assertPath(graph, src, dest, d, ch.shortestPathKeys(src, dest));
+            }
+        }
+        assertEquals(-1, ch.shortestPathDist(0, 5000));
+        assertArrayEquals(new int[]{7}, ch.shortestPathKeys(7, 7));
+    }
+
+    @Test
+    void searchMode() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(500, 2000, 2);
+        WDGraph_Algo plain = new WDGraph_Algo(graph);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        algo.setSearchMode(WDGraph_Algo.SearchMode.CONTRACTION_HIERARCHY);
+        for (int dest = 0; dest < 500; dest++) {
+            assertEquals(plain.shortestPathDist(9, dest), algo.shortestPathDist(9, dest), 1e-9);
+            assertPath(graph, 9, dest, plain.shortestPathDist(9, dest), algo.shortestPathKeys(9, dest));
+        }
+        ContractionHierarchy ch = algo.contractionHierarchy();
+        graph.connect(9, 400, 0.0001);
+        assertNotSame(ch, algo.contractionHierarchy());
+        assertEquals(0.0001, algo.shortestPathDist(9, 400), 1e-12);
+        assertFalse(algo.setContractionHierarchy(ch));
+    }
+
+    @Test
+    void saveLoad() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(300, 1200, 6);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        ContractionHierarchy ch = algo.contractionHierarchy();
+        String file = "ch_test.bin";
+        assertTrue(ch.save(file));
+        ContractionHierarchy loaded = ContractionHierarchy.load(file);
+        new File(file).delete();
+        assertNotNull(loaded);
+        assertEquals(ch.getMC(), loaded.getMC());
+        assertEquals(ch.shortcutSize(), loaded.shortcutSize());
+        for (int dest = 0; dest < 300; dest++) {
+            assertEquals(ch.shortestPathDist(4, dest), loaded.shortestPathDist(4, dest));
+            assertArrayEquals(ch.shortestPathKeys(4, dest), loaded.shortestPathKeys(4, dest));
+        }
+        assertTrue(new WDGraph_Algo(graph).setContractionHierarchy(loaded));
+    }
+
+    @Test
+    void loadChecksTheEdges() {
+        String a0 = System.getProperty("user.dir") + "/data/A0";
+        WDGraph_Algo algo = new WDGraph_Algo();
+        assertTrue(algo.load(a0));
+        String file = "ch_check_test.bin";
+        assertTrue(algo.contractionHierarchy().save(file));
+
+        // the same graph loaded again is accepted, whatever its Mode Count is
+        WDGraph_Algo same = new WDGraph_Algo();
+        assertTrue(same.load(a0));
+        assertNotNull(ContractionHierarchy.load(file, same.getGraph()));
+        assertTrue(same.setContractionHierarchy(ContractionHierarchy.load(file)));
+
+        // one weight changed, same nodes and number of edges
+        WDGraph_Algo changed = new WDGraph_Algo();
+        assertTrue(changed.load(a0));
+        changed.getGraph().connect(0, 1, 9.5);
+        assertNull(ContractionHierarchy.load(file, changed.getGraph()));
+        ContractionHierarchy loaded = ContractionHierarchy.load(file);
+        new File(file).delete();
+        assertFalse(loaded.isOf(changed.getGraph()));
+        assertFalse(changed.setContractionHierarchy(loaded));
+        changed.setSearchMode(WDGraph_Algo.SearchMode.CONTRACTION_HIERARCHY);
+        assertEquals(9.5, changed.shortestPathDist(0, 1), 1e-12);
+    }
+}
@@ -0,0 +1,43 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaSteppingTest {
+
+    @Test
+    void sameAsDijkstra() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(3000, 15000, 8);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        for (double delta : new double[]{0, 0.5, 5, 1000}) {
+            try (DeltaStepping ds = new DeltaStepping(delta, 4)) {
+                for (int src = 0; src < 3000; src += 500) {
+                    ShortestPathTree expected = algo.shortestPathTree(src);
+                    ShortestPathTree actual = algo.shortestPathTree(src, ds);
+                    assertEquals(src, actual.getSrc());
+                    for (int v = 0; v < 3000; v++) {
+                        assertEquals(expected.getDist(v), actual.getDist(v), 1e-9);
+                        int[] path = actual.getPathKeys(v);
+                        if (path == null) {
+                            assertEquals(-1, expected.getDist(v));
+                            continue;
+                        }
+                        double sum = 0;
+                        for (int j = 1; j < path.length; j++) {
+                            sum += graph.getEdge(path[j - 1], path[j]).getWeight();
+                        }
+                        assertEquals(actual.getDist(v), sum, 1e-9);
+                    }
+                }
+            }
+        }
+        assertNull(algo.shortestPathTree(5000, new DeltaStepping(0, 0)));
+    }
+
+    @Test
+    void badArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new DeltaStepping(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new DeltaStepping(1, -2));
+    }
+}
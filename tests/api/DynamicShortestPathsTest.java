@@ -0,0 +1,99 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicShortestPathsTest {
+
+    private static WDGraph_DS randomGraph(int n, int e, Random rnd) {
+        WDGraph_DS g = new WDGraph_DS();
+        for (int i = 0; i < n; i++) {
+            g.addNode(new NodeData(i));
+        }
+        for (int i = 0; i < e; i++) {
+            g.connect(rnd.nextInt(n), rnd.nextInt(n), 1 + rnd.nextInt(20));
+        }
+        return g;
+    }
+
+    private static void check(WDGraph_DS g, DynamicShortestPaths dsp) {
+        WDGraph_Algo ga = new WDGraph_Algo();
+        ga.init(g);
+        for (node_data v : g.getV()) {
+            double expected = g.getNode(dsp.getSrc()) == null ? -1 : ga.shortestPathDist(dsp.getSrc(), v.getKey());
+            assertEquals(expected, dsp.getDist(v.getKey()), 1e-9, "node " + v.getKey());
+            int[] path = dsp.getPathKeys(v.getKey());
+            if (expected == -1) {
+                assertNull(path);
+                continue;
+            }
+            double len = 0;
+            for (int i = 1; i < path.length; i++) {
+                len += g.getEdge(path[i - 1], path[i]).getWeight();
+            }
+            assertEquals(expected, len, 1e-9);
+        }
+    }
+
+    @Test
+    void randomUpdates() {
+        Random rnd = new Random(7);
+        int n = 60;
+        WDGraph_DS g = randomGraph(n, 180, rnd);
+        DynamicShortestPaths dsp = new DynamicShortestPaths(g, 0);
+        check(g, dsp);
+        for (int i = 0; i < 300; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            int op = rnd.nextInt(3);
+            if (op == 0) {
+                g.connect(a, b, 1 + rnd.nextInt(20));
+            } else if (op == 1) {
+                g.removeEdge(a, b);
+            } else {
+                // remove an edge of the tree, the interesting case
+                int[] path = dsp.getPathKeys(a);
+                if (path != null && path.length > 1) {
+                    int k = rnd.nextInt(path.length - 1);
+                    if (rnd.nextBoolean()) {
+                        g.removeEdge(path[k], path[k + 1]);
+                    } else {
+                        g.connect(path[k], path[k + 1], g.getEdge(path[k], path[k + 1]).getWeight() + 10);
+                    }
+                }
+            }
+            check(g, dsp);
+        }
+    }
+
+    @Test
+    void removeNodes() {
+        Random rnd = new Random(3);
+        int n = 40;
+        WDGraph_DS g = randomGraph(n, 150, rnd);
+        DynamicShortestPaths dsp = new DynamicShortestPaths(g, 0);
+        for (int i = 1; i < n; i += 4) {
+            g.removeNode(i);
+            check(g, dsp);
+        }
+        g.addNode(new NodeData(100));
+        g.connect(0, 100, 3);
+        assertEquals(3, dsp.getDist(100));
+        g.removeNode(0);
+        assertEquals(-1, dsp.getDist(100));
+        dsp.close();
+    }
+
+    @Test
+    void close() {
+        WDGraph_DS g = randomGraph(3, 0, new Random(1));
+        DynamicShortestPaths dsp = new DynamicShortestPaths(g, 0);
+        g.connect(0, 1, 2);
+        assertEquals(2, dsp.getDist(1));
+        dsp.close();
+        g.connect(1, 2, 2);
+        assertEquals(-1, dsp.getDist(2));
+    }
+}
@@ -0,0 +1,120 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBinaryTest {
+
+    @Test
+    void saveLoad() throws IOException {
+        String file = Files.createTempFile("graph", ".bin").toString();
+        for (int i = 0; i <= 5; i++) {
+            WDGraph_Algo ga = new WDGraph_Algo();
+            assertTrue(ga.load(System.getProperty("user.dir") + "/data/A" + i));
+            directed_weighted_graph g = ga.getGraph();
+            g.getNode(1).setLocation(null);
+            assertTrue(ga.saveBinary(file));
+
+            WDGraph_Algo loaded = new WDGraph_Algo();
+            assertTrue(loaded.load(file));
+            directed_weighted_graph b = loaded.getGraph();
+            assertTrue(b instanceof WDGraph_CSR);
+            assertEquals(g.nodeSize(), b.nodeSize());
+            assertEquals(g.edgeSize(), b.edgeSize());
+            for (node_data v : g.getV()) {
+                assertEquals(v.getLocation(), b.getNode(v.getKey()).getLocation());
+                for (edge_data e : g.getE(v.getKey())) {
+                    assertEquals(e.getWeight(), b.getEdge(e.getSrc(), e.getDest()).getWeight());
+                }
+            }
+            assertEquals(ga.shortestPathDist(0, g.nodeSize() - 1), loaded.shortestPathDist(0, g.nodeSize() - 1));
+        }
+        Files.delete(Paths.get(file));
+    }
+
+    @Test
+    void corrupt() throws IOException {
+        directed_weighted_graph g = new WDGraph_DS();
+        for (int i = 0; i < 3; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(0, 1, 1);
+        g.connect(0, 2, 1);
+        String file = Files.createTempFile("graph", ".bin").toString();
+        WDGraph_Algo ga = new WDGraph_Algo(g);
+        assertTrue(ga.saveBinary(file));
+        try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+            // the target of the second edge points to a node that does not exist
+            f.seek(f.length() - 4);
+            f.write(new byte[]{9, 0, 0, 0});
+        }
+        assertFalse(ga.load(file));
+        assertSame(g, ga.getGraph());
+        try (RandomAccessFile f = new RandomAccessFile(file, "rw")) {
+            f.setLength(f.length() - 1);
+        }
+        assertThrows(IOException.class, () -> GraphBinary.read(file));
+        Files.delete(Paths.get(file));
+    }
+
+    @Test
+    void mappedNotCopied() throws IOException {
+        int n = 100_000;
+        directed_weighted_graph g = new WDGraph_DS();
+        for (int i = 0; i < n; i++) {
+            node_data v = new NodeData(i);
+            v.setLocation(new Geo_locationImpl(i, 2 * i, 0));
+            g.addNode(v);
+        }
+        Random r = new Random(3);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 10; j++) {
+                g.connect(i, r.nextInt(n), 1 + r.nextInt(10));
+            }
+        }
+        String file = Files.createTempFile("graph", ".bin").toString();
+        WDGraph_Algo ga = new WDGraph_Algo(g);
+        assertTrue(ga.saveBinary(file));
+        double dist = ga.shortestPathDist(0, n - 1);
+        ga = null;
+        g = null;
+
+        long before = usedHeap();
+        WDGraph_Algo loaded = new WDGraph_Algo();
+        assertTrue(loaded.load(file));
+        WDGraph_CSR b = (WDGraph_CSR) loaded.getGraph();
+        long used = usedHeap() - before;
+        assertTrue(b.isOffHeap());
+        // the heap arrays take 16 bytes per edge and 28 bytes per node, 17MB here
+        assertTrue(used < 4_000_000, "heap used by the loaded graph: " + used);
+        assertEquals(dist, loaded.shortestPathDist(0, n - 1));
+        assertEquals(new Geo_locationImpl(5, 10, 0), b.getNode(5).getLocation());
+        assertEquals(b.getNode(5), b.getV().stream().skip(5).findFirst().orElse(null));
+        assertThrows(UnsupportedOperationException.class, () -> b.getNode(5).setTag(1));
+
+        // saving over the mapped file replaces it, the loaded graph still reads the old one
+        directed_weighted_graph small = new WDGraph_DS();
+        small.addNode(new NodeData(0));
+        assertTrue(new WDGraph_Algo(small).saveBinary(file));
+        assertEquals(n, b.nodeSize());
+        assertEquals(dist, loaded.shortestPathDist(0, n - 1));
+        assertTrue(loaded.load(file));
+        assertEquals(1, loaded.getGraph().nodeSize());
+        Files.delete(Paths.get(file));
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,94 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphChangeLogTest {
+
+    private static WDGraph_DS graph(int n) {
+        WDGraph_DS g = new WDGraph_DS();
+        for (int i = 0; i < n; i++) {
+            g.addNode(new NodeData(i));
+        }
+        return g;
+    }
+
+    @Test
+    void typedEvents() {
+        WDGraph_DS g = graph(3);
+        List<GraphEvent> events = new ArrayList<>();
+        GraphListener l = new GraphListener() {
+            @Override
+            public void graphChanged(GraphEvent e) {
+                events.add(e);
+            }
+        };
+        g.addListener(l);
+        g.connect(0, 1, 2);
+        g.connect(0, 1, 5);
+        g.connect(0, 1, 5); // no change, no event
+        g.connect(1, 2, 1);
+        g.connect(2, 0, 1);
+        g.removeEdge(1, 2);
+        g.addNode(new NodeData(7));
+        g.removeNode(0);
+        g.removeListener(l);
+        g.connect(1, 2, 1);
+
+        GraphEvent.Type[] types = {GraphEvent.Type.EDGE_CONNECTED, GraphEvent.Type.EDGE_REWEIGHTED,
+                GraphEvent.Type.EDGE_CONNECTED, GraphEvent.Type.EDGE_CONNECTED, GraphEvent.Type.EDGE_REMOVED,
+                GraphEvent.Type.NODE_ADDED, GraphEvent.Type.EDGE_REMOVED, GraphEvent.Type.EDGE_REMOVED,
+                GraphEvent.Type.NODE_REMOVED};
+        assertEquals(types.length, events.size());
+        for (int i = 0; i < types.length; i++) {
+            assertEquals(types[i], events.get(i).getType(), events.get(i).toString());
+        }
+        assertEquals(2, events.get(1).getOldWeight());
+        assertEquals(5, events.get(1).getNewWeight());
+        assertEquals(7, events.get(5).getSrc());
+        assertFalse(events.get(5).isEdgeEvent());
+        // the mode count never goes down, and the last event has the final one
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).getMC() <= events.get(i).getMC());
+        }
+        assertEquals(g.getMC() - 1, events.get(events.size() - 1).getMC());
+    }
+
+    @Test
+    void ringBuffer() {
+        WDGraph_DS g = graph(10);
+        GraphChangeLog log = new GraphChangeLog(g, 4);
+        g.connect(0, 1, 1);
+        g.connect(1, 2, 1);
+        g.connect(2, 3, 1);
+        assertEquals(3, log.size());
+        List<GraphEvent> out = new ArrayList<>();
+        assertEquals(3, log.drainTo(out));
+        assertEquals(0, log.size());
+        assertEquals(1, out.get(1).getSrc());
+        assertEquals(g.getMC(), out.get(2).getMC());
+
+        for (int i = 0; i < 6; i++) {
+            g.connect(i, i + 2, 1);
+        }
+        assertTrue(log.hasOverflowed());
+        assertEquals(4, log.size());
+        assertEquals(-1, log.drainTo(out));
+        assertFalse(log.hasOverflowed());
+        assertEquals(0, log.size());
+
+        g.removeEdge(0, 1);
+        out.clear();
+        assertEquals(1, log.drainTo(out));
+        assertEquals(GraphEvent.Type.EDGE_REMOVED, out.get(0).getType());
+        assertEquals(10, log.getTotalEvents());
+
+        log.close();
+        g.connect(0, 1, 1);
+        assertEquals(0, log.size());
+    }
+}
@@ -0,0 +1,170 @@
+package api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphJsonTest {
+
+    @Test
+    void anyOrder() throws IOException {
+        String nodes = "\"Nodes\":[{\"pos\":\"1.5,2.0,0.0\",\"id\":0},{\"id\":1,\"pos\":\",,\"},{\"id\":2,\"pos\":\"0,0,0\"}]";
+        String edges = "\"Edges\":[{\"src\":0,\"w\":1.25,\"dest\":1},{\"dest\":2,\"src\":1,\"w\":3}]";
+        for (String json : new String[]{"{" + edges + "," + nodes + "}", "{" + nodes + "," + edges + "}"}) {
+            directed_weighted_graph g = GraphJson.read(new StringReader(json));
+            assertEquals(3, g.nodeSize());
+            assertEquals(2, g.edgeSize());
+            assertEquals(1.25, g.getEdge(0, 1).getWeight());
+            assertEquals(3, g.getEdge(1, 2).getWeight());
+            assertEquals(1.5, g.getNode(0).getLocation().x());
+            assertEquals(2.0, g.getNode(0).getLocation().y());
+            assertNull(g.getNode(1).getLocation());
+        }
+        assertThrows(JsonParseException.class, () -> GraphJson.read(new StringReader("{" + edges + "}")));
+        assertThrows(JsonParseException.class, () -> GraphJson.parsePos("1,2"));
+    }
+
+    @Test
+    void sameAsTree() throws IOException {
+        for (int i = 0; i <= 5; i++) {
+            String file = System.getProperty("user.dir") + "/data/A" + i;
+            JsonObject tree = JsonParser.parseString(new String(Files.readAllBytes(Paths.get(file)))).getAsJsonObject();
+            WDGraph_Algo ga = new WDGraph_Algo();
+            assertTrue(ga.load(file));
+            directed_weighted_graph g = ga.getGraph();
+            assertEquals(tree.getAsJsonArray("Nodes").size(), g.nodeSize());
+            assertEquals(tree.getAsJsonArray("Edges").size(), g.edgeSize());
+            for (JsonElement e : tree.getAsJsonArray("Nodes")) {
+                JsonObject o = e.getAsJsonObject();
+                String[] xyz = o.get("pos").getAsString().split(",");
+                geo_location p = g.getNode(o.get("id").getAsInt()).getLocation();
+                assertEquals(Double.parseDouble(xyz[0]), p.x());
+                assertEquals(Double.parseDouble(xyz[1]), p.y());
+                assertEquals(Double.parseDouble(xyz[2]), p.z());
+            }
+            for (JsonElement e : tree.getAsJsonArray("Edges")) {
+                JsonObject o = e.getAsJsonObject();
+                edge_data ed = g.getEdge(o.get("src").getAsInt(), o.get("dest").getAsInt());
+                assertEquals(o.get("w").getAsDouble(), ed.getWeight());
+            }
+        }
+    }
+
+    @Test
+    void saveLoadWithoutLocation() throws IOException {
+        directed_weighted_graph g = new WDGraph_DS();
+        g.addNode(new NodeData(4));
+        g.addNode(new NodeData(7));
+        g.getNode(4).setLocation(null);
+        g.connect(4, 7, 2.5);
+        WDGraph_Algo ga = new WDGraph_Algo(g);
+        String file = Files.createTempFile("graph", ".json").toString();
+        assertTrue(ga.save(file));
+        WDGraph_Algo loaded = new WDGraph_Algo();
+        assertTrue(loaded.load(file));
+        directed_weighted_graph l = loaded.getGraph();
+        assertEquals(2, l.nodeSize());
+        assertEquals(2.5, l.getEdge(4, 7).getWeight());
+        assertNull(l.getNode(4).getLocation());
+        assertEquals(g.getNode(7).getLocation(), l.getNode(7).getLocation());
+        assertFalse(loaded.load(file + ".missing"));
+        assertSame(l, loaded.getGraph());
+        Files.delete(Paths.get(file));
+    }
+
+    @Test
+    void writeSameAsTree() throws IOException {
+        for (int i = 0; i <= 5; i++) {
+            WDGraph_Algo ga = new WDGraph_Algo();
+            assertTrue(ga.load(System.getProperty("user.dir") + "/data/A" + i));
+            directed_weighted_graph g = ga.getGraph();
+            g.getNode(0).setLocation(null);
+            StringWriter out = new StringWriter();
+            GraphJson.write(g, out);
+            assertEquals(treeJson(g), out.toString());
+        }
+    }
+
+    @Test
+    void gzip() throws IOException {
+        String a0 = System.getProperty("user.dir") + "/data/A0";
+        WDGraph_Algo ga = new WDGraph_Algo();
+        assertTrue(ga.load(a0));
+        String file = Files.createTempFile("graph", ".json.gz").toString();
+        assertTrue(ga.save(file));
+        try (InputStream in = new FileInputStream(file)) {
+            assertEquals(0x1f, in.read());
+            assertEquals(0x8b, in.read());
+        }
+        WDGraph_Algo loaded = new WDGraph_Algo();
+        assertTrue(loaded.load(file));
+        assertEquals(ga.getGraph().edgeSize(), loaded.getGraph().edgeSize());
+        assertEquals(ga.shortestPathDist(0, 10), loaded.shortestPathDist(0, 10));
+
+        // a compressed file without the .gz name is found by its magic bytes
+        String noSuffix = Files.createTempFile("graph", ".json").toString();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(noSuffix))) {
+            out.write(Files.readAllBytes(Paths.get(a0)));
+        }
+        assertTrue(loaded.load(noSuffix));
+        assertEquals(ga.getGraph().nodeSize(), loaded.getGraph().nodeSize());
+        assertEquals(ga.getGraph().edgeSize(), loaded.getGraph().edgeSize());
+        Files.delete(Paths.get(file));
+        Files.delete(Paths.get(noSuffix));
+    }
+
+    /**
+     * The json text of the old save, that built a Gson tree of the graph, in the order of the keys.
+     */
+    private static String treeJson(directed_weighted_graph g) {
+        List<node_data> nodes = new ArrayList<>(g.getV());
+        nodes.sort(Comparator.comparingInt(node_data::getKey));
+        JsonObject json_obj = new JsonObject();
+        JsonArray nodes_arr = new JsonArray();
+        for (node_data i : nodes) {
+            JsonObject jo_node = new JsonObject();
+            if (i.getLocation() != null) {
+                jo_node.addProperty("pos", i.getLocation().x() + "," + i.getLocation().y() + "," + i.getLocation().z());
+            } else {
+                jo_node.addProperty("pos", ",,");
+            }
+            jo_node.addProperty("id", i.getKey());
+            nodes_arr.add(jo_node);
+        }
+        JsonArray edges_arr = new JsonArray();
+        for (node_data i : nodes) {
+            List<edge_data> row = new ArrayList<>(g.getE(i.getKey()));
+            row.sort(Comparator.comparingInt(edge_data::getDest));
+            for (edge_data j : row) {
+                JsonObject jo_edge = new JsonObject();
+                jo_edge.addProperty("src", j.getSrc());
+                jo_edge.addProperty("w", j.getWeight());
+                jo_edge.addProperty("dest", j.getDest());
+                edges_arr.add(jo_edge);
+            }
+        }
+        json_obj.add("Edges", edges_arr);
+        json_obj.add("Nodes", nodes_arr);
+        return new Gson().toJson(json_obj);
+    }
+}
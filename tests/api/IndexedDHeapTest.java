@@ -0,0 +1,48 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedDHeapTest {
+
+    @Test
+    void decreaseKey() {
+        IndexedDHeap h = new IndexedDHeap(10);
+        assertTrue(h.insertOrDecrease(3, 5));
+        assertTrue(h.insertOrDecrease(4, 2));
+        assertFalse(h.insertOrDecrease(4, 3));
+        assertTrue(h.insertOrDecrease(3, 1));
+        assertEquals(2, h.size());
+        assertEquals(3, h.poll());
+        assertEquals(4, h.poll());
+        assertTrue(h.isEmpty());
+        assertFalse(h.contains(3));
+    }
+
+    @Test
+    void sortedOrder() {
+        int n = 1000;
+        IndexedDHeap h = new IndexedDHeap(n);
+        Random rnd = new Random(1);
+        for (int i = 0; i < n; i++) {
+            h.insertOrDecrease(i, rnd.nextDouble() * 100);
+        }
+        for (int i = 0; i < n; i += 3) {
+            h.insertOrDecrease(i, h.key(i) / 2);
+        }
+        double prev = -1;
+        while (!h.isEmpty()) {
+            double k = h.peekKey();
+            h.poll();
+            assertTrue(prev <= k);
+            prev = k;
+        }
+        h.insertOrDecrease(5, 1);
+        h.clear();
+        assertTrue(h.isEmpty());
+        assertFalse(h.contains(5));
+    }
+}
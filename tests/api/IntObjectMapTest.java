@@ -0,0 +1,120 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+
+    @Test
+    void putGetRemove() {
+        IntObjectMap<String> m = new IntObjectMap<>();
+        assertTrue(m.isEmpty());
+        assertNull(m.get(5));
+        assertNull(m.put(5, "a"));
+        assertEquals("a", m.put(5, "b"));
+        assertEquals("b", m.get(5));
+        assertTrue(m.containsKey(5));
+        assertFalse(m.containsKey(6));
+        assertEquals(1, m.size());
+        assertEquals("b", m.remove(5));
+        assertNull(m.remove(5));
+        assertEquals(0, m.size());
+        assertThrows(NullPointerException.class, () -> m.put(1, null));
+    }
+
+    @Test
+    void randomAgainstHashMap() {
+        IntObjectMap<Integer> m = new IntObjectMap<>();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        Random rnd = new Random(3);
+        for (int i = 0; i < 200000; i++) {
+            int key = rnd.nextInt(5000) - 2500;
+            Integer value = i;
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), m.remove(key));
+            } else {
+                assertEquals(expected.put(key, value), m.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        assertEquals(expected, m);
+        assertEquals(m, expected);
+        assertEquals(expected.hashCode(), m.hashCode());
+        int count = 0;
+        for (Integer v : m.values()) {
+            assertNotNull(v);
+            count++;
+        }
+        assertEquals(expected.size(), count);
+    }
+
+    @Test
+    void liveValues() {
+        IntObjectMap<String> m = new IntObjectMap<>();
+        var values = m.values();
+        m.put(1, "a");
+        m.put(2, "b");
+        assertEquals(2, values.size());
+        assertTrue(values.contains("b"));
+        m.remove(2);
+        assertFalse(values.contains("b"));
+        assertEquals("{1=a}", m.toString());
+    }
+
+    @Test
+    void sortedKeys() {
+        IntObjectMap<String> m = new IntObjectMap<>();
+        for (int i = 10; i >= -2; i--) m.put(i, "v" + i);
+        m.remove(5);
+        assertArrayEquals(new int[]{-2, -1, 0, 1, 2, 3, 4, 6, 7, 8, 9, 10}, m.sortedKeys());
+        assertTrue(m.toString().startsWith("{-2=v-2, -1=v-1, 0=v0, 1=v1, 2=v2, 3=v3, 4=v4, 6=v6"));
+    }
+
+    @Test
+    void iteratorRemove() {
+        Random rnd = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            IntObjectMap<Integer> m = new IntObjectMap<>();
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            int size = 1 + rnd.nextInt(100);
+            for (int i = 0; i < size; i++) {
+                int key = rnd.nextInt(4 * size);
+                Integer value = key;
+                m.put(key, value);
+                expected.put(key, value);
+            }
+            // every entry is seen once, also the ones that the backward shift moves
+            Set<Integer> seen = new HashSet<>();
+            int before = m.size();
+            Iterator<Integer> it = m.keySet().iterator();
+            while (it.hasNext()) {
+                int key = it.next();
+                assertTrue(seen.add(key));
+                if (key % 3 != 0) {
+                    it.remove();
+                    expected.remove(key);
+                }
+            }
+            assertEquals(before, seen.size());
+            assertEquals(expected, m);
+            m.values().removeIf(v -> v % 2 == 0);
+            expected.values().removeIf(v -> v % 2 == 0);
+            assertEquals(expected, m);
+        }
+        IntObjectMap<String> m = new IntObjectMap<>();
+        m.put(1, "a");
+        Iterator<String> it = m.values().iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+        assertTrue(m.isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandmarkTableTest {
+
+    @Test
+    void aStarWithLandmarks() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(800, 3200, 31);
+        WDGraph_Algo dijkstra = new WDGraph_Algo(graph);
+        WDGraph_Algo alt = new WDGraph_Algo(graph);
+        alt.setSearchMode(WDGraph_Algo.SearchMode.A_STAR);
+        LandmarkTable t = alt.useLandmarks(8);
+        assertEquals(8, t.getLandmarks().length);
+        assertTrue(alt.isHeuristicBelowEdgeWeights());
+        for (int src = 0; src < 800; src += 111) {
+            for (int dest = 0; dest < 800; dest += 7) {
+                assertEquals(dijkstra.shortestPathDist(src, dest), alt.shortestPathDist(src, dest), 1e-9);
+                double lower = t.estimate(graph.getNode(src), graph.getNode(dest));
+                double d = dijkstra.shortestPathDist(src, dest);
+                if (d != -1) {
+                    assertTrue(lower <= d + 1e-9);
+                }
+            }
+        }
+
+        //the table does not describe the graph after a change
+        graph.connect(0, 1, 1000);
+        assertFalse(t.matches(graph));
+        assertFalse(alt.isHeuristicBelowEdgeWeights());
+        assertEquals(dijkstra.shortestPathDist(0, 1), alt.shortestPathDist(0, 1), 1e-9);
+    }
+
+    @Test
+    void saveNextToGraph() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(200, 800, 32);
+        String graphFile = "alt_test.json";
+        String file = LandmarkTable.fileFor(graphFile);
+        new File(file).delete();
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        LandmarkTable t = algo.useLandmarks(graphFile, 4);
+        assertTrue(new File(file).isFile());
+
+        LandmarkTable loaded = LandmarkTable.load(file);
+        assertNotNull(loaded);
+        assertTrue(loaded.matches(graph));
+        assertArrayEquals(t.getLandmarks(), loaded.getLandmarks());
+        for (int v = 0; v < 200; v += 5) {
+            assertEquals(t.estimate(graph.getNode(v), graph.getNode(3)), loaded.estimate(graph.getNode(v), graph.getNode(3)));
+        }
+        new File(file).delete();
+        assertNull(LandmarkTable.load(file));
+    }
+
+    @Test
+    void changedWeightIsNotMatched() throws IOException {
+        Path graphFile = Files.createTempFile("alt", ".json");
+        String file = LandmarkTable.fileFor(graphFile.toString());
+        WDGraph_Algo algo = new WDGraph_Algo();
+        assertTrue(algo.load(System.getProperty("user.dir") + "/data/A0"));
+        assertTrue(algo.save(graphFile.toString()));
+        LandmarkTable t = algo.useLandmarks(graphFile.toString(), 2);
+
+        // the same file loaded again (another Mode Count) uses the saved table
+        WDGraph_Algo same = new WDGraph_Algo();
+        assertTrue(same.loadParallel(graphFile.toString(), 1));
+        assertTrue(t.matches(same.getGraph()));
+
+        // one weight changed in the file, the same Mode Count when it is loaded
+        String json = new String(Files.readAllBytes(graphFile));
+        String edge = "{\"src\":0,\"w\":" + algo.getGraph().getEdge(0, 1).getWeight() + ",\"dest\":1}";
+        assertTrue(json.contains(edge));
+        Files.write(graphFile, json.replace(edge, "{\"src\":0,\"w\":9.5,\"dest\":1}").getBytes());
+        WDGraph_Algo changed = new WDGraph_Algo();
+        assertTrue(changed.load(graphFile.toString()));
+        assertEquals(algo.getGraph().getMC(), changed.getGraph().getMC());
+        assertFalse(t.matches(changed.getGraph()));
+        assertFalse(LandmarkTable.load(file).matches(changed.getGraph()));
+
+        // the stale table is computed again and saved over the old one
+        LandmarkTable fresh = changed.useLandmarks(graphFile.toString(), 2);
+        assertTrue(fresh.matches(changed.getGraph()));
+        assertTrue(LandmarkTable.load(file).matches(changed.getGraph()));
+        assertTrue(changed.isHeuristicBelowEdgeWeights());
+        changed.setSearchMode(WDGraph_Algo.SearchMode.A_STAR);
+        assertEquals(new WDGraph_Algo(changed.getGraph()).shortestPathDist(0, 1), changed.shortestPathDist(0, 1), 1e-12);
+        new File(file).delete();
+        Files.delete(graphFile);
+    }
+}
@@ -0,0 +1,122 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelGraphLoaderTest {
+
+    @Test
+    void sameAsLoad() {
+        for (int i = 0; i <= 5; i++) {
+            String file = System.getProperty("user.dir") + "/data/A" + i;
+            WDGraph_Algo ga = new WDGraph_Algo();
+            assertTrue(ga.load(file));
+            WDGraph_Algo pa = new WDGraph_Algo();
+            assertTrue(pa.loadParallel(file, 4));
+            assertSameGraph(ga.getGraph(), pa.getGraph());
+            assertEquals(ga.getGraph().getMC(), pa.getGraph().getMC());
+        }
+    }
+
+    @Test
+    void bigGraphManyChunks() throws IOException {
+        Random rnd = new Random(11);
+        int n = 20000;
+        WDGraph_DS g = new WDGraph_DS();
+        for (int i = 0; i < n; i++) {
+            NodeData node = new NodeData(3 * i);
+            node.setLocation(new Geo_locationImpl(rnd.nextDouble(), rnd.nextDouble(), 0));
+            g.addNode(node);
+        }
+        for (int i = 0; i < 200000; i++) {
+            double w = rnd.nextBoolean() ? 1 + rnd.nextInt(100) / 8.0 : 1 + rnd.nextDouble();
+            g.connect(3 * rnd.nextInt(n), 3 * rnd.nextInt(n), w);
+        }
+        String json = Files.createTempFile("graph", ".json").toString();
+        assertTrue(new WDGraph_Algo(g).save(json));
+        WDGraph_Algo pa = new WDGraph_Algo();
+        assertTrue(pa.loadParallel(json, 3));
+        assertSameGraph(g, pa.getGraph());
+        Files.delete(Paths.get(json));
+    }
+
+    @Test
+    void otherKeysAndRepeatedEdges() throws IOException {
+        String file = Files.createTempFile("graph", ".json").toString();
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println("{\"Edges\":[");
+            out.println("{\"src\":0,\"sid\":9,\"w\":1.5,\"note\":\"a \\\"quoted\\\" name, with }\",\"dest\":1},");
+            out.println("{\"dest\":2,\"wx\":true,\"src\":1,\"dxyz\":null,\"w\":2,\"id\":-1.5e3},");
+            out.println("{\"src\":0,\"w\":1.5,\"dest\":1},");
+            out.println("{\"src\":0,\"w\":3,\"dest\":1},");
+            out.println("{\"src\":2,\"w\":1,\"dest\":2},");
+            out.println("{\"src\":2,\"w\":4,\"dest\":2},");
+            out.println("{\"src\":2,\"w\":1,\"dest\":7}");
+            out.println("],\"Nodes\":[{\"pos\":\"0,0,0\",\"id\":0},{\"pos\":\"1,0,0\",\"id\":1},{\"pos\":\"2,0,0\",\"id\":2}]}");
+        }
+        WDGraph_Algo ga = new WDGraph_Algo();
+        assertTrue(ga.load(file));
+        WDGraph_Algo pa = new WDGraph_Algo();
+        assertTrue(pa.loadParallel(file, 2));
+        assertSameGraph(ga.getGraph(), pa.getGraph());
+        assertEquals(3, pa.getGraph().edgeSize());
+        assertEquals(3, pa.getGraph().getEdge(0, 1).getWeight());
+        assertEquals(1, pa.getGraph().getEdge(2, 2).getWeight());
+        assertEquals(ga.getGraph().getMC(), pa.getGraph().getMC());
+
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println("{\"Edges\":[{\"src\":0,\"w\":1,\"dest\":1,\"more\":{\"a\":1}}],\"Nodes\":[{\"id\":0},{\"id\":1}]}");
+        }
+        assertFalse(pa.loadParallel(file, 2));
+        Files.delete(Paths.get(file));
+    }
+
+    @Test
+    void edgeList() throws IOException {
+        String file = Files.createTempFile("edges", ".txt").toString();
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println("# src dest w");
+            out.println("1 2 0.5");
+            out.println("2\t3\t1.25");
+            out.println();
+            out.println("1,3,4e0");
+            out.println("-5 1 2");
+            out.print("1 2 0.75");
+        }
+        WDGraph_Algo pa = new WDGraph_Algo();
+        assertTrue(pa.loadParallel(file, 2));
+        directed_weighted_graph g = pa.getGraph();
+        assertEquals(4, g.nodeSize());
+        assertEquals(4, g.edgeSize());
+        assertEquals(0.75, g.getEdge(1, 2).getWeight());
+        assertEquals(4, g.getEdge(1, 3).getWeight());
+        assertNotNull(g.getNode(-5));
+        assertNull(g.getNode(1).getLocation());
+        assertEquals(2, pa.shortestPathDist(1, 3));
+
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println("1 2 x");
+        }
+        assertFalse(pa.loadParallel(file, 2));
+        assertSame(g, pa.getGraph());
+        Files.delete(Paths.get(file));
+    }
+
+    private static void assertSameGraph(directed_weighted_graph expected, directed_weighted_graph g) {
+        assertEquals(expected.nodeSize(), g.nodeSize());
+        assertEquals(expected.edgeSize(), g.edgeSize());
+        for (node_data v : expected.getV()) {
+            assertEquals(v.getLocation(), g.getNode(v.getKey()).getLocation());
+            for (edge_data e : expected.getE(v.getKey())) {
+                assertEquals(e.getWeight(), g.getEdge(e.getSrc(), e.getDest()).getWeight());
+            }
+        }
+    }
+}
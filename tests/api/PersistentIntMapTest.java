@@ -0,0 +1,74 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentIntMapTest {
+
+    @Test
+    void putGetRemove() {
+        PersistentIntMap<String> m = PersistentIntMap.empty();
+        PersistentIntMap<String> m1 = m.put(5, "a");
+        PersistentIntMap<String> m2 = m1.put(5, "b").put(-7, "c");
+        assertTrue(m.isEmpty());
+        assertNull(m.get(5));
+        assertEquals("a", m1.get(5));
+        assertEquals("b", m2.get(5));
+        assertEquals("c", m2.get(-7));
+        assertEquals(1, m1.size());
+        assertEquals(2, m2.size());
+        assertSame(m2, m2.remove(6));
+        PersistentIntMap<String> m3 = m2.remove(5);
+        assertNull(m3.get(5));
+        assertEquals("b", m2.get(5));
+        assertTrue(m3.remove(-7).isEmpty());
+        assertThrows(NullPointerException.class, () -> m.put(1, null));
+    }
+
+    @Test
+    void randomAgainstHashMap() {
+        PersistentIntMap<Integer> m = PersistentIntMap.empty();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        List<PersistentIntMap<Integer>> versions = new ArrayList<>();
+        List<HashMap<Integer, Integer>> expectedVersions = new ArrayList<>();
+        Random rnd = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            int key = rnd.nextInt(5000) - 2500;
+            if (rnd.nextInt(3) == 0) {
+                m = m.remove(key);
+                expected.remove(key);
+            } else {
+                m = m.put(key, i);
+                expected.put(key, i);
+            }
+            assertEquals(expected.size(), m.size());
+            if (i % 10000 == 0) {
+                versions.add(m);
+                expectedVersions.add(new HashMap<>(expected));
+            }
+        }
+        // the old versions are not changed
+        versions.add(m);
+        expectedVersions.add(expected);
+        for (int v = 0; v < versions.size(); v++) {
+            PersistentIntMap<Integer> pm = versions.get(v);
+            HashMap<Integer, Integer> hm = expectedVersions.get(v);
+            for (int key = -2500; key < 2500; key++) {
+                assertEquals(hm.get(key), pm.get(key));
+            }
+            HashSet<Integer> values = new HashSet<>();
+            for (Integer i : pm) {
+                values.add(i);
+            }
+            assertEquals(new HashSet<>(hm.values()), values);
+            assertEquals(hm.size(), pm.values().size());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StronglyConnectedComponentsTest {
+
+    @Test
+    void components() {
+        directed_weighted_graph graph = new WDGraph_DS();
+        for (int i = 1; i < 9; i++) {
+            graph.addNode(new NodeData(i));
+        }
+        //https://upload.wikimedia.org/wikipedia/commons/5/5c/Scc.png
+        graph.connect(1, 2, 1);
+        graph.connect(2, 5, 1);
+        graph.connect(2, 6, 1);
+        graph.connect(2, 3, 1);
+        graph.connect(3, 4, 1);
+        graph.connect(3, 7, 1);
+        graph.connect(4, 3, 1);
+        graph.connect(4, 8, 1);
+        graph.connect(5, 1, 1);
+        graph.connect(5, 6, 1);
+        graph.connect(6, 7, 1);
+        graph.connect(7, 6, 1);
+        graph.connect(8, 7, 1);
+        graph.connect(8, 4, 1);
+
+        StronglyConnectedComponents scc = new StronglyConnectedComponents(graph);
+        assertEquals(3, scc.count());
+        assertFalse(scc.isStronglyConnected());
+        int a = scc.componentOf(1), b = scc.componentOf(3), c = scc.componentOf(6);
+        assertArrayEquals(new int[]{1, 2, 5}, scc.members(a));
+        assertArrayEquals(new int[]{3, 4, 8}, scc.members(b));
+        assertArrayEquals(new int[]{6, 7}, scc.members(c));
+        assertEquals(-1, scc.componentOf(100));
+
+        //reverse topological order
+        assertEquals(0, c);
+        assertEquals(2, scc.successors(a).length);
+        assertArrayEquals(new int[]{c}, scc.successors(b));
+        assertEquals(0, scc.successors(c).length);
+    }
+
+    @Test
+    void matchesReachability() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(120, 200, 4);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        StronglyConnectedComponents scc = algo.connectedComponents();
+        int total = 0;
+        for (int comp = 0; comp < scc.count(); comp++) {
+            total += scc.size(comp);
+            for (int d : scc.successors(comp)) {
+                assertTrue(d < comp);
+            }
+        }
+        assertEquals(graph.nodeSize(), total);
+        for (int u = 0; u < 120; u += 7) {
+            for (int v = 0; v < 120; v++) {
+                boolean same = algo.shortestPathDist(u, v) != -1 && algo.shortestPathDist(v, u) != -1;
+                assertEquals(same, scc.componentOf(u) == scc.componentOf(v));
+            }
+        }
+    }
+
+    @Test
+    void longCycle() {
+        directed_weighted_graph graph = new WDGraph_DS();
+        int n = 200000;
+        for (int i = 0; i < n; i++) {
+            graph.addNode(new NodeData(i));
+        }
+        for (int i = 0; i < n; i++) {
+            graph.connect(i, (i + 1) % n, 1);
+        }
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        assertTrue(algo.isConnected());
+        graph.removeEdge(n - 1, 0);
+        assertFalse(algo.isConnected());
+        assertEquals(n, algo.connectedComponents().count());
+    }
+}
@@ -1,5 +1,8 @@
 package api;//package ex2.tests;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -8,7 +11,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,6 +145,247 @@ class WDGraph_AlgoTest {
 
     }
 
+    @Test
+    void concurrentQueries() throws InterruptedException {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(300, 1500, 3);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        double[] expected = new double[graph.nodeSize()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = algo.shortestPathDist(0, i);
+        }
+        for (node_data n : graph.getV()) {
+            n.setTag(7);
+        }
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = java.util.Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int r = 0; r < 5; r++) {
+                        for (int i = 0; i < expected.length; i++) {
+                            assertEquals(expected[i], algo.shortestPathDist(0, i));
+                        }
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        assertTrue(errors.isEmpty(), errors.toString());
+        for (node_data n : graph.getV()) {
+            assertEquals(7, n.getTag());
+        }
+        ShortestPathTree spt = algo.shortestPathTree(0);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], spt.getDist(i));
+        }
+    }
+
+    @Test
+    void shortestPathKeys() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(200, 1000, 5);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        ShortestPathTree spt = algo.shortestPathTree(0);
+        for (int i = 1; i < graph.nodeSize(); i++) {
+            int[] keys = algo.shortestPathKeys(0, i);
+            List<node_data> path = algo.shortestPath(0, i);
+            if (keys == null) {
+                assertNull(path);
+                assertEquals(-1, algo.shortestPathDist(0, i));
+                continue;
+            }
+            assertArrayEquals(keys, spt.getPathKeys(i));
+            assertEquals(keys.length, path.size());
+            double sum = 0;
+            for (int j = 0; j < keys.length; j++) {
+                assertEquals(keys[j], path.get(j).getKey());
+                if (j > 0) {
+                    sum += graph.getEdge(keys[j - 1], keys[j]).getWeight();
+                }
+            }
+            assertEquals(0, keys[0]);
+            assertEquals(i, keys[keys.length - 1]);
+            assertEquals(algo.shortestPathDist(0, i), sum, 1e-9);
+        }
+        assertArrayEquals(new int[]{0}, algo.shortestPathKeys(0, 0));
+    }
+
+    @Test
+    void bidirectional() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(300, 900, 11);
+        WDGraph_Algo uni = new WDGraph_Algo(graph);
+        WDGraph_Algo bi = new WDGraph_Algo(graph);
+        bi.setSearchMode(WDGraph_Algo.SearchMode.BIDIRECTIONAL);
+        for (int src = 0; src < 20; src++) {
+            for (int dest = 0; dest < graph.nodeSize(); dest++) {
+                double d = uni.shortestPathDist(src, dest);
+                assertEquals(d, bi.shortestPathDist(src, dest), 1e-9);
+                int[] keys = bi.shortestPathKeys(src, dest);
+                if (d == -1) {
+                    assertNull(keys);
+                    continue;
+                }
+                assertEquals(src, keys[0]);
+                assertEquals(dest, keys[keys.length - 1]);
+                double sum = 0;
+                for (int j = 1; j < keys.length; j++) {
+                    sum += graph.getEdge(keys[j - 1], keys[j]).getWeight();
+                }
+                assertEquals(d, sum, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void aStar() {
+        directed_weighted_graph graph = new WDGraph_DS();
+        java.util.Random rnd = new java.util.Random(3);
+        int n = 400;
+        for (int i = 0; i < n; i++) {
+            node_data d = new NodeData(i);
+            d.setLocation(new Geo_locationImpl(35 + rnd.nextDouble() / 100, 32 + rnd.nextDouble() / 100, 0));
+            graph.addNode(d);
+        }
+        for (int i = 0; i < 4 * n; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            double dis = graph.getNode(a).getLocation().distance(graph.getNode(b).getLocation());
+            graph.connect(a, b, 1 + 200 * dis * (1 + rnd.nextDouble()));
+        }
+        WDGraph_Algo dijkstra = new WDGraph_Algo(graph);
+        WDGraph_Algo aStar = new WDGraph_Algo(graph);
+        aStar.setSearchMode(WDGraph_Algo.SearchMode.A_STAR);
+        assertTrue(aStar.isHeuristicBelowEdgeWeights());
+        for (int dest = 0; dest < n; dest++) {
+            assertEquals(dijkstra.shortestPathDist(7, dest), aStar.shortestPathDist(7, dest), 1e-9);
+            List<node_data> p = aStar.shortestPath(7, dest);
+            assertEquals(dijkstra.shortestPathDist(7, dest) == -1, p == null);
+        }
+
+        //overestimates, so the queries fall back to Dijkstra
+        aStar.setHeuristic((a, b) -> 1000);
+        assertFalse(aStar.isHeuristicBelowEdgeWeights());
+        for (int dest = 0; dest < n; dest++) {
+            assertEquals(dijkstra.shortestPathDist(7, dest), aStar.shortestPathDist(7, dest), 1e-9);
+        }
+    }
+
+    @Test
+    void allPairs() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(150, 600, 9);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        AllPairsTable table = algo.allPairs();
+        assertSame(table, algo.allPairs());
+        for (int src = 0; src < 150; src++) {
+            ShortestPathTree spt = algo.shortestPathTree(src);
+            for (int dest = 0; dest < 150; dest++) {
+                double d = spt.getDist(dest);
+                assertEquals(d, table.getDist(src, dest));
+                int[] keys = table.getPathKeys(src, dest);
+                if (d == -1) {
+                    assertNull(keys);
+                    assertEquals(-1, table.nextHop(src, dest));
+                    continue;
+                }
+                assertEquals(dest, keys[keys.length - 1]);
+                assertEquals(keys.length > 1 ? keys[1] : -1, table.nextHop(src, dest));
+                if (keys.length > 1) {
+                    double rest = table.getDist(keys[1], dest);
+                    assertEquals(d, graph.getEdge(src, keys[1]).getWeight() + rest, 1e-9);
+                }
+            }
+        }
+        graph.removeEdge(0, graph.getE(0).iterator().next().getDest());
+        assertNotSame(table, algo.allPairs());
+    }
+
+    @Test
+    void treeCache() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(100, 400, 13);
+        WDGraph_Algo plain = new WDGraph_Algo(graph);
+        WDGraph_Algo cached = new WDGraph_Algo(graph);
+        cached.setTreeCacheCapacity(2);
+        for (int dest = 0; dest < 100; dest++) {
+            assertEquals(plain.shortestPathDist(3, dest), cached.shortestPathDist(3, dest));
+            assertEquals(plain.shortestPathDist(4, dest), cached.shortestPathDist(4, dest));
+            assertEquals(plain.shortestPath(3, dest), cached.shortestPath(3, dest));
+        }
+        assertEquals(2, cached.getTreeCacheMisses());
+        assertEquals(298, cached.getTreeCacheHits());
+
+        //5 evicts 4, the least recently used
+        cached.shortestPathDist(5, 0);
+        cached.shortestPathDist(3, 0);
+        assertEquals(3, cached.getTreeCacheMisses());
+        cached.shortestPathDist(4, 0);
+        assertEquals(4, cached.getTreeCacheMisses());
+
+        //a change of the graph makes the cached trees stale
+        graph.connect(3, 99, 0.001);
+        assertEquals(plain.shortestPathDist(3, 99), cached.shortestPathDist(3, 99));
+        assertEquals(5, cached.getTreeCacheMisses());
+        cached.setTreeCacheCapacity(0);
+        assertEquals(plain.shortestPathDist(4, 99), cached.shortestPathDist(4, 99));
+        assertEquals(5, cached.getTreeCacheMisses());
+    }
+
+    @Test
+    void oneToMany() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(200, 500, 17);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        int[] targets = {5, 17, 5, 199, 1000, 2, 60};
+        double[] dist = algo.shortestPathDist(2, targets);
+        List<List<node_data>> paths = algo.shortestPaths(2, targets);
+        assertEquals(targets.length, dist.length);
+        assertEquals(targets.length, paths.size());
+        for (int i = 0; i < targets.length; i++) {
+            assertEquals(algo.shortestPathDist(2, targets[i]), dist[i]);
+            assertEquals(algo.shortestPath(2, targets[i]), paths.get(i));
+        }
+        assertEquals(-1, dist[4]);
+        assertEquals(0, dist[5]);
+        assertArrayEquals(new double[]{-1}, algo.shortestPathDist(1000, new int[]{1}));
+        assertNull(algo.shortestPaths(1000, new int[]{1}).get(0));
+    }
+
+    @Test
+    void nearestSources() {
+        directed_weighted_graph graph = GraphGeneralTest.graph_creator(300, 1200, 21);
+        WDGraph_Algo algo = new WDGraph_Algo(graph);
+        int[] sources = {4, 80, 150, 299, 5000};
+        VoronoiPartition cells = algo.nearestSources(sources);
+        int total = 0;
+        for (int src : new int[]{4, 80, 150, 299}) {
+            assertEquals(src, cells.getSource(src));
+            assertEquals(0, cells.getDist(src));
+            total += cells.getCell(src).length;
+        }
+        int reached = 0;
+        for (int v = 0; v < 300; v++) {
+            double best = -1;
+            for (int src : new int[]{4, 80, 150, 299}) {
+                double d = algo.shortestPathDist(src, v);
+                if (d != -1 && (best == -1 || d < best)) {
+                    best = d;
+                }
+            }
+            assertEquals(best, cells.getDist(v), 1e-9);
+            if (best == -1) {
+                assertEquals(-1, cells.getSource(v));
+                assertNull(cells.getPathKeys(v));
+                continue;
+            }
+            reached++;
+            assertEquals(best, algo.shortestPathDist(cells.getSource(v), v), 1e-9);
+            int[] path = cells.getPathKeys(v);
+            assertEquals(cells.getSource(v), path[0]);
+            assertEquals(v, path[path.length - 1]);
+        }
+        assertEquals(reached, total);
+        assertEquals(0, cells.getCell(5000).length);
+    }
+
 //    @Test
 //    void shortestPath() {
 //        fail();
@@ -195,6 +441,39 @@ class WDGraph_AlgoTest {
         }
     }
 
+    @Test
+    void saveKeepsFileOrder() throws IOException {
+        // the data files were written by the first save, in the order of the keys
+        Path tmp = Files.createTempFile("order", ".json");
+        for (int i = 0; i <= 5; i++) {
+            String a = System.getProperty("user.dir") + "/data/A" + i;
+            dw_graph_algorithms ga = new WDGraph_Algo();
+            assertTrue(ga.load(a));
+            assertTrue(ga.save(tmp.toString()));
+            JsonObject file = JsonParser.parseString(new String(Files.readAllBytes(Paths.get(a)))).getAsJsonObject();
+            JsonObject saved = JsonParser.parseString(new String(Files.readAllBytes(tmp))).getAsJsonObject();
+            // the nodes come by key exactly as in the file, the edges of a node stay together in the same order of sources
+            assertEquals(file.get("Nodes"), saved.get("Nodes"), "A" + i);
+            assertEquals(edgesBySrc(file), edgesBySrc(saved), "A" + i);
+        }
+        Files.delete(tmp);
+    }
+
+    /**
+     * The edges of a saved graph grouped by source, in the order the sources come in the file.
+     */
+    private static List<Set<JsonElement>> edgesBySrc(JsonObject json) {
+        List<Set<JsonElement>> ans = new ArrayList<>();
+        int last = -1;
+        for (JsonElement e : json.getAsJsonArray("Edges")) {
+            int src = e.getAsJsonObject().get("src").getAsInt();
+            if (ans.isEmpty() || src != last) ans.add(new HashSet<>());
+            ans.get(ans.size() - 1).add(e);
+            last = src;
+        }
+        return ans;
+    }
+
 //    @AfterEach
 //    void tearDown() {
 //        NodeData.setMaster(0);
@@ -0,0 +1,87 @@
+package api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WDGraph_CSRTest {
+
+    private static WDGraph_DS g;
+
+    @BeforeEach
+    void setUp() {
+        g = new WDGraph_DS();
+        for (int i = 1; i < 7; i++) {
+            g.addNode(new NodeData(i * 10));
+        }
+        g.connect(10, 20, 7);
+        g.connect(10, 60, 14);
+        g.connect(10, 30, 9);
+        g.connect(20, 30, 10);
+        g.connect(20, 40, 15);
+        g.connect(30, 60, 2);
+        g.connect(30, 40, 11);
+        g.connect(40, 50, 6);
+        g.connect(50, 60, 9);
+    }
+
+    @Test
+    void freeze() {
+        WDGraph_CSR csr = g.freeze();
+        assertEquals(g.nodeSize(), csr.nodeSize());
+        assertEquals(g.edgeSize(), csr.edgeSize());
+        assertEquals(g.getMC(), csr.getMC());
+        for (node_data i : g.getV()) {
+            assertEquals(g.getE(i.getKey()).size(), csr.getE(i.getKey()).size());
+            for (edge_data j : g.getE(i.getKey())) {
+                assertEquals(j.getWeight(), csr.getEdge(j.getSrc(), j.getDest()).getWeight());
+            }
+        }
+        assertNull(csr.getEdge(20, 10));
+        assertNull(csr.getNode(11));
+        assertNull(csr.getE(11));
+    }
+
+    @Test
+    void snapshotIsolation() {
+        WDGraph_CSR csr = g.freeze();
+        g.connect(60, 10, 1);
+        g.removeEdge(10, 20);
+        g.getNode(10).setInfo("changed");
+        assertNull(csr.getEdge(60, 10));
+        assertNotNull(csr.getEdge(10, 20));
+        assertEquals("", csr.getNode(10).getInfo());
+        assertThrows(UnsupportedOperationException.class, () -> csr.connect(60, 10, 1));
+        assertThrows(UnsupportedOperationException.class, () -> csr.removeNode(10));
+    }
+
+    @Test
+    void indices() {
+        WDGraph_CSR csr = g.freeze();
+        int i = csr.indexOf(30);
+        assertEquals(30, csr.keyOf(i));
+        assertEquals(2, csr.outEnd(i) - csr.outStart(i));
+        assertEquals(2, csr.inEnd(i) - csr.inStart(i));
+        for (int p = csr.inStart(i); p < csr.inEnd(i); p++) {
+            assertEquals(i, csr.target(csr.inEdge(p)));
+        }
+        assertEquals(-1, csr.indexOf(35));
+    }
+
+    @Test
+    void algorithms() {
+        dw_graph_algorithms ga = new WDGraph_Algo(g);
+        dw_graph_algorithms gaCsr = new WDGraph_Algo(g.freeze());
+        assertEquals(ga.shortestPathDist(10, 50), gaCsr.shortestPathDist(10, 50));
+        List<node_data> path = gaCsr.shortestPath(10, 50);
+        int[] expected = {10, 30, 40, 50};
+        assertEquals(expected.length, path.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], path.get(i).getKey());
+        }
+        assertEquals(ga.isConnected(), gaCsr.isConnected());
+    }
+}
@@ -0,0 +1,92 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WDGraph_ConcurrentTest {
+
+    @Test
+    void sameAsWDGraph_DS() {
+        directed_weighted_graph g = new WDGraph_Concurrent();
+        for (int i = 0; i < 3; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(0, 1, 1);
+        g.connect(0, 1, 1);
+        g.connect(0, 2, 1);
+        g.connect(2, 1, 1);
+        g.connect(2, 1, 3);
+        assertEquals(3, g.edgeSize());
+        assertEquals(3, g.getEdge(2, 1).getWeight());
+        assertNull(g.removeEdge(1, 2));
+        assertNotNull(g.removeEdge(0, 2));
+        assertEquals(2, g.edgeSize());
+        assertNotNull(g.removeNode(1));
+        assertEquals(0, g.edgeSize());
+        assertEquals(2, g.nodeSize());
+        assertNull(g.removeNode(1));
+    }
+
+    @Test
+    void parallelWriters() throws InterruptedException {
+        WDGraph_Concurrent g = new WDGraph_Concurrent(8);
+        int n = 200;
+        for (int i = 0; i < n; i++) {
+            g.addNode(new NodeData(i));
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random rnd = new Random(seed);
+                for (int i = 0; i < 20000; i++) {
+                    int a = rnd.nextInt(n), b = rnd.nextInt(n);
+                    int op = rnd.nextInt(10);
+                    if (op < 6) {
+                        g.connect(a, b, rnd.nextInt(5) + 1);
+                    } else if (op < 9) {
+                        g.removeEdge(a, b);
+                    } else {
+                        g.removeNode(a);
+                        g.addNode(new NodeData(a));
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        int edges = 0;
+        for (node_data i : g.getV()) {
+            for (edge_data j : g.getE(i.getKey())) {
+                assertNotNull(g.getNode(j.getDest()));
+                assertTrue(g.getInNodes(j.getDest()).contains(i));
+                edges++;
+            }
+        }
+        assertEquals(edges, g.edgeSize());
+        assertEquals(n, g.nodeSize());
+    }
+
+    @Test
+    void algorithms() {
+        directed_weighted_graph g = new WDGraph_Concurrent();
+        for (int i = 1; i < 5; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(1, 2, 1);
+        g.connect(2, 3, 1);
+        g.connect(1, 3, 5);
+        g.connect(3, 4, 1);
+        g.connect(4, 1, 1);
+        dw_graph_algorithms ga = new WDGraph_Algo(g);
+        assertEquals(3, ga.shortestPathDist(1, 4));
+        assertEquals(4, ga.shortestPath(1, 4).size());
+        assertTrue(ga.isConnected());
+    }
+}
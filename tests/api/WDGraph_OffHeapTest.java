@@ -0,0 +1,197 @@
+package api;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WDGraph_OffHeapTest {
+
+    private static WDGraph_OffHeap g;
+
+    @BeforeEach
+    void setUp() {
+        g = new WDGraph_OffHeap();
+    }
+
+    @Test
+    void nodes() {
+        node_data n = new NodeData(7);
+        n.setLocation(new Geo_locationImpl(1, 2, 3));
+        n.setInfo("seven");
+        g.addNode(n);
+        node_data v = g.getNode(7);
+        assertEquals(7, v.getKey());
+        assertEquals("seven", v.getInfo());
+        assertEquals(new Geo_locationImpl(1, 2, 3), v.getLocation());
+        v.setTag(4);
+        v.setWeight(2.5);
+        assertEquals(4, g.getNode(7).getTag());
+        assertEquals(2.5, g.getNode(7).getWeight());
+        assertEquals(1, g.nodeSize());
+        assertTrue(g.getV().contains(g.getNode(7)));
+        assertNull(g.getNode(8));
+    }
+
+    @Test
+    void edges() {
+        for (int i = 0; i < 3; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(0, 1, 1.5);
+        g.connect(0, 2, 2.5);
+        g.connect(2, 0, 3.5);
+        assertEquals(3, g.edgeSize());
+        assertEquals(1.5, g.getEdge(0, 1).getWeight());
+        assertNull(g.getEdge(1, 0));
+        assertEquals(2, g.getE(0).size());
+        g.connect(0, 1, 4);
+        assertEquals(4, g.getEdge(0, 1).getWeight());
+        assertEquals(3, g.edgeSize());
+        edge_data removed = g.removeEdge(0, 2);
+        assertEquals(2.5, removed.getWeight());
+        assertNull(g.getEdge(0, 2));
+        assertNull(g.removeEdge(0, 2));
+        assertEquals(2, g.edgeSize());
+        node_data rem = g.removeNode(0);
+        assertEquals(0, rem.getKey());
+        assertEquals(0, g.edgeSize());
+        assertEquals(2, g.nodeSize());
+        assertNull(g.getE(0));
+    }
+
+    @Test
+    void randomAgainstWDGraph_DS() {
+        WDGraph_DS expected = new WDGraph_DS();
+        Random rnd = new Random(5);
+        int n = 300;
+        for (int i = 0; i < n; i++) {
+            g.addNode(new NodeData(i));
+            expected.addNode(new NodeData(i));
+        }
+        for (int i = 0; i < 20000; i++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            if (a == b) {
+                continue;
+            }
+            if (rnd.nextInt(4) == 0) {
+                assertEquals(expected.removeEdge(a, b) == null, g.removeEdge(a, b) == null);
+            } else {
+                double w = rnd.nextInt(10) + 1;
+                expected.connect(a, b, w);
+                g.connect(a, b, w);
+            }
+        }
+        expected.removeNode(17);
+        g.removeNode(17);
+        assertEquals(expected.nodeSize(), g.nodeSize());
+        assertEquals(expected.edgeSize(), g.edgeSize());
+        assertEquals(expected.getMC(), g.getMC());
+        for (node_data i : expected.getV()) {
+            assertEquals(expected.getE(i.getKey()).size(), g.getE(i.getKey()).size());
+            for (edge_data j : expected.getE(i.getKey())) {
+                assertEquals(j.getWeight(), g.getEdge(j.getSrc(), j.getDest()).getWeight());
+            }
+        }
+    }
+
+    @Test
+    void algorithms() {
+        for (int i = 1; i < 7; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(1, 2, 7);
+        g.connect(1, 6, 14);
+        g.connect(1, 3, 9);
+        g.connect(3, 6, 2);
+        g.connect(3, 4, 11);
+        g.connect(4, 5, 6);
+        g.connect(5, 6, 9);
+        dw_graph_algorithms ga = new WDGraph_Algo(g);
+        assertEquals(26, ga.shortestPathDist(1, 5));
+        List<node_data> path = ga.shortestPath(1, 5);
+        assertEquals(4, path.size());
+        assertEquals(3, path.get(1).getKey());
+        assertFalse(ga.isConnected());
+        assertEquals(g.edgeSize(), ga.copy().edgeSize());
+    }
+
+    @Test
+    void indexAtMaxSize() {
+        // index tables of 2^2 entries that grow up to 2^5, as the real ones grow up to 2^31
+        WDGraph_OffHeap h = new WDGraph_OffHeap(2, 5);
+        for (int i = 0; i < 31; i++) {
+            h.addNode(new NodeData(i));
+        }
+        assertThrows(IllegalStateException.class, () -> h.addNode(new NodeData(31)));
+        assertEquals(31, h.nodeSize());
+        assertNull(h.getNode(31));
+        for (int i = 0; i < 31; i++) {
+            assertEquals(i, h.getNode(i).getKey());
+        }
+
+        int k = 0;
+        for (int src = 0; k < 31; src++) {
+            for (int dest = 0; dest < 6 && k < 31; dest++, k++) {
+                h.connect(src, dest, k + 1);
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> h.connect(30, 0, 1));
+        assertEquals(31, h.edgeSize());
+        assertNull(h.getEdge(30, 0));
+        k = 0;
+        for (int src = 0; k < 31; src++) {
+            for (int dest = 0; dest < 6 && k < 31; dest++, k++) {
+                assertEquals(k + 1, h.getEdge(src, dest).getWeight());
+            }
+        }
+        assertNotNull(h.removeEdge(0, 0));
+        h.connect(30, 0, 1);
+        assertEquals(1, h.getEdge(30, 0).getWeight());
+        assertEquals(31, h.edgeSize());
+    }
+
+    @Test
+    void queriedWithoutHeapCopy() {
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            g.addNode(new NodeData(i));
+        }
+        Random r = new Random(5);
+        for (int i = 0; i < n; i++) {
+            g.connect(i, (i + 1) % n, 1 + r.nextInt(10));
+            for (int j = 0; j < 9; j++) {
+                g.connect(i, r.nextInt(n), 1 + r.nextInt(10));
+            }
+        }
+        WDGraph_Algo ga = new WDGraph_Algo(g);
+        long before = usedHeap();
+        WDGraph_CSR s = ga.snapshot();
+        s.inStart(0);
+        long used = usedHeap() - before;
+        assertTrue(s.isOffHeap());
+        // a heap snapshot takes 20 bytes per edge (target, weight and the incoming edge), 20MB here
+        assertTrue(used < 4_000_000, "heap used by the snapshot: " + used);
+        assertSame(s, ga.snapshot());
+        assertEquals(g.getNode(7), s.getNode(7));
+
+        WDGraph_Algo heap = new WDGraph_Algo(new WDGraph_DS(g));
+        assertFalse(heap.snapshot().isOffHeap());
+        for (int i = 0; i < 20; i++) {
+            int src = r.nextInt(n), dest = r.nextInt(n);
+            assertEquals(heap.shortestPathDist(src, dest), ga.shortestPathDist(src, dest));
+        }
+        assertEquals(heap.isConnected(), ga.isConnected());
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,122 @@
+package api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WDGraph_PersistentTest {
+
+    @Test
+    void sameAsWDGraph_DS() {
+        directed_weighted_graph g = new WDGraph_Persistent();
+        for (int i = 0; i < 3; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(0, 1, 1);
+        g.connect(0, 1, 1);
+        g.connect(0, 2, 1);
+        g.connect(2, 1, 1);
+        g.connect(2, 1, 3);
+        g.connect(2, 2, 3);
+        assertEquals(4, g.edgeSize());
+        assertEquals(3, g.getEdge(2, 1).getWeight());
+        assertNull(g.removeEdge(1, 2));
+        assertNotNull(g.removeEdge(0, 2));
+        assertEquals(3, g.edgeSize());
+        assertNotNull(g.removeNode(1));
+        assertEquals(1, g.edgeSize());
+        assertNotNull(g.removeNode(2));
+        assertEquals(0, g.edgeSize());
+        assertEquals(1, g.nodeSize());
+        assertNull(g.removeNode(1));
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        Random rnd = new Random(5);
+        int n = 100;
+        WDGraph_DS ds = new WDGraph_DS();
+        for (int i = 0; i < n; i++) {
+            ds.addNode(new NodeData(i));
+        }
+        for (int i = 0; i < 500; i++) {
+            ds.connect(rnd.nextInt(n), rnd.nextInt(n), 1 + rnd.nextInt(10));
+        }
+        WDGraph_Persistent base = new WDGraph_Persistent(ds);
+        assertEquals(ds.edgeSize(), base.edgeSize());
+        WDGraph_DS expectedBase = new WDGraph_DS(ds);
+
+        for (int round = 0; round < 20; round++) {
+            WDGraph_Persistent copy = base.copy();
+            WDGraph_DS expected = new WDGraph_DS(expectedBase);
+            for (int i = 0; i < 50; i++) {
+                int a = rnd.nextInt(n), b = rnd.nextInt(n);
+                int op = rnd.nextInt(10);
+                if (op < 5) {
+                    double w = 1 + rnd.nextInt(10);
+                    copy.connect(a, b, w);
+                    expected.connect(a, b, w);
+                } else if (op < 8) {
+                    assertEquals(expected.removeEdge(a, b) == null, copy.removeEdge(a, b) == null);
+                } else if (op < 9) {
+                    copy.removeNode(a);
+                    expected.removeNode(a);
+                } else {
+                    copy.addNode(new NodeData(a));
+                    expected.addNode(new NodeData(a));
+                }
+            }
+            assertSameGraph(expected, copy);
+            assertSameGraph(expectedBase, base);
+        }
+    }
+
+    @Test
+    void algoCopy() {
+        WDGraph_Persistent g = new WDGraph_Persistent();
+        for (int i = 0; i < 4; i++) {
+            g.addNode(new NodeData(i));
+        }
+        g.connect(0, 1, 1);
+        g.connect(1, 2, 1);
+        g.connect(0, 2, 5);
+        WDGraph_Algo ga = new WDGraph_Algo(g);
+        directed_weighted_graph c = ga.sharedCopy();
+        assertTrue(c instanceof WDGraph_Persistent);
+        c.removeEdge(1, 2);
+        assertEquals(2, ga.shortestPathDist(0, 2));
+        assertEquals(5, new WDGraph_Algo(c).shortestPathDist(0, 2));
+        assertSame(g.getNode(1), c.getNode(1));
+
+        // copy() is deep, the nodes of the copy are its own
+        directed_weighted_graph d = ga.copy();
+        assertTrue(d instanceof WDGraph_Persistent);
+        d.getNode(1).setTag(7);
+        d.getNode(1).setInfo("what-if");
+        d.removeEdge(0, 1);
+        assertNotEquals(7, g.getNode(1).getTag());
+        assertNotEquals("what-if", g.getNode(1).getInfo());
+        assertNotNull(g.getEdge(0, 1));
+        assertEquals(g.edgeSize() - 1, d.edgeSize());
+    }
+
+    private static void assertSameGraph(directed_weighted_graph expected, WDGraph_Persistent g) {
+        assertEquals(expected.nodeSize(), g.nodeSize());
+        assertEquals(expected.edgeSize(), g.edgeSize());
+        int edges = 0;
+        for (node_data v : g.getV()) {
+            assertNotNull(expected.getNode(v.getKey()));
+            for (edge_data e : g.getE(v.getKey())) {
+                assertEquals(expected.getEdge(e.getSrc(), e.getDest()).getWeight(), e.getWeight());
+                assertTrue(g.getInNodes(e.getDest()).contains(v));
+                edges++;
+            }
+            for (node_data i : g.getInNodes(v.getKey())) {
+                assertNotNull(g.getEdge(i.getKey(), v.getKey()));
+            }
+        }
+        assertEquals(expected.edgeSize(), edges);
+    }
+}
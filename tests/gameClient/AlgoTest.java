@@ -6,6 +6,8 @@ import api.node_data;
 import org.junit.jupiter.api.*;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,12 +21,42 @@ class AlgoTest {
 
     @BeforeAll
     static void beforeAll() {
+        newGame();
+    }
+
+    private static void newGame() {
         _game = Game_Server_Ex2.getServer(0);
         _arena = new Arena(_game);
         Algo.set_ar(_arena);
         Algo.set_graph(_arena.get_graph());
     }
 
+    /**
+     * runs first: once the game of the other tests is started the server gives no new games,
+     * and a new game changes the server, so the game of the other tests is made again at the end.
+     */
+    @Order(0)
+    @Test
+    void placeAgentsByDist() {
+        game_service game = Game_Server_Ex2.getServer(13); // 2 agents, 2 pokemons
+        Arena arena = new Arena(game);
+        Algo.set_ar(arena);
+        Algo.set_graph(arena.get_graph());
+        Set<Integer> sources = new HashSet<>();
+        for (Pokemon p : arena.getPokemons()) {
+            sources.add(p.get_edge().getSrc());
+        }
+        Algo.placeAgentsByDist(2, game);
+        arena.update(game);
+        assertEquals(2, arena.getAgents().size());
+        Set<Integer> placed = new HashSet<>();
+        for (Agent a : arena.getAgents()) {
+            placed.add(a.getSrcNode());
+        }
+        assertEquals(sources, placed);
+        newGame();
+    }
+
     @Order(1)
     @Test
     void placeAgents() {
@@ -64,5 +96,4 @@ class AlgoTest {
         int nextMove = Algo.nextMove(_game, _agent);
         assertEquals(8, nextMove);
     }
-
-}
\ No newline at end of file
+}